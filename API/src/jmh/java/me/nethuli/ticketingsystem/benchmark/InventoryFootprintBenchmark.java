@@ -0,0 +1,118 @@
+package me.nethuli.ticketingsystem.benchmark;
+
+import me.nethuli.ticketingsystem.config.TicketingTicketIdProperties;
+import me.nethuli.ticketingsystem.helper.LongArrayQueue;
+import me.nethuli.ticketingsystem.helper.MpmcLongRingBuffer;
+import me.nethuli.ticketingsystem.helper.MpmcRingBuffer;
+import me.nethuli.ticketingsystem.helper.SnowflakeIdGenerator;
+import me.nethuli.ticketingsystem.helper.TicketIdCodec;
+import me.nethuli.ticketingsystem.helper.TicketIdGenerator;
+import me.nethuli.ticketingsystem.helper.TicketIdGeneratorFactory;
+import me.nethuli.ticketingsystem.model.Ticket;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Measures the heap kept per available seat by a pool's inventory: seats tickets with Snowflake
+ * names are put into the store and the live heap is compared before and after, with a full
+ * collection each time. TICKET_QUEUE and TICKET_RING are the Ticket objects the fair and
+ * lock-free pools kept before, LONG_QUEUE and LONG_RING the inventory ids they keep now. The
+ * result is the bytesPerSeat counter; the time is only how long filling the store took. JMH
+ * adds counters up across iterations, so the footprint is measured in a single one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseSerialGC", "-Xms2g", "-Xmx2g"})
+public class InventoryFootprintBenchmark {
+    public enum Inventory {
+        TICKET_QUEUE,
+        TICKET_RING,
+        LONG_QUEUE,
+        LONG_RING
+    }
+
+    @Param({"TICKET_QUEUE", "TICKET_RING", "LONG_QUEUE", "LONG_RING"})
+    public Inventory inventory;
+
+    // A full lock-free pool, and a stadium's worth of seats
+    @Param({"32768", "1000000"})
+    public int seats;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double bytesPerSeat;
+    }
+
+    @Benchmark
+    public void fill(Footprint footprint) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        TicketIdGenerator ticketIdGenerator = new TicketIdGeneratorFactory(new TicketingTicketIdProperties(),
+                new SnowflakeIdGenerator(0)).create("Vendor-1");
+        TicketIdCodec ticketIds = new TicketIdCodec();
+        // The codec's series table is part of the id inventories' footprint
+        ticketIds.encode(ticketIdGenerator.getPrefix(), ticketIdGenerator.nextId());
+
+        long usedBefore = usedHeap(memory);
+        Object store = switch (inventory) {
+            case TICKET_QUEUE -> {
+                ConcurrentLinkedQueue<Ticket> tickets = new ConcurrentLinkedQueue<>();
+                for (int i = 0; i < seats; i++) {
+                    tickets.offer(new Ticket(ticketIdGenerator.nextTicketId()));
+                }
+                yield tickets;
+            }
+            case TICKET_RING -> {
+                MpmcRingBuffer<Ticket> tickets = new MpmcRingBuffer<>(seats);
+                for (int i = 0; i < seats; i++) {
+                    tickets.offer(new Ticket(ticketIdGenerator.nextTicketId()));
+                }
+                yield tickets;
+            }
+            case LONG_QUEUE -> {
+                LongArrayQueue tickets = new LongArrayQueue(seats);
+                for (int i = 0; i < seats; i++) {
+                    tickets.offer(ticketIds.encode(ticketIdGenerator.getPrefix(), ticketIdGenerator.nextId()));
+                }
+                yield tickets;
+            }
+            case LONG_RING -> {
+                MpmcLongRingBuffer tickets = new MpmcLongRingBuffer(seats);
+                for (int i = 0; i < seats; i++) {
+                    tickets.offer(ticketIds.encode(ticketIdGenerator.getPrefix(), ticketIdGenerator.nextId()));
+                }
+                yield tickets;
+            }
+        };
+        long usedAfter = usedHeap(memory);
+        footprint.bytesPerSeat = (double) (usedAfter - usedBefore) / seats;
+        // Keep the store and codec alive until the heap has been measured
+        Reference.reachabilityFence(store);
+        Reference.reachabilityFence(ticketIds);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
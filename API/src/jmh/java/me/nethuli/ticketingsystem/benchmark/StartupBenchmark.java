@@ -0,0 +1,137 @@
+package me.nethuli.ticketingsystem.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Measures time to first request: from launching the packaged application in a new JVM until
+ * /api/tickets/health answers 200. Every invocation starts a cold process, so the benchmark JVM
+ * itself needs no warm-up. Build the application with ./mvnw -Pprod package first; DEFAULT
+ * runs the plain jar, PROD the extracted jar with the prod profile and PROD_AOT_CDS adds the
+ * AOT-generated context and the CDS archive from the training run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public enum Launch {
+        DEFAULT,
+        PROD,
+        PROD_AOT_CDS
+    }
+
+    @Param({"DEFAULT", "PROD", "PROD_AOT_CDS"})
+    public Launch launch;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private Path appDirectory;
+    private Path jar;
+
+    @Setup
+    public void setUp() throws IOException {
+        appDirectory = Path.of("target", "app").toAbsolutePath();
+        try (var files = Files.list(appDirectory)) {
+            jar = files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow();
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("No application in " + appDirectory + ", run ./mvnw -Pprod package first", e);
+        }
+    }
+
+    @Benchmark
+    public void timeToFirstRequest() throws Exception {
+        int port = freePort();
+        Path workingDirectory = Files.createTempDirectory("startup-benchmark");
+        Process process = new ProcessBuilder(command(port))
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            awaitFirstResponse(port, process);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (launch == Launch.PROD_AOT_CDS) {
+            command.add("-XX:SharedArchiveFile=" + appDirectory.resolve("application.jsa"));
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(launch == Launch.DEFAULT ? Path.of("target", jar.getFileName().toString()).toAbsolutePath().toString()
+                : jar.toString());
+        if (launch != Launch.DEFAULT) {
+            command.add("--spring.profiles.active=prod");
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        command.add("--ticketing.journal.enabled=false");
+        return command;
+    }
+
+    private void awaitFirstResponse(int port, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package me.nethuli.ticketingsystem.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.nethuli.ticketingsystem.config.TicketingBroadcastProperties;
+import me.nethuli.ticketingsystem.config.TicketingPersistenceProperties;
+import me.nethuli.ticketingsystem.config.TicketingSalesProperties;
+import me.nethuli.ticketingsystem.helper.FairLockTicketPool;
+import me.nethuli.ticketingsystem.helper.LockFreeTicketPool;
+import me.nethuli.ticketingsystem.helper.SalesTimeSeries;
+import me.nethuli.ticketingsystem.helper.TicketIdGenerator;
+import me.nethuli.ticketingsystem.helper.TicketPool;
+import me.nethuli.ticketingsystem.helper.TicketPoolContext;
+import me.nethuli.ticketingsystem.helper.TicketPoolMode;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.repository.TicketRepository;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import me.nethuli.ticketingsystem.service.impl.PoolEventPublisherImpl;
+import me.nethuli.ticketingsystem.service.impl.TicketPersistenceServiceImpl;
+import me.nethuli.ticketingsystem.service.impl.WebSocketMessageServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Measures TicketPool.addTickets and removeTicket under contention. Vendors and customers run
+ * as one JMH group sharing a pool; change the thread split with -tg <vendors>,<customers>.
+ * With persistence and broadcast OFF the collaborators are no-ops so only the pool is measured,
+ * the ON variants run the real write-behind writer and broadcasters against a stub repository
+ * and a broker that accepts every message.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketPoolBenchmark {
+    private static final int CUSTOMERS_PER_THREAD = 64;
+
+    public enum Collaborator { OFF, ON }
+
+    @Param({"FAIR_LOCK", "LOCK_FREE"})
+    public TicketPoolMode mode;
+
+    @Param({"10", "1000"})
+    public int capacity;
+
+    // Fraction of customers that are VIP
+    @Param({"0.0", "0.2"})
+    public double vipRatio;
+
+    // Tickets released per addTickets call, like a vendor's release rate
+    @Param({"1"})
+    public int releaseBatch;
+
+    @Param({"OFF", "ON"})
+    public Collaborator persistence;
+
+    @Param({"OFF", "ON"})
+    public Collaborator broadcast;
+
+    TicketPool pool;
+    private final AtomicInteger customerIds = new AtomicInteger();
+    private TicketPersistenceServiceImpl persistenceService;
+    private WebSocketMessageServiceImpl webSocketMessageService;
+    private PoolEventPublisherImpl poolEventPublisher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TicketingMetrics metrics = new TicketingMetrics(new SimpleMeterRegistry());
+        TicketPersistenceService ticketPersistenceService = TicketPersistenceService.NONE;
+        if (persistence == Collaborator.ON) {
+            persistenceService = new TicketPersistenceServiceImpl(noOpTicketRepository(),
+                    new TicketingPersistenceProperties(), metrics);
+            persistenceService.start();
+            ticketPersistenceService = persistenceService;
+        }
+
+        WebSocketMessageService messageService = WebSocketMessageService.NONE;
+        PoolEventPublisher eventPublisher = PoolEventPublisher.NONE;
+        if (broadcast == Collaborator.ON) {
+            SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+            TicketingBroadcastProperties properties = new TicketingBroadcastProperties();
+            webSocketMessageService = new WebSocketMessageServiceImpl(messagingTemplate, properties, metrics);
+            webSocketMessageService.start();
+            poolEventPublisher = new PoolEventPublisherImpl(messagingTemplate, properties, metrics);
+            poolEventPublisher.start();
+            messageService = webSocketMessageService;
+            eventPublisher = poolEventPublisher;
+        }
+
+        TicketPoolContext context = new TicketPoolContext(messageService, ticketPersistenceService,
+                eventPublisher, new SalesTimeSeries(new TicketingSalesProperties()), metrics);
+        // Enough tickets that the pool never sells out during a trial
+        pool = switch (mode) {
+            case FAIR_LOCK -> new FairLockTicketPool(capacity, Integer.MAX_VALUE, context);
+            case LOCK_FREE -> new LockFreeTicketPool(capacity, Integer.MAX_VALUE, context);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (persistenceService != null) {
+            persistenceService.shutdown();
+        }
+        if (webSocketMessageService != null) {
+            webSocketMessageService.shutdown();
+            poolEventPublisher.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class VendorState {
+        private final TicketIdGenerator ticketIdGenerator = TicketIdGenerator.sequence("TKT-");
+    }
+
+    @State(Scope.Thread)
+    public static class CustomerState {
+        private Customer[] customers;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(TicketPoolBenchmark benchmark) {
+            customers = new Customer[CUSTOMERS_PER_THREAD];
+            int vipCustomers = (int) Math.round(CUSTOMERS_PER_THREAD * benchmark.vipRatio);
+            for (int i = 0; i < customers.length; i++) {
+                // Spread VIPs through the rotation instead of bunching them at the start
+                boolean vip = i * vipCustomers / CUSTOMERS_PER_THREAD != (i + 1) * vipCustomers / CUSTOMERS_PER_THREAD;
+                customers[i] = new Customer("Customer-" + benchmark.customerIds.incrementAndGet(), vip, null,
+                        benchmark.pool, 1, null);
+            }
+        }
+
+        Customer nextCustomer() {
+            Customer customer = customers[next];
+            next = (next + 1) % customers.length;
+            return customer;
+        }
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(1)
+    public void release(VendorState vendor) {
+        pool.addTickets(vendor.ticketIdGenerator, releaseBatch);
+    }
+
+    @Benchmark
+    @Group("pool")
+    @GroupThreads(4)
+    public Ticket purchase(CustomerState customer) throws InterruptedException {
+        return pool.removeTicket(customer.nextCustomer());
+    }
+
+    /*
+     * Only saveAll and updateAllByTicketName are called by the write-behind writer, every other
+     * repository method is unused.
+     */
+    private static TicketRepository noOpTicketRepository() {
+        return (TicketRepository) Proxy.newProxyInstance(TicketRepository.class.getClassLoader(),
+                new Class<?>[]{TicketRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "saveAll" -> List.of();
+                    case "updateAllByTicketName" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "NoOpTicketRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
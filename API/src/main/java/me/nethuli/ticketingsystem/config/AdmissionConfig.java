@@ -0,0 +1,29 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.helper.AdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+ * This class is used to put admission control in front of the endpoints that register
+ * participants or sell tickets.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+    private static final String[] ADMISSION_ENDPOINTS = {"customer", "vendor", "customers/bulk", "vendors/bulk", "purchase", "buy",
+            "holds"};
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        InterceptorRegistration registration = registry.addInterceptor(admissionInterceptor);
+        for (String endpoint : ADMISSION_ENDPOINTS) {
+            registration.addPathPatterns("/api/tickets/" + endpoint, "/api/events/*/" + endpoint);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package me.nethuli.ticketingsystem.config;
+
+import me.nethuli.ticketingsystem.service.TicketingService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/*
+ * This class is used to configure the prod startup profile: lazy initialization for everything
+ * except the beans that have to work from startup, and JPA bootstrapped in the background.
+ */
+@Configuration
+public class StartupConfig {
+    /*
+     * The ticketing service resumes the journaled events on startup, and with it its pools,
+     * journal, write-behind writer and schedulers start before the first request.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerTicketingService() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TicketingService.class);
+    }
+
+    /*
+     * Deferred JPA repositories bootstrap the EntityManagerFactory on applicationTaskExecutor, which
+     * Spring Boot does not create here because the WebSocket broker defines its own executors.
+     */
+    @Bean(name = "applicationTaskExecutor")
+    @Profile("prod")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new SimpleAsyncTaskExecutor("bootstrap-");
+    }
+}
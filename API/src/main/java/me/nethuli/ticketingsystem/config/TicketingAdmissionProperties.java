@@ -0,0 +1,32 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the admission control properties from the
+ * application.properties file using the prefix "ticketing.admission".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.admission")
+@Data
+public class TicketingAdmissionProperties {
+    private boolean enabled = true;
+    // Registration and purchase requests per second across all clients, and the burst allowed above that
+    private double globalRatePerSecond = 500;
+    private int globalBurst = 1000;
+    // The same per client, identified by the client id header or else the remote address
+    private double clientRatePerSecond = 20;
+    private int clientBurst = 40;
+    private String clientIdHeader = "X-Client-Id";
+    // Client buckets kept before idle ones are dropped
+    private int maxTrackedClients = 10000;
+    // Customers per event; further registrations wait in the event's waiting room
+    private int maxActiveCustomers = 500;
+    private int waitingRoomCapacity = 10000;
+    // A waiting customer that has not retried for this long loses its place
+    private int waitingRoomTtlSeconds = 30;
+    // Retry-After sent with a waiting room position
+    private int waitingRoomRetrySeconds = 2;
+}
@@ -0,0 +1,32 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import me.nethuli.ticketingsystem.helper.BroadcastOverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the WebSocket broadcast properties from the
+ * application.properties file using the prefix "ticketing.broadcast".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.broadcast")
+@Data
+public class TicketingBroadcastProperties {
+    // Number of log messages buffered between publishers and the broadcast thread
+    private int bufferCapacity = 8192;
+    // How often buffered messages are sent as one batched frame
+    private long flushIntervalMs = 100;
+    // Maximum number of messages in one batched frame
+    private int maxBatchSize = 512;
+    private BroadcastOverflowPolicy overflowPolicy = BroadcastOverflowPolicy.DROP_OLDEST;
+    // With SAMPLE, keep one of every sampleRate messages once the buffer is 75% full
+    private int sampleRate = 10;
+    // Human-readable log feed; when disabled per-ticket log lines are not built at all
+    private boolean logEnabled = true;
+    // Also send every message on its own to /topic/log, the only topic the bundled GUI listens on
+    // (one frame per message); turn off when every client reads /topic/log-batch
+    private boolean legacyLogTopic = true;
+    // Binary pool events on /topic/events
+    private boolean eventsEnabled = true;
+}
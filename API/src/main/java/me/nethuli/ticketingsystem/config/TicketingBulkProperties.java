@@ -0,0 +1,19 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the bulk registration properties from the
+ * application.properties file using the prefix "ticketing.bulk".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.bulk")
+@Data
+public class TicketingBulkProperties {
+    // Rows validated, saved and started together while holding the event
+    private int batchSize = 1000;
+    // Rejected rows whose reason is returned, the rest are only counted
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,19 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the long-polling buy properties from the
+ * application.properties file using the prefix "ticketing.buy".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.buy")
+@Data
+public class TicketingBuyProperties {
+    // How long a buy request waits for a ticket when the request does not say
+    private long defaultTimeoutMs = 30_000;
+    // Upper bound for the timeout a buy request may ask for
+    private long maxTimeoutMs = 120_000;
+}
@@ -0,0 +1,27 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the clustered selling properties from the
+ * application.properties file using the prefix "ticketing.cluster".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.cluster")
+@Data
+public class TicketingClusterProperties {
+    // Share each event's total tickets with the other instances on the same database
+    private boolean enabled = false;
+    // Tickets leased from the shared inventory at a time
+    private int leaseSize = 50;
+    // Lease the next block once fewer tickets than this are left to release locally
+    private int lowWaterMark = 25;
+    // How often the local blocks are checked against the low water mark
+    private long refillIntervalMs = 50;
+    // How often the leases are renewed and the tickets released from them reported
+    private long heartbeatIntervalMs = 2_000;
+    // A lease not renewed for this long belongs to a crashed instance and is given back
+    private long leaseTtlMs = 15_000;
+}
@@ -0,0 +1,19 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the event properties from the
+ * application.properties file using the prefix "ticketing.events".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.events")
+@Data
+public class TicketingEventsProperties {
+    // Event served by the /api/tickets endpoints, created at startup with the default configuration
+    private String defaultEventId = "default";
+    // Maximum number of events that can exist at the same time
+    private int maxEvents = 64;
+}
@@ -0,0 +1,32 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the pool journal properties from the
+ * application.properties file using the prefix "ticketing.journal".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.journal")
+@Data
+public class TicketingJournalProperties {
+    // Record pool operations and resume running events from them on startup
+    private boolean enabled = true;
+    // Directory holding the journal and snapshot files
+    private String directory = "ticket_journal";
+    // Maximum time a record waits before its group is written
+    private long flushIntervalMs = 10;
+    // Maximum number of records written (and synced) as one group
+    private int groupSize = 1024;
+    // Pools take no new releases or sales while this many records are waiting to be written
+    private int queueCapacity = 100_000;
+    // Force every group to disk before writing the next one
+    private boolean fsync = true;
+    // Wait before writing a failed group again, doubling up to the maximum while it keeps failing
+    private long retryInitialBackoffMs = 100;
+    private long retryMaxBackoffMs = 5000;
+    // Write a snapshot and start an empty journal after this many records
+    private int snapshotEveryRecords = 100_000;
+}
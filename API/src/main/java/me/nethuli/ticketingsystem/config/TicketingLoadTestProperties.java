@@ -0,0 +1,21 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the load test properties from the
+ * application.properties file using the prefix "ticketing.loadtest".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.loadtest")
+@Data
+public class TicketingLoadTestProperties {
+    // Load tests are off unless turned on, they are not meant for a live sale
+    private boolean enabled = false;
+    // Upper bound for the duration a load test may ask for
+    private int maxDurationSeconds = 600;
+    // Upper bound for the average customer arrival rate a load test may ask for
+    private double maxArrivalRate = 100_000;
+}
@@ -0,0 +1,24 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the write-behind persistence properties from the
+ * application.properties file using the prefix "ticketing.persistence".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.persistence")
+@Data
+public class TicketingPersistenceProperties {
+    // Maximum number of tickets written in one saveAll call
+    private int batchSize = 100;
+    // Maximum time a ticket change waits in the queue before it is written
+    private long flushIntervalMs = 200;
+    // Pools take no new releases or sales while this many ticket changes are waiting to be written
+    private int queueCapacity = 100_000;
+    // Wait before writing a failed batch again, doubled after every failure up to the maximum
+    private long retryInitialBackoffMs = 100;
+    private long retryMaxBackoffMs = 5000;
+}
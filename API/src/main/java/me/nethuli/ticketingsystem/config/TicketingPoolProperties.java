@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import me.nethuli.ticketingsystem.helper.TicketPoolMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the ticket pool engine properties from the
+ * application.properties file using the prefix "ticketing.pool".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.pool")
+@Data
+public class TicketingPoolProperties {
+    // Engine used for new ticket pools; FAIR_LOCK keeps the original single-lock behaviour
+    private TicketPoolMode mode = TicketPoolMode.LOCK_FREE;
+    // Largest capacity a running LOCK_FREE pool can be reconfigured to, its ring is sized for it up front
+    private int maxCapacityLimit = 1024;
+}
@@ -0,0 +1,19 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the ticket query and export properties from the
+ * application.properties file using the prefix "ticketing.query".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.query")
+@Data
+public class TicketingQueryProperties {
+    // Tickets per page when the request does not say
+    private int defaultPageSize = 100;
+    // Upper bound for the page size a request may ask for
+    private int maxPageSize = 1000;
+}
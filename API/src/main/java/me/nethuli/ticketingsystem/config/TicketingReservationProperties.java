@@ -0,0 +1,17 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the reservation properties from the
+ * application.properties file using the prefix "ticketing.reservation".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.reservation")
+@Data
+public class TicketingReservationProperties {
+    // How long held tickets stay reserved before they go back to the pool
+    private int holdSeconds = 120;
+}
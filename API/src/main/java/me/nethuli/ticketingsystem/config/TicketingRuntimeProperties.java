@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import me.nethuli.ticketingsystem.helper.ParticipantExecutionMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the participant runtime properties from the
+ * application.properties file using the prefix "ticketing.runtime".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.runtime")
+@Data
+public class TicketingRuntimeProperties {
+    // How vendor and customer ticks are driven
+    private ParticipantExecutionMode executionMode = ParticipantExecutionMode.VIRTUAL_THREAD;
+    // Number of single-threaded scheduler shards used by SCHEDULED_TICK, events are spread across them
+    private int tickThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,17 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the sales time series properties from the
+ * application.properties file using the prefix "ticketing.sales".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.sales")
+@Data
+public class TicketingSalesProperties {
+    // Seconds of per-second sales kept in memory; older windows are read from the database
+    private int windowSeconds = 600;
+}
@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.config;
+
+import lombok.Data;
+import me.nethuli.ticketingsystem.helper.TicketIdMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to read the ticket id properties from the
+ * application.properties file using the prefix "ticketing.ticket-id".
+ */
+@Configuration
+@ConfigurationProperties(prefix = "ticketing.ticket-id")
+@Data
+public class TicketingTicketIdProperties {
+    // How vendors name the tickets they release
+    private TicketIdMode mode = TicketIdMode.SNOWFLAKE;
+    // 0-1023, must differ between instances writing to the same database
+    private int nodeId = 0;
+}
@@ -23,5 +23,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // Plain WebSocket endpoint for binary frames (/topic/events), SockJS only carries text
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*");
     }
 }
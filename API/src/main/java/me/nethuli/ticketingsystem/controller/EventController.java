@@ -0,0 +1,172 @@
+package me.nethuli.ticketingsystem.controller;
+
+import me.nethuli.ticketingsystem.dto.*;
+import me.nethuli.ticketingsystem.helper.DeferredPurchaseFactory;
+import me.nethuli.ticketingsystem.helper.RegistrationFormat;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+import me.nethuli.ticketingsystem.service.TicketingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+// This class is the controller class for events. Every event has its own configuration, ticket pool, vendors and customers.
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+    private final TicketingService ticketingService;
+    private final DeferredPurchaseFactory deferredPurchaseFactory;
+
+    @Autowired
+    public EventController(TicketingService ticketingService, DeferredPurchaseFactory deferredPurchaseFactory) {
+        this.ticketingService = ticketingService;
+        this.deferredPurchaseFactory = deferredPurchaseFactory;
+    }
+
+    // This method is used to list all events with their status.
+    @GetMapping
+    public ResponseEntity<List<EventResponse>> getEvents() {
+        return ResponseEntity.ok(ticketingService.getEvents());
+    }
+
+    // This method is used to create an event with its configuration.
+    @PostMapping("/{eventId}")
+    public ResponseEntity<EventResponse> createEvent(@PathVariable String eventId,
+            @RequestBody TicketConfigurationRequest config) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ticketingService.createEvent(eventId, config));
+    }
+
+    // This method is used to get an event with its status.
+    @GetMapping("/{eventId}")
+    public ResponseEntity<EventResponse> getEvent(@PathVariable String eventId) {
+        return ResponseEntity.ok(ticketingService.getEvent(eventId));
+    }
+
+    // This method is used to delete a stopped event.
+    @DeleteMapping("/{eventId}")
+    public ResponseEntity<Map<String, String>> deleteEvent(@PathVariable String eventId) {
+        ticketingService.deleteEvent(eventId);
+        return ResponseEntity.ok(Map.of("message", "Event " + eventId + " deleted successfully"));
+    }
+
+    // This method is used to configure the event.
+    @PatchMapping("/{eventId}/configure")
+    public ResponseEntity<TicketConfiguration> updateConfig(@PathVariable String eventId,
+            @RequestBody TicketConfigurationRequest config) {
+        return ResponseEntity.ok(ticketingService.configureSystem(eventId, config));
+    }
+
+    // This method is used to get the current configuration of the event.
+    @GetMapping("/{eventId}/configure")
+    public ResponseEntity<TicketConfiguration> getConfig(@PathVariable String eventId) {
+        return ResponseEntity.ok(ticketingService.getCurrentConfig(eventId));
+    }
+
+    // This method is used to start the ticket operations of the event.
+    @PostMapping("/{eventId}/start")
+    public ResponseEntity<Map<String, String>> startOperations(@PathVariable String eventId) {
+        ticketingService.startTicketOperations(eventId);
+        return ResponseEntity.ok(Map.of("message", "Ticket operations started successfully"));
+    }
+
+    // This method is used to pause the ticket operations of the event.
+    @PostMapping("/{eventId}/pause")
+    public ResponseEntity<Map<String, String>> pauseOperations(@PathVariable String eventId) {
+        ticketingService.pauseTicketOperations(eventId);
+        return ResponseEntity.ok(Map.of("message", "Ticket operations paused successfully"));
+    }
+
+    // This method is used to resume the ticket operations of the event.
+    @PostMapping("/{eventId}/resume")
+    public ResponseEntity<Map<String, String>> resumeOperations(@PathVariable String eventId) {
+        ticketingService.resumeTicketOperations(eventId);
+        return ResponseEntity.ok(Map.of("message", "Ticket operations resumed successfully"));
+    }
+
+    // This method is used to stop the ticket operations of the event.
+    @PostMapping("/{eventId}/stop")
+    public ResponseEntity<Map<String, String>> stopOperations(@PathVariable String eventId) {
+        ticketingService.stopTicketOperations(eventId);
+        return ResponseEntity.ok(Map.of("message", "Ticket operations stopped successfully"));
+    }
+
+    // This method is used to add a customer to the event.
+    @PostMapping("/{eventId}/customer")
+    public ResponseEntity<Map<String, String>> addCustomer(@PathVariable String eventId,
+            @RequestBody CustomerRequest request) {
+        ticketingService.addCustomer(eventId, request);
+        return ResponseEntity.ok(Map.of("message", "Customer " + request.getName() + " added successfully"));
+    }
+
+    // This method is used to add the customers of an NDJSON or CSV upload to the event.
+    @PostMapping("/{eventId}/customers/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerCustomers(@PathVariable String eventId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(ticketingService.registerCustomers(eventId,
+                RegistrationFormat.fromContentType(contentType), body));
+    }
+
+    // This method is used to buy several tickets at once, either all of them or none.
+    @PostMapping("/{eventId}/purchase")
+    public ResponseEntity<PurchaseResponse> purchaseTickets(@PathVariable String eventId,
+            @RequestBody PurchaseRequest request) {
+        return ResponseEntity.ok(ticketingService.purchaseTickets(eventId, request));
+    }
+
+    // This method is used to buy one ticket, answering once the pool assigns one or the timeout passes.
+    // The request thread is released while the customer waits.
+    @PostMapping("/{eventId}/buy")
+    public DeferredResult<ResponseEntity<PurchaseResponse>> buyTicket(@PathVariable String eventId,
+            @RequestBody BuyRequest request, @RequestParam(required = false) Long timeoutMs) {
+        return deferredPurchaseFactory.create(ticketingService.buyTicket(eventId, request, timeoutMs));
+    }
+
+    // This method is used to hold several tickets, either all of them or none, until the hold expires.
+    @PostMapping("/{eventId}/holds")
+    public ResponseEntity<HoldResponse> holdTickets(@PathVariable String eventId,
+            @RequestBody PurchaseRequest request) {
+        return ResponseEntity.ok(ticketingService.holdTickets(eventId, request));
+    }
+
+    // This method is used to buy the tickets of an active hold.
+    @PostMapping("/{eventId}/holds/{holdId}/confirm")
+    public ResponseEntity<PurchaseResponse> confirmHold(@PathVariable String eventId, @PathVariable String holdId) {
+        return ResponseEntity.ok(ticketingService.confirmHold(eventId, holdId));
+    }
+
+    // This method is used to give the tickets of an active hold back to the pool.
+    @DeleteMapping("/{eventId}/holds/{holdId}")
+    public ResponseEntity<Map<String, String>> cancelHold(@PathVariable String eventId, @PathVariable String holdId) {
+        ticketingService.cancelHold(eventId, holdId);
+        return ResponseEntity.ok(Map.of("message", "Hold " + holdId + " cancelled successfully"));
+    }
+
+    // This method is used to add a vendor to the event.
+    @PostMapping("/{eventId}/vendor")
+    public ResponseEntity<Map<String, String>> addVendor(@PathVariable String eventId,
+            @RequestBody VendorRequest request) {
+        ticketingService.addVendor(eventId, request, null);
+        return ResponseEntity.ok(Map.of("message", "Vendor " + request.getName() + " added successfully"));
+    }
+
+    // This method is used to add the vendors of an NDJSON or CSV upload to the event.
+    @PostMapping("/{eventId}/vendors/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerVendors(@PathVariable String eventId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(ticketingService.registerVendors(eventId,
+                RegistrationFormat.fromContentType(contentType), body));
+    }
+
+    // This method is used to get the status of the event.
+    @GetMapping("/{eventId}/status")
+    public ResponseEntity<SystemStatusResponse> getSystemStatus(@PathVariable String eventId) {
+        return ResponseEntity.ok(ticketingService.getSystemStatus(eventId));
+    }
+}
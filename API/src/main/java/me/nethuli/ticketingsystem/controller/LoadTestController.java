@@ -0,0 +1,27 @@
+package me.nethuli.ticketingsystem.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.dto.LoadTestReport;
+import me.nethuli.ticketingsystem.dto.LoadTestRequest;
+import me.nethuli.ticketingsystem.service.LoadTestService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// This class is the controller class for rehearsing an on-sale with synthetic customers and vendors.
+@RestController
+@RequestMapping("/api/loadtest")
+@RequiredArgsConstructor
+public class LoadTestController {
+    private final LoadTestService loadTestService;
+
+    // This method is used to run a load test and answer with its latency and throughput report.
+    // The request is answered once the last customer is done, after the test's duration.
+    @PostMapping
+    public ResponseEntity<LoadTestReport> runLoadTest(@RequestBody LoadTestRequest request)
+            throws InterruptedException {
+        return ResponseEntity.ok(loadTestService.run(request));
+    }
+}
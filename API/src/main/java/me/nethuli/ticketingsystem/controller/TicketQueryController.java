@@ -0,0 +1,44 @@
+package me.nethuli.ticketingsystem.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.dto.TicketPageResponse;
+import me.nethuli.ticketingsystem.dto.TicketQueryRequest;
+import me.nethuli.ticketingsystem.helper.TicketExportFormat;
+import me.nethuli.ticketingsystem.service.TicketQueryService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// This class is the controller class for reading the persisted tickets of all events.
+@RestController
+@RequestMapping("/api/reports/tickets")
+@RequiredArgsConstructor
+public class TicketQueryController {
+    private final TicketQueryService ticketQueryService;
+
+    // This method is used to get one page of the tickets matching the filters, in id order.
+    @GetMapping
+    public ResponseEntity<TicketPageResponse> getTickets(TicketQueryRequest request) {
+        return ResponseEntity.ok(ticketQueryService.findTickets(request));
+    }
+
+    // This method is used to stream all the tickets matching the filters as NDJSON or CSV.
+    // The rows are written off the request thread while they are read from the database.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTickets(TicketQueryRequest request,
+            @RequestParam(defaultValue = "NDJSON") TicketExportFormat format) {
+        // Checked here, once streaming has started an error can no longer change the status
+        ticketQueryService.validateQuery(request);
+        StreamingResponseBody body = out -> ticketQueryService.exportTickets(request, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tickets." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+}
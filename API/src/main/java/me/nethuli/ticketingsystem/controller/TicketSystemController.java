@@ -2,28 +2,41 @@ package me.nethuli.ticketingsystem.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import me.nethuli.ticketingsystem.config.TicketingDefaultProperties;
+import me.nethuli.ticketingsystem.config.TicketingEventsProperties;
 import me.nethuli.ticketingsystem.dto.*;
+import me.nethuli.ticketingsystem.helper.DeferredPurchaseFactory;
+import me.nethuli.ticketingsystem.helper.RegistrationFormat;
 import me.nethuli.ticketingsystem.helper.TicketConfiguration;
 import me.nethuli.ticketingsystem.service.TicketingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 // This class is the controller class for the ticketing system. It is responsible for handling all the incoming requests and delegating the work to the service layer.
+// The /api/tickets endpoints act on the default event, see EventController for the other events.
 @RestController
 @RequestMapping("/api/tickets")
 @Slf4j
 public class TicketSystemController {
     private final TicketingService ticketingService;
+    private final String defaultEventId;
+    private final DeferredPurchaseFactory deferredPurchaseFactory;
 
     @Autowired
-    public TicketSystemController(TicketingService ticketingService, TicketingDefaultProperties defaultProperties) {
+    public TicketSystemController(TicketingService ticketingService, TicketingDefaultProperties defaultProperties,
+            TicketingEventsProperties eventsProperties, DeferredPurchaseFactory deferredPurchaseFactory) {
         this.ticketingService = ticketingService;
+        this.deferredPurchaseFactory = deferredPurchaseFactory;
+        this.defaultEventId = eventsProperties.getDefaultEventId();
     }
 
     // This method is used to check the health of the system.
@@ -37,58 +50,107 @@ public class TicketSystemController {
     @PatchMapping("/configure")
     @ResponseStatus(HttpStatus.ACCEPTED)
     public ResponseEntity<TicketConfiguration> updateConfig(@RequestBody TicketConfigurationRequest config) {
-        return ResponseEntity.ok(ticketingService.configureSystem(config));
+        return ResponseEntity.ok(ticketingService.configureSystem(defaultEventId, config));
     }
 
     // This method is used to get the current configuration of the ticketing system.
     @GetMapping("/configure")
     @ResponseStatus(HttpStatus.ACCEPTED)
     public ResponseEntity<TicketConfiguration> getConfig() {
-        return ResponseEntity.ok(ticketingService.getCurrentConfig());
+        return ResponseEntity.ok(ticketingService.getCurrentConfig(defaultEventId));
     }
 
     // This method is used to start the ticketing operations.
     @PostMapping("/start")
     public ResponseEntity<Map<String, String>> startOperations() {
-        ticketingService.startTicketOperations();
+        ticketingService.startTicketOperations(defaultEventId);
         return ResponseEntity.ok(Map.of("message", "Ticket operations started successfully"));
     }
 
     // This method is used to pause the ticketing operations.
     @PostMapping("/pause")
     public ResponseEntity<Map<String, String>> pauseOperations() {
-        ticketingService.pauseTicketOperations();
+        ticketingService.pauseTicketOperations(defaultEventId);
         return ResponseEntity.ok(Map.of("message", "Ticket operations paused successfully"));
     }
 
     // This method is used to resume the ticketing operations.
     @PostMapping("/resume")
     public ResponseEntity<Map<String, String>> resumeOperations() {
-        ticketingService.resumeTicketOperations();
+        ticketingService.resumeTicketOperations(defaultEventId);
         return ResponseEntity.ok(Map.of("message", "Ticket operations resumed successfully"));
     }
 
     // This method is used to stop the ticketing operations.
     @PostMapping("/stop")
     public ResponseEntity<Map<String, String>> stopOperations() {
-        ticketingService.stopTicketOperations();
+        ticketingService.stopTicketOperations(defaultEventId);
         return ResponseEntity.ok(Map.of("message", "Ticket operations stopped successfully"));
     }
 
     // This method is used to add a customer to the system.
     @PostMapping("/customer")
     public ResponseEntity<Map<String, String>> addCustomer(@RequestBody CustomerRequest request) {
-        ticketingService.addCustomer(request);
+        ticketingService.addCustomer(defaultEventId, request);
         return ResponseEntity.ok(Map.of("message", "Customer " + request.getName() + " added successfully"));
     }
 
+    // This method is used to add the customers of an NDJSON or CSV upload to the system.
+    @PostMapping("/customers/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerCustomers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(ticketingService.registerCustomers(defaultEventId,
+                RegistrationFormat.fromContentType(contentType), body));
+    }
+
+    // This method is used to buy several tickets at once, either all of them or none.
+    @PostMapping("/purchase")
+    public ResponseEntity<PurchaseResponse> purchaseTickets(@RequestBody PurchaseRequest request) {
+        return ResponseEntity.ok(ticketingService.purchaseTickets(defaultEventId, request));
+    }
+
+    // This method is used to buy one ticket, answering once the pool assigns one or the timeout passes.
+    // The request thread is released while the customer waits.
+    @PostMapping("/buy")
+    public DeferredResult<ResponseEntity<PurchaseResponse>> buyTicket(@RequestBody BuyRequest request,
+            @RequestParam(required = false) Long timeoutMs) {
+        return deferredPurchaseFactory.create(ticketingService.buyTicket(defaultEventId, request, timeoutMs));
+    }
+
+    // This method is used to hold several tickets, either all of them or none, until the hold expires.
+    @PostMapping("/holds")
+    public ResponseEntity<HoldResponse> holdTickets(@RequestBody PurchaseRequest request) {
+        return ResponseEntity.ok(ticketingService.holdTickets(defaultEventId, request));
+    }
+
+    // This method is used to buy the tickets of an active hold.
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<PurchaseResponse> confirmHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(ticketingService.confirmHold(defaultEventId, holdId));
+    }
+
+    // This method is used to give the tickets of an active hold back to the pool.
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Map<String, String>> cancelHold(@PathVariable String holdId) {
+        ticketingService.cancelHold(defaultEventId, holdId);
+        return ResponseEntity.ok(Map.of("message", "Hold " + holdId + " cancelled successfully"));
+    }
+
     // This method is used to add a vendor to the system.
     @PostMapping("/vendor")
     public ResponseEntity<Map<String, String>> addVendor(@RequestBody VendorRequest request) {
-        ticketingService.addVendor(request, null);
+        ticketingService.addVendor(defaultEventId, request, null);
         return ResponseEntity.ok(Map.of("message", "Vendor " + request.getName() + " added successfully"));
     }
 
+    // This method is used to add the vendors of an NDJSON or CSV upload to the system.
+    @PostMapping("/vendors/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerVendors(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(ticketingService.registerVendors(defaultEventId,
+                RegistrationFormat.fromContentType(contentType), body));
+    }
+
     // This method is used to get the status of the system.
     @GetMapping("/sot")
     public ResponseEntity<Map<String, List<SalesOverTimeResponse>>> getSalesOverTime() {
@@ -99,7 +161,7 @@ public class TicketSystemController {
     // This method is used to get the status of the system.
     @GetMapping("/status")
     public ResponseEntity<SystemStatusResponse> getSystemStatus() {
-        SystemStatusResponse status = ticketingService.getSystemStatus();
+        SystemStatusResponse status = ticketingService.getSystemStatus(defaultEventId);
         return ResponseEntity.ok(status);
     }
 }
@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ * BulkRegistrationResponse class is used to report the outcome of a bulk registration: how many
+ * rows were registered and rejected, and why the first rejected rows were.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkRegistrationResponse {
+    private int accepted;
+    private int rejected;
+    private List<String> errors;
+}
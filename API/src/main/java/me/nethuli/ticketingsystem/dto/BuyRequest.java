@@ -0,0 +1,16 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * BuyRequest class is used to map the request body of a single ticket purchase that waits for a ticket.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BuyRequest {
+    private String customerName;
+    private boolean vip;
+}
@@ -0,0 +1,16 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+
+/*
+ * This class is used to represent an event with its configuration and current status.
+ */
+@Data
+@AllArgsConstructor
+public class EventResponse {
+    private String id;
+    private TicketConfiguration config;
+    private SystemStatusResponse status;
+}
@@ -0,0 +1,19 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * This class is used to represent the tickets put on hold for a customer until they expire.
+ */
+@Data
+@AllArgsConstructor
+public class HoldResponse {
+    private String holdId;
+    private String customerName;
+    private List<String> tickets;
+    private LocalDateTime expiresAt;
+}
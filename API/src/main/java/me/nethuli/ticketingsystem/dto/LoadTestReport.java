@@ -0,0 +1,31 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/*
+ * This class is used to represent the result of a load test. Latencies are from a customer's
+ * scheduled arrival until it has all its tickets, so a late arrival counts against the system.
+ */
+@Data
+@AllArgsConstructor
+public class LoadTestReport {
+    private String poolMode;
+    private String arrivalPattern;
+    private long elapsedMs;
+    private int customers;
+    // Customers that got all their tickets, and those that left or found the sale over
+    private int customersServed;
+    private int customersUnserved;
+    private long ticketsSold;
+    private double ticketsPerSecond;
+    private double customersPerSecond;
+    // Time taken to write the remaining sold tickets after the last customer, with persistence
+    private long persistenceFlushMs;
+    // Percentiles (p50, p90, p99, p99.9, max, mean) of the served customers' latency in milliseconds
+    private Map<String, Double> latencyMs;
+    // HdrHistogram percentile distribution of the same latencies, in milliseconds
+    private String latencyDistribution;
+}
@@ -0,0 +1,44 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.nethuli.ticketingsystem.helper.ArrivalPattern;
+import me.nethuli.ticketingsystem.helper.TicketPoolMode;
+
+/*
+ * This class is used to represent the request body of a load test. Fields left out of the
+ * request keep these defaults.
+ */
+@Data
+@NoArgsConstructor
+public class LoadTestRequest {
+    // Pool engine to test, the configured one when not given
+    private TicketPoolMode poolMode;
+    private int maxTicketCapacity = 1000;
+    private int totalTickets = 10_000;
+    // Tickets put into the pool before the first customer arrives
+    private int initialTickets = 1000;
+    private int vendors = 4;
+    // Tickets each vendor releases per second
+    private int releaseRate = 100;
+    private ArrivalPattern arrivalPattern = ArrivalPattern.POISSON;
+    // Customers arriving per second, on average over the duration
+    private double arrivalRate = 200;
+    // Customers arrive during this time, the test ends once the last one is done
+    private int durationSeconds = 30;
+    // Customers arriving together with the BURST pattern
+    private int burstSize = 100;
+    // Fraction of customers that are VIP
+    private double vipRatio = 0.1;
+    // Each customer wants a number of tickets between these, inclusive
+    private int minTickets = 1;
+    private int maxTickets = 2;
+    // How long a customer waits for its tickets before leaving
+    private long maxWaitMs = 5000;
+    // Write sold tickets to the database through the write-behind writer
+    private boolean persistence = false;
+    // Broadcast log messages and pool events over WebSocket
+    private boolean broadcast = false;
+    // Seed for the arrivals and customers, random when not given
+    private Long seed;
+}
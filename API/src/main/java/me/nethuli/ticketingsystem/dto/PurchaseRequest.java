@@ -0,0 +1,17 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * PurchaseRequest class is used to map the request body of a bulk ticket purchase.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseRequest {
+    private String customerName;
+    private boolean vip;
+    private int quantity;
+}
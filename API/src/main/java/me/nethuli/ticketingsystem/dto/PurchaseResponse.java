@@ -0,0 +1,16 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/*
+ * This class is used to represent the tickets sold by a bulk purchase.
+ */
+@Data
+@AllArgsConstructor
+public class PurchaseResponse {
+    private String customerName;
+    private List<String> tickets;
+}
@@ -12,7 +12,20 @@ public class SystemStatusResponse {
     private boolean running;
     private boolean paused;
     private int availableTickets;
+    // Tickets on hold, still in the pool but not available
+    private int heldTickets;
     private int remainingTotalTickets;
     private int activeVendors;
     private int activeCustomers;
+    // Ticks per second summed over all vendors and customers
+    private double configuredTickRate;
+    private double achievedTickRate;
+    // Log messages broadcast over WebSocket and dropped by the overflow policy
+    private long broadcastSentMessages;
+    private long broadcastDroppedMessages;
+    // Registration and purchase requests let through and turned away by admission control, across all events
+    private long admittedRequests;
+    private long rejectedRequests;
+    // Customers waiting in this event's waiting room
+    private int waitingRoomSize;
 }
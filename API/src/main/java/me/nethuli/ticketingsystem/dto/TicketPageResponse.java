@@ -0,0 +1,17 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/*
+ * This class is used to represent one page of a ticket query. nextAfterId is passed as afterId to
+ * get the next page and is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class TicketPageResponse {
+    private List<TicketResponse> tickets;
+    private Long nextAfterId;
+}
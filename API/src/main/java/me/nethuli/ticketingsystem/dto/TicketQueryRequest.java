@@ -0,0 +1,26 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.nethuli.ticketingsystem.model.Ticket;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/*
+ * This class is used to represent the filters of a ticket query or export, read from the query
+ * string. All filters are optional; afterId is the last id of the previous page.
+ */
+@Data
+@NoArgsConstructor
+public class TicketQueryRequest {
+    private Ticket.TicketStatus status;
+    // Vendor name, matched against the ticket name prefix "<vendor>-TKT-"
+    private String vendor;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime soldFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime soldTo;
+    private Long afterId;
+    private Integer limit;
+}
@@ -0,0 +1,21 @@
+package me.nethuli.ticketingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+
+/*
+ * This class is used to represent one ticket of a query or export. Queries select it directly,
+ * so no entity is loaded into the persistence context.
+ */
+@AllArgsConstructor
+@Getter
+public class TicketResponse {
+    private Long id;
+    private String ticketName;
+    private Ticket.TicketStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime soldAt;
+}
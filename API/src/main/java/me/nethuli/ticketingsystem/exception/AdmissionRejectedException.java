@@ -0,0 +1,22 @@
+package me.nethuli.ticketingsystem.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when admission control turns a request away. It is answered with 429 and a
+ * Retry-After header, plus the queue position for customers placed in a waiting room.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+    // Position in the event's waiting room, null if the request was rate limited
+    private final Integer queuePosition;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds, Integer queuePosition) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queuePosition = queuePosition;
+    }
+}
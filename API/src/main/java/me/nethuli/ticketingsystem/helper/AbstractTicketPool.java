@@ -0,0 +1,229 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * AbstractTicketPool holds the pause/stop handling and the helpers shared by all pool engines.
+ * Engines keep available tickets as primitive inventory ids (see TicketIdCodec) and only build
+ * Ticket objects for tickets that are released, sold or held.
+ */
+public abstract class AbstractTicketPool implements TicketPool {
+    protected final WebSocketMessageService webSocketMessageService;
+    protected final TicketPersistenceService ticketPersistenceService;
+    protected final PoolEventPublisher poolEventPublisher;
+    protected final SalesTimeSeries salesTimeSeries;
+    protected final TicketingMetrics metrics;
+    protected final PoolJournal journal;
+    protected final WaitingCustomerQueue waitingCustomers = new WaitingCustomerQueue();
+    protected final TicketIdCodec ticketIds = new TicketIdCodec();
+    private volatile boolean isPaused = false;
+    private volatile boolean isSystemStopped = false;
+    // Only read once the pool has run out of tickets
+    private volatile boolean moreTicketsPending = false;
+
+    protected AbstractTicketPool(TicketPoolContext context) {
+        this.webSocketMessageService = context.getWebSocketMessageService();
+        this.ticketPersistenceService = context.getTicketPersistenceService();
+        this.poolEventPublisher = context.getPoolEventPublisher();
+        this.salesTimeSeries = context.getSalesTimeSeries();
+        this.metrics = context.getMetrics();
+        this.journal = context.getJournal();
+        metrics.bindWaitingQueue(waitingCustomers);
+    }
+
+    @Override
+    public void setPaused(boolean paused) {
+        this.isPaused = paused;
+    }
+
+    @Override
+    public void stopSystem() {
+        isSystemStopped = true;
+        metrics.unbindWaitingQueue(waitingCustomers);
+        // Customers waiting over HTTP get their answer now instead of at their timeout
+        Customer customer;
+        while ((customer = waitingCustomers.poll()) != null) {
+            customer.salesEnded();
+        }
+    }
+
+    @Override
+    public void setMoreTicketsPending(boolean pending) {
+        this.moreTicketsPending = pending;
+    }
+
+    @Override
+    public boolean isMoreTicketsPending() {
+        return moreTicketsPending;
+    }
+
+    @Override
+    public boolean isSystemStopped() {
+        return isSystemStopped;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    @Override
+    public boolean isBackedUp() {
+        return ticketPersistenceService.isBackedUp() || journal.isBackedUp();
+    }
+
+    /*
+     * Check if the pool takes no releases or purchases now, because it is paused or backed up.
+     * Queueing a change never waits, so nothing blocks while the pool's lock is held.
+     */
+    protected boolean isHeldBack() {
+        return isPaused || isBackedUp();
+    }
+
+    /*
+     * Start the purchase latency clock for the customer, unless a request of theirs is still pending.
+     */
+    protected void markRequested(Customer customer) {
+        customer.startPurchase(System.nanoTime());
+    }
+
+    /*
+     * Mark the ticket as sold to the customer, queue it to be saved to the database and publish the sale.
+     */
+    protected void markSold(Ticket ticket, Customer customer) {
+        ticket.setStatus(Ticket.TicketStatus.SOLD);
+        ticket.setSoldAt(LocalDateTime.now());
+        ticketPersistenceService.enqueue(ticket);
+        journal.ticketsSold(List.of(ticket), customer);
+        salesTimeSeries.recordSale();
+        metrics.recordSale();
+        long requestedAt = customer.completePurchase();
+        if (requestedAt != 0) {
+            metrics.recordPurchase(System.nanoTime() - requestedAt);
+        }
+        poolEventPublisher.publish(PoolEvent.ticketSold(ticket.getTicketName(), customer.getName(), customer.isVip()));
+        customer.ticketSold(ticket);
+    }
+
+    /*
+     * Mark all tickets as sold to the customer with one persistence enqueue and one sales update.
+     */
+    protected void markSold(List<Ticket> tickets, Customer customer) {
+        LocalDateTime soldAt = LocalDateTime.now();
+        for (Ticket ticket : tickets) {
+            ticket.setStatus(Ticket.TicketStatus.SOLD);
+            ticket.setSoldAt(soldAt);
+            ticket.setReservedUntil(null);
+        }
+        ticketPersistenceService.enqueueAll(tickets);
+        journal.ticketsSold(tickets, customer);
+        salesTimeSeries.recordSales(tickets.size());
+        metrics.recordSales(tickets.size());
+        long requestedAt = customer.completePurchase();
+        if (requestedAt != 0) {
+            metrics.recordPurchase(System.nanoTime() - requestedAt);
+        }
+        for (Ticket ticket : tickets) {
+            poolEventPublisher.publish(PoolEvent.ticketSold(ticket.getTicketName(), customer.getName(), customer.isVip()));
+        }
+    }
+
+    /*
+     * Mark the tickets as held for the customer until reservedUntil.
+     */
+    protected void markReserved(List<Ticket> tickets, Customer customer, LocalDateTime reservedUntil) {
+        for (Ticket ticket : tickets) {
+            ticket.setStatus(Ticket.TicketStatus.RESERVED);
+            ticket.setReservedUntil(reservedUntil);
+        }
+        ticketPersistenceService.enqueueAll(tickets);
+        for (Ticket ticket : tickets) {
+            poolEventPublisher.publish(PoolEvent.ticketReserved(ticket.getTicketName(), customer.getName(),
+                    customer.isVip()));
+        }
+    }
+
+    /*
+     * Mark held tickets as available again. The caller puts them back into the pool.
+     */
+    protected void markReservationReleased(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            ticket.setStatus(Ticket.TicketStatus.AVAILABLE);
+            ticket.setReservedUntil(null);
+        }
+        ticketPersistenceService.enqueueAll(tickets);
+        for (Ticket ticket : tickets) {
+            poolEventPublisher.publish(PoolEvent.reservationReleased(ticket.getTicketName()));
+        }
+    }
+
+    /*
+     * Create the next ticket of the generator, queue it to be saved and publish the release.
+     * Returns its inventory id; the Ticket itself is not kept.
+     */
+    protected long releaseTicket(TicketIdGenerator ticketIdGenerator, int ticketCount, int remainingTotalTickets) {
+        String prefix = ticketIdGenerator.getPrefix();
+        long id = ticketIdGenerator.nextId();
+        markReleased(new Ticket(TicketIdGenerator.ticketName(prefix, id)), ticketCount, remainingTotalTickets);
+        return ticketIds.encode(prefix, id);
+    }
+
+    /*
+     * Build the Ticket of an inventory id taken out of the pool to be sold or held.
+     */
+    protected Ticket toTicket(long inventoryId) {
+        return Ticket.stored(ticketIds.decode(inventoryId));
+    }
+
+    /*
+     * Get the inventory id of a ticket going back into the pool.
+     */
+    protected long toInventoryId(Ticket ticket) {
+        return ticketIds.encode(ticket.getTicketName());
+    }
+
+    private void markReleased(Ticket ticket, int ticketCount, int remainingTotalTickets) {
+        ticketPersistenceService.enqueue(ticket);
+        journal.ticketReleased(ticket);
+        metrics.recordRelease();
+        poolEventPublisher.publish(PoolEvent.ticketReleased(ticket.getTicketName(), ticketCount, remainingTotalTickets));
+    }
+
+    /*
+     * Add the customer to the waiting queue unless they are already waiting, and publish it.
+     */
+    protected void queueCustomer(Customer customer) {
+        if (waitingCustomers.offer(customer)) {
+            journal.customerQueued(customer);
+            poolEventPublisher.publish(PoolEvent.customerQueued(customer.getName(), customer.isVip()));
+        }
+    }
+
+    @Override
+    public boolean cancelWaiting(Customer customer) {
+        return waitingCustomers.remove(customer);
+    }
+
+    /*
+     * Check if the human-readable log feed is on. Per-ticket messages are only built when it is.
+     */
+    protected boolean isLogEnabled() {
+        return webSocketMessageService.isLogEnabled();
+    }
+
+    /*
+     * Send the message to the log topic and the application log.
+     */
+    protected void publish(String message) {
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.info(message);
+    }
+}
@@ -0,0 +1,119 @@
+package me.nethuli.ticketingsystem.helper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingAdmissionProperties;
+import me.nethuli.ticketingsystem.exception.AdmissionRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * AdmissionController sheds load before it reaches the ticket pools. Registration and purchase
+ * requests take a token from a global and a per-client bucket, and customer registrations beyond
+ * an event's active customer cap wait in that event's waiting room. Rejected requests fail with
+ * AdmissionRejectedException, which is answered with 429 and Retry-After. Every request is
+ * counted once, as admitted or rejected, by the last check it goes through.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+    private final TicketingAdmissionProperties properties;
+    private final TicketingMetrics metrics;
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Map<String, WaitingRoom> waitingRooms = new ConcurrentHashMap<>();
+    private TokenBucket globalBucket;
+
+    @PostConstruct
+    public void init() {
+        globalBucket = new TokenBucket(properties.getGlobalRatePerSecond(), properties.getGlobalBurst(),
+                System.nanoTime());
+    }
+
+    /*
+     * Take a token for one request of the client, or reject it. A request that waits for a place
+     * with admitCustomer next is only counted there once it is admitted.
+     */
+    public void admitRequest(String clientId, boolean waitsForPlace) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        // The client's own bucket first, so a client over its limit does not use up the global tokens
+        long waitNanos = clientBucket(clientId, now).tryAcquire(now);
+        if (waitNanos == 0) {
+            waitNanos = globalBucket.tryAcquire(now);
+        }
+        if (waitNanos > 0) {
+            metrics.recordAdmission(false);
+            throw new AdmissionRejectedException("Too many requests, please retry later.",
+                    Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000), null);
+        }
+        if (!waitsForPlace) {
+            metrics.recordAdmission(true);
+        }
+    }
+
+    /*
+     * Let a customer register with the event if it has room, otherwise place it in the event's
+     * waiting room and reject the registration with its position. Called while holding the event.
+     */
+    public void admitCustomer(String eventId, String customerName, int activeCustomers) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        WaitingRoom waitingRoom = waitingRooms.computeIfAbsent(eventId, id -> new WaitingRoom(
+                properties.getWaitingRoomCapacity(), TimeUnit.SECONDS.toNanos(properties.getWaitingRoomTtlSeconds())));
+        int freePlaces = properties.getMaxActiveCustomers() - activeCustomers;
+        int position = waitingRoom.enter(customerName, freePlaces, System.nanoTime());
+        if (position == WaitingRoom.ADMITTED) {
+            metrics.recordAdmission(true);
+            return;
+        }
+        metrics.recordAdmission(false);
+        if (position == WaitingRoom.FULL) {
+            throw new AdmissionRejectedException("The event is full and so is its waiting room, please retry later.",
+                    properties.getWaitingRoomTtlSeconds(), null);
+        }
+        throw new AdmissionRejectedException("The event is full, you are number " + position
+                + " in the waiting room. Retry to keep your place.", properties.getWaitingRoomRetrySeconds(), position);
+    }
+
+    /*
+     * Get how many customers registered in bulk the event can take now. They do not wait in the
+     * waiting room, nor go ahead of customers already in it. Called while holding the event.
+     */
+    public int getFreeCustomerPlaces(String eventId, int activeCustomers) {
+        if (!properties.isEnabled()) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, properties.getMaxActiveCustomers() - activeCustomers - getWaitingRoomSize(eventId));
+    }
+
+    /*
+     * Send everybody in the event's waiting room away, e.g. when the event stops.
+     */
+    public void closeWaitingRoom(String eventId) {
+        waitingRooms.remove(eventId);
+    }
+
+    public int getWaitingRoomSize(String eventId) {
+        WaitingRoom waitingRoom = waitingRooms.get(eventId);
+        return waitingRoom != null ? waitingRoom.size() : 0;
+    }
+
+    private TokenBucket clientBucket(String clientId, long now) {
+        TokenBucket bucket = clientBuckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Buckets that have refilled are the same as new ones, drop them before tracking more clients
+        if (clientBuckets.size() >= properties.getMaxTrackedClients()) {
+            clientBuckets.values().removeIf(idle -> idle.isFull(now));
+        }
+        return clientBuckets.computeIfAbsent(clientId,
+                id -> new TokenBucket(properties.getClientRatePerSecond(), properties.getClientBurst(), now));
+    }
+}
@@ -0,0 +1,34 @@
+package me.nethuli.ticketingsystem.helper;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingAdmissionProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * AdmissionInterceptor applies the rate limits to the registration and purchase endpoints.
+ * Requests are identified by the client id header, or by the remote address without one.
+ * AdmissionController counts the requests it lets through and turns away.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements HandlerInterceptor {
+    private final AdmissionController admissionController;
+    private final TicketingAdmissionProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // A long-polling buy is dispatched again when it completes; it was admitted the first time
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String clientId = request.getHeader(properties.getClientIdHeader());
+        // A customer registration still has to get a place in the event, the waiting room counts it
+        admissionController.admitRequest(clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr(),
+                request.getRequestURI().endsWith("/customer"));
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * ArrivalPattern is how the synthetic customers of a load test arrive over its duration.
+ */
+public enum ArrivalPattern {
+    // Independent arrivals at a steady average rate
+    POISSON,
+    // Groups of burstSize customers arriving at once, at the same average rate
+    BURST,
+    // Independent arrivals whose rate grows from zero to twice the average rate
+    RAMP
+}
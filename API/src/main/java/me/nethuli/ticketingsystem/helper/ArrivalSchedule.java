@@ -0,0 +1,58 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.random.RandomGenerator;
+
+/*
+ * ArrivalSchedule gives the arrival times of a load test's customers, in nanoseconds from its
+ * start, following an arrival pattern. Every pattern brings ratePerSecond customers per second
+ * on average, so runs with different patterns see the same number of customers. POISSON and
+ * RAMP draw exponential gaps; for RAMP the rate rises linearly, which is sampled exactly by
+ * inverting the expected number of arrivals up to a time, r * t^2 / T.
+ */
+public class ArrivalSchedule {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final ArrivalPattern pattern;
+    private final double ratePerSecond;
+    private final double durationSeconds;
+    private final int burstSize;
+    private final RandomGenerator random;
+    // Time of the previous arrival, in seconds
+    private double time;
+    private int arrivalsInBurst;
+
+    public ArrivalSchedule(ArrivalPattern pattern, double ratePerSecond, double durationSeconds, int burstSize,
+            RandomGenerator random) {
+        if (ratePerSecond <= 0 || durationSeconds <= 0 || burstSize <= 0) {
+            throw new IllegalArgumentException("Arrival rate, duration and burst size must be positive.");
+        }
+        this.pattern = pattern;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.burstSize = burstSize;
+        this.random = random;
+    }
+
+    /*
+     * Get the time of the next arrival, or -1 once the duration is over.
+     */
+    public long next() {
+        switch (pattern) {
+            case POISSON -> time += exponential() / ratePerSecond;
+            case RAMP -> time = Math.sqrt(time * time + durationSeconds * exponential() / ratePerSecond);
+            case BURST -> {
+                // The first burst comes at the start, the next ones every burstSize / rate seconds
+                if (arrivalsInBurst == burstSize) {
+                    time += burstSize / ratePerSecond;
+                    arrivalsInBurst = 0;
+                }
+                arrivalsInBurst++;
+            }
+        }
+        return time < durationSeconds ? (long) (time * NANOS_PER_SECOND) : -1;
+    }
+
+    private double exponential() {
+        return -Math.log(1 - random.nextDouble());
+    }
+}
@@ -0,0 +1,125 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Buffers items on a bounded ring and hands them to the sender in batches from a single
+ * broadcast thread, so publishers never wait on the message broker.
+ *
+ * @param <T> item type
+ */
+public class BatchingBroadcaster<T> {
+    private final String name;
+    private final MpmcRingBuffer<T> buffer;
+    private final long flushIntervalMs;
+    private final int maxBatchSize;
+    private final BroadcastOverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int highWaterMark;
+    private final Consumer<List<T>> sender;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong sentItems = new AtomicLong();
+    private final AtomicLong droppedItems = new AtomicLong();
+    private ScheduledExecutorService broadcaster;
+
+    public BatchingBroadcaster(String name, int bufferCapacity, long flushIntervalMs, int maxBatchSize,
+            BroadcastOverflowPolicy overflowPolicy, int sampleRate, Consumer<List<T>> sender) {
+        this.name = name;
+        this.buffer = new MpmcRingBuffer<>(bufferCapacity);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatchSize = maxBatchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.highWaterMark = buffer.capacity() * 3 / 4;
+        this.sender = sender;
+    }
+
+    public void start() {
+        broadcaster = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(name).daemon(true).factory());
+        broadcaster.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        broadcaster.shutdown();
+        try {
+            broadcaster.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Buffer the item for the next batch, applying the overflow policy when the buffer is full.
+     *
+     * @param item Item to broadcast
+     */
+    public void publish(T item) {
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> offerOrDrop(item);
+            case DROP_OLDEST -> {
+                if (!buffer.offer(item)) {
+                    if (buffer.poll() != null) {
+                        droppedItems.incrementAndGet();
+                    }
+                    offerOrDrop(item);
+                }
+            }
+            case SAMPLE -> {
+                if (buffer.size() >= highWaterMark && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    droppedItems.incrementAndGet();
+                } else {
+                    offerOrDrop(item);
+                }
+            }
+        }
+    }
+
+    private void offerOrDrop(T item) {
+        if (!buffer.offer(item)) {
+            droppedItems.incrementAndGet();
+        }
+    }
+
+    /*
+     * Drain the buffer and hand it to the sender in batches. Runs on the broadcast thread only.
+     */
+    private void flush() {
+        try {
+            List<T> batch = new ArrayList<>();
+            T item;
+            while ((item = buffer.poll()) != null) {
+                batch.add(item);
+                if (batch.size() == maxBatchSize) {
+                    send(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } catch (RuntimeException e) {
+            // Keep the broadcast thread alive, an exception would cancel the schedule
+            LoggingHelper.error(name + " failed to broadcast: " + e.getMessage());
+        }
+    }
+
+    private void send(List<T> batch) {
+        sender.accept(batch);
+        sentItems.addAndGet(batch.size());
+    }
+
+    public long getSentCount() {
+        return sentItems.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedItems.get();
+    }
+}
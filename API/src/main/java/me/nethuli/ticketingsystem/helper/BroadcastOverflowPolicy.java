@@ -0,0 +1,14 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * BroadcastOverflowPolicy decides what happens to log messages when subscribers cannot keep up
+ * and the broadcast ring buffer fills up.
+ */
+public enum BroadcastOverflowPolicy {
+    // Discard the message being published
+    DROP_NEWEST,
+    // Discard the oldest buffered message to make room for the new one
+    DROP_OLDEST,
+    // Above the high-water mark only every n-th message is kept, the rest are discarded
+    SAMPLE
+}
@@ -0,0 +1,38 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingBuyProperties;
+import me.nethuli.ticketingsystem.dto.PurchaseResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+ * DeferredPurchaseFactory turns a pending purchase into the deferred result the /buy endpoints
+ * return, so the request thread is released while the customer waits for a ticket.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeferredPurchaseFactory {
+    private final TicketingBuyProperties buyProperties;
+
+    /*
+     * Complete the deferred result with the purchase, or with the error the handlers map to a status.
+     */
+    public DeferredResult<ResponseEntity<PurchaseResponse>> create(CompletableFuture<PurchaseResponse> purchase) {
+        // The service always completes the purchase, this only bounds the request if it did not
+        DeferredResult<ResponseEntity<PurchaseResponse>> result =
+                new DeferredResult<>(buyProperties.getMaxTimeoutMs() + 5000);
+        purchase.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(response));
+            } else {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,377 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * FairLockTicketPool guards every pool operation with a single fair ReentrantLock. The counts
+ * are kept in plain fields under the lock and published as an immutable snapshot when the lock
+ * is released, so readers never take the lock.
+ */
+public class FairLockTicketPool extends AbstractTicketPool {
+    private final ReentrantLock lock;
+    // Fields below are only read and written while holding the lock
+    // Inventory ids of the available tickets
+    private final LongArrayQueue tickets;
+    private int maxCapacity;
+    private int availableTickets;
+    private int remainingTotalTickets;
+    // Tickets on hold, they still count towards the capacity
+    private int heldTickets;
+    // Counts as of the last release of the lock
+    private volatile PoolSnapshot snapshot;
+    // Only read and written while holding the lock
+    private long lockAcquiredAt;
+
+    public FairLockTicketPool(int maxCapacity, int totalTickets, TicketPoolContext context) {
+        super(context);
+        this.tickets = new LongArrayQueue(Math.min(maxCapacity, 1024));
+        this.lock = new ReentrantLock(true); // Fair locking
+        this.maxCapacity = maxCapacity;
+        this.remainingTotalTickets = totalTickets;
+        this.snapshot = new PoolSnapshot(0, 0, totalTickets, maxCapacity);
+    }
+
+    /*
+     * Check if the ticket pool is at maximum capacity.
+     */
+    @Override
+    public boolean isAtCapacity() {
+        PoolSnapshot current = snapshot;
+        return current.getTicketCount() + current.getHeldTickets() >= current.getMaxCapacity();
+    }
+
+    @Override
+    public void setMaxCapacity(int maxCapacity) {
+        acquireLock();
+        try {
+            this.maxCapacity = maxCapacity;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return snapshot.getMaxCapacity();
+    }
+
+    // The tickets are kept in a growable queue
+    @Override
+    public int getCapacityLimit() {
+        return Integer.MAX_VALUE;
+    }
+
+    /*
+     * Take the pool lock, recording how long the caller waited for it.
+     */
+    private void acquireLock() {
+        long start = System.nanoTime();
+        lock.lock();
+        lockAcquiredAt = System.nanoTime();
+        metrics.recordLockWait(lockAcquiredAt - start);
+    }
+
+    /*
+     * Publish the counts if they changed and release the pool lock, recording how long it was held.
+     */
+    private void releaseLock() {
+        PoolSnapshot current = snapshot;
+        if (current.getTicketCount() != availableTickets || current.getHeldTickets() != heldTickets
+                || current.getRemainingTotalTickets() != remainingTotalTickets
+                || current.getMaxCapacity() != maxCapacity) {
+            snapshot = new PoolSnapshot(availableTickets, heldTickets, remainingTotalTickets, maxCapacity);
+        }
+        metrics.recordLockHold(System.nanoTime() - lockAcquiredAt);
+        lock.unlock();
+    }
+
+    /*
+     * Add tickets to the ticket pool.
+     */
+    @Override
+    public void addTickets(TicketIdGenerator ticketIdGenerator, int count) {
+        // A paused or backed up pool takes no tickets, the vendor tries again later
+        if (isHeldBack()) {
+            return;
+        }
+
+        // Lock the pool to prevent multiple threads from adding tickets at the same
+        // time
+        acquireLock();
+        try {
+            // Check if there are any tickets left to add
+            if (remainingTotalTickets <= 0) {
+                publish("No more tickets available to add. Total tickets exhausted.");
+                return;
+            }
+
+            // Check if the pool is at maximum capacity
+            if (availableTickets + heldTickets >= maxCapacity) {
+                poolEventPublisher.publish(PoolEvent.poolFull(availableTickets, remainingTotalTickets));
+                publish("Cannot add tickets. Pool is at maximum capacity.");
+                return;
+            }
+
+            // Add tickets to the pool up to the maximum capacity
+            int ticketsToAdd = Math.min(
+                    Math.min(maxCapacity - availableTickets - heldTickets, count),
+                    remainingTotalTickets);
+
+            // Check if the pool would exceed the maximum capacity
+            if (ticketsToAdd <= 0) {
+                publish("Cannot add tickets. Capacity would be exceeded.");
+                return;
+            }
+
+            // Add the tickets to the pool
+            for (int i = 0; i < ticketsToAdd; i++) {
+                availableTickets++;
+                // Update the remaining total tickets
+                remainingTotalTickets--;
+                // Save the ticket to the database and keep only its id in the pool
+                tickets.offer(releaseTicket(ticketIdGenerator, availableTickets, remainingTotalTickets));
+            }
+            processWaitingCustomers();
+
+            if (isLogEnabled()) {
+                publish(ticketsToAdd + " tickets added. Total tickets: " + availableTickets +
+                        ". Remaining total tickets: " + remainingTotalTickets);
+            }
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /*
+     * Process the waiting customers in the queue, VIP customers first and in arrival order within a tier.
+     */
+    private void processWaitingCustomers() {
+        while (availableTickets > 0) {
+            Customer customer = waitingCustomers.poll();
+            if (customer == null) {
+                return;
+            }
+            Ticket ticket = toTicket(tickets.poll());
+            availableTickets--;
+            markSold(ticket, customer);
+            if (isLogEnabled()) {
+                publish(customer.getName() + (customer.isVip() ? "(VIP)" : "") + " received reserved ticket: "
+                        + ticket.getTicketName());
+            }
+        }
+    }
+
+    /*
+     * Remove a ticket from the ticket pool.
+     */
+    @Override
+    public Ticket removeTicket(Customer customer) throws InterruptedException {
+        if (isSystemStopped() || isHeldBack()) {
+            return null;
+        }
+        markRequested(customer);
+
+        acquireLock();
+        try {
+            if (isSystemStopped()) {
+                return null;
+            }
+
+            // First check if there are no more tickets available at all
+            if (availableTickets == 0 && remainingTotalTickets <= 0 && heldTickets == 0
+                    && !isMoreTicketsPending()) {
+                poolEventPublisher.publish(PoolEvent.soldOut());
+                publish("All tickets have been sold. System will stop.");
+                stopSystem();
+                return null;
+            }
+
+            // If no tickets available, add to waiting queue
+            if (availableTickets == 0) {
+                queueCustomer(customer);
+                return null;
+            }
+
+            // If customer is not VIP and there are VIP or earlier customers waiting, add to queue
+            if (!customer.isVip() && !waitingCustomers.isEmpty()) {
+                queueCustomer(customer);
+                return null;
+            }
+
+            // If customer is VIP, they get priority
+            if (customer.isVip()) {
+                return sellNext(customer);
+            }
+
+            // For non-VIP customers when no VIPs are waiting
+            if (waitingCustomers.isEmpty()) {
+                return sellNext(customer);
+            }
+
+            // Add to waiting queue if none of the above conditions are met
+            queueCustomer(customer);
+            return null;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /*
+     * Sell the next ticket in the pool to the customer. Called while holding the lock.
+     */
+    private Ticket sellNext(Customer customer) {
+        long inventoryId = tickets.poll();
+        if (inventoryId == LongArrayQueue.EMPTY) {
+            return null;
+        }
+        Ticket ticket = toTicket(inventoryId);
+        availableTickets--;
+        markSold(ticket, customer);
+        return ticket;
+    }
+
+    /*
+     * Sell count tickets to the customer in one critical section, or none.
+     */
+    @Override
+    public List<Ticket> removeTickets(Customer customer, int count) {
+        if (isSystemStopped() || isHeldBack()) {
+            return List.of();
+        }
+        markRequested(customer);
+        return takeTickets(customer, count, null);
+    }
+
+    /*
+     * Hold count tickets in one critical section, or none.
+     */
+    @Override
+    public List<Ticket> reserveTickets(Customer customer, int count, LocalDateTime reservedUntil) {
+        if (isSystemStopped() || isHeldBack()) {
+            return List.of();
+        }
+        return takeTickets(customer, count, reservedUntil);
+    }
+
+    /*
+     * Take count tickets and sell them, or hold them when reservedUntil is set.
+     */
+    private List<Ticket> takeTickets(Customer customer, int count, LocalDateTime reservedUntil) {
+        acquireLock();
+        try {
+            // Regular customers do not jump ahead of customers already waiting
+            if (isSystemStopped() || availableTickets < count
+                    || (!customer.isVip() && !waitingCustomers.isEmpty())) {
+                return List.of();
+            }
+            List<Ticket> taken = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                taken.add(toTicket(tickets.poll()));
+            }
+            availableTickets -= count;
+            if (reservedUntil == null) {
+                markSold(taken, customer);
+            } else {
+                heldTickets += count;
+                markReserved(taken, customer, reservedUntil);
+            }
+            return taken;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public void confirmReservation(Customer customer, List<Ticket> held) {
+        acquireLock();
+        try {
+            heldTickets -= held.size();
+            markSold(held, customer);
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public void releaseReservation(List<Ticket> held) {
+        acquireLock();
+        try {
+            heldTickets -= held.size();
+            markReservationReleased(held);
+            for (Ticket ticket : held) {
+                tickets.offer(toInventoryId(ticket));
+            }
+            availableTickets += held.size();
+            processWaitingCustomers();
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public void addRemainingTotalTickets(int count) {
+        acquireLock();
+        try {
+            remainingTotalTickets += count;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public int withdrawRemainingTotalTickets() {
+        acquireLock();
+        try {
+            int withdrawn = Math.max(remainingTotalTickets, 0);
+            remainingTotalTickets = 0;
+            return withdrawn;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public void restore(List<String> ticketNames, int remainingTotalTickets, List<Customer> waiting) {
+        acquireLock();
+        try {
+            for (String ticketName : ticketNames) {
+                tickets.offer(ticketIds.encode(ticketName));
+            }
+            availableTickets = ticketNames.size();
+            this.remainingTotalTickets = remainingTotalTickets;
+            waiting.forEach(waitingCustomers::offer);
+            processWaitingCustomers();
+        } finally {
+            releaseLock();
+        }
+    }
+
+    @Override
+    public PoolSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public int getTicketCount() {
+        return snapshot.getTicketCount();
+    }
+
+    @Override
+    public int getRemainingTotalTickets() {
+        return snapshot.getRemainingTotalTickets();
+    }
+
+    @Override
+    public boolean hasAvailableTickets() {
+        PoolSnapshot current = snapshot;
+        return !isSystemStopped() && (current.getRemainingTotalTickets() > 0 || current.getTicketCount() > 0
+                || current.getHeldTickets() > 0 || isMoreTicketsPending());
+    }
+}
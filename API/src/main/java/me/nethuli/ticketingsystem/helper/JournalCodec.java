@@ -0,0 +1,284 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.nethuli.ticketingsystem.model.JournalRecord;
+import me.nethuli.ticketingsystem.model.JournalRecordType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary encoding of the pool journal and its snapshots.
+ * <pre>
+ * frame    := length:i32 crc32:i32 body
+ * entry    := lsn:i64 record                                  (journal frame body)
+ * record   := type:u8 eventId:str name:str flags:u8 rate:i32 [quantity:i32] [config] tickets
+ * config   := totalTickets:i32 releaseRate:i32 retrievalRate:i32 maxCapacity:i32
+ * tickets  := count:i32 str*
+ * snapshot := version:u8 lsn:i64 count:i32 event*                (snapshot frame body)
+ * event    := id:str [config] running:u8 remaining:i32 available:tickets
+ *             waiting:(count:i32 (str vip:u8)*) vendors:(count:i32 record*)
+ *             customers:(count:i32 record*) soldBeforeRelease:tickets
+ * str      := present:u8 [modified-utf8]
+ * flags    := bit 0 = VIP, bit 1 = quantity present, bit 2 = config present
+ * </pre>
+ * Integers are big-endian. The CRC covers the body, so a frame torn by a crash is detected and
+ * the journal is cut back to the last whole frame. An encoder is not thread-safe; the journal
+ * writer thread owns one.
+ */
+public class JournalCodec {
+    public static final int VERSION = 1;
+    private static final int VIP_FLAG = 1;
+    private static final int QUANTITY_FLAG = 2;
+    private static final int CONFIG_FLAG = 4;
+
+    private final FrameBuffer body = new FrameBuffer();
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final CRC32 crc = new CRC32();
+
+    /*
+     * Journal entry read back from disk.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long lsn;
+        private final JournalRecord record;
+    }
+
+    /*
+     * Snapshot read back from disk: the events as of the entry with the given lsn.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long lsn;
+        private final Map<String, JournaledEvent> events;
+    }
+
+    /*
+     * Append one journal frame to out.
+     */
+    public void writeEntry(FrameBuffer out, long lsn, JournalRecord record) throws IOException {
+        body.reset();
+        bodyOut.writeLong(lsn);
+        writeRecord(bodyOut, record);
+        writeFrame(out);
+    }
+
+    /*
+     * Append one snapshot frame of the events to out.
+     */
+    public void writeSnapshot(FrameBuffer out, long lsn, Collection<JournaledEvent> events) throws IOException {
+        body.reset();
+        bodyOut.writeByte(VERSION);
+        bodyOut.writeLong(lsn);
+        bodyOut.writeInt(events.size());
+        for (JournaledEvent event : events) {
+            writeString(bodyOut, event.getId());
+            bodyOut.writeBoolean(event.getConfig() != null);
+            if (event.getConfig() != null) {
+                writeConfig(bodyOut, event.getConfig());
+            }
+            bodyOut.writeBoolean(event.isRunning());
+            bodyOut.writeInt(event.getRemainingTotalTickets());
+            writeNames(bodyOut, event.getAvailableTickets());
+            bodyOut.writeInt(event.getWaitingCustomers().size());
+            for (Map.Entry<String, Boolean> waiting : event.getWaitingCustomers().entrySet()) {
+                writeString(bodyOut, waiting.getKey());
+                bodyOut.writeBoolean(waiting.getValue());
+            }
+            bodyOut.writeInt(event.getVendors().size());
+            for (JournalRecord vendor : event.getVendors().values()) {
+                writeRecord(bodyOut, vendor);
+            }
+            bodyOut.writeInt(event.getCustomers().size());
+            for (JournalRecord customer : event.getCustomers().values()) {
+                writeRecord(bodyOut, customer);
+            }
+            writeNames(bodyOut, event.getSoldBeforeRelease());
+        }
+        writeFrame(out);
+    }
+
+    private void writeFrame(FrameBuffer out) {
+        crc.reset();
+        crc.update(body.array(), 0, body.size());
+        out.writeInt(body.size());
+        out.writeInt((int) crc.getValue());
+        out.write(body.array(), 0, body.size());
+    }
+
+    /*
+     * Read the body of the next frame, or null at the end of the stream or at a torn or
+     * corrupt frame.
+     */
+    public static byte[] readFrame(InputStream in) throws IOException {
+        DataInputStream frameIn = new DataInputStream(in);
+        try {
+            int length = frameIn.readInt();
+            int expectedCrc = frameIn.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] frame = new byte[length];
+            frameIn.readFully(frame);
+            CRC32 crc = new CRC32();
+            crc.update(frame);
+            return (int) crc.getValue() == expectedCrc ? frame : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    public static Entry readEntry(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        long lsn = in.readLong();
+        return new Entry(lsn, readRecord(in));
+    }
+
+    public static Snapshot readSnapshot(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal snapshot version " + version);
+        }
+        long lsn = in.readLong();
+        int count = in.readInt();
+        Map<String, JournaledEvent> events = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            JournaledEvent event = new JournaledEvent(readString(in));
+            if (in.readBoolean()) {
+                event.setConfig(readConfig(in));
+            }
+            event.setRunning(in.readBoolean());
+            event.setRemainingTotalTickets(in.readInt());
+            event.getAvailableTickets().addAll(readNames(in));
+            int waiting = in.readInt();
+            for (int j = 0; j < waiting; j++) {
+                event.getWaitingCustomers().put(readString(in), in.readBoolean());
+            }
+            int vendors = in.readInt();
+            for (int j = 0; j < vendors; j++) {
+                JournalRecord vendor = readRecord(in);
+                event.getVendors().put(vendor.getName(), vendor);
+            }
+            int customers = in.readInt();
+            for (int j = 0; j < customers; j++) {
+                JournalRecord customer = readRecord(in);
+                event.getCustomers().put(customer.getName(), customer);
+            }
+            event.getSoldBeforeRelease().addAll(readNames(in));
+            events.put(event.getId(), event);
+        }
+        return new Snapshot(lsn, events);
+    }
+
+    private static void writeRecord(DataOutput out, JournalRecord record) throws IOException {
+        out.writeByte(record.getType().ordinal());
+        writeString(out, record.getEventId());
+        writeString(out, record.getName());
+        int flags = (record.isVip() ? VIP_FLAG : 0)
+                | (record.getQuantity() != null ? QUANTITY_FLAG : 0)
+                | (record.getConfig() != null ? CONFIG_FLAG : 0);
+        out.writeByte(flags);
+        out.writeInt(record.getRate());
+        if (record.getQuantity() != null) {
+            out.writeInt(record.getQuantity());
+        }
+        if (record.getConfig() != null) {
+            writeConfig(out, record.getConfig());
+        }
+        writeNames(out, record.getTicketNames() != null ? record.getTicketNames() : List.of());
+    }
+
+    private static JournalRecord readRecord(DataInput in) throws IOException {
+        JournalRecordType type = JournalRecordType.values()[in.readUnsignedByte()];
+        String eventId = readString(in);
+        String name = readString(in);
+        int flags = in.readUnsignedByte();
+        int rate = in.readInt();
+        Integer quantity = (flags & QUANTITY_FLAG) != 0 ? in.readInt() : null;
+        TicketConfiguration config = (flags & CONFIG_FLAG) != 0 ? readConfig(in) : null;
+        List<String> ticketNames = readNames(in);
+        return new JournalRecord(type, eventId, name, (flags & VIP_FLAG) != 0, rate, quantity, config,
+                ticketNames.isEmpty() ? null : ticketNames);
+    }
+
+    private static void writeConfig(DataOutput out, TicketConfiguration config) throws IOException {
+        out.writeInt(config.getTotalTickets());
+        out.writeInt(config.getTicketReleaseRate());
+        out.writeInt(config.getCustomerRetrievalRate());
+        out.writeInt(config.getMaxTicketCapacity());
+    }
+
+    private static TicketConfiguration readConfig(DataInput in) throws IOException {
+        return new TicketConfiguration(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    private static void writeNames(DataOutput out, Collection<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            writeString(out, name);
+        }
+    }
+
+    private static List<String> readNames(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(readString(in));
+        }
+        return names;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /*
+     * Growable byte buffer that hands out its contents without copying.
+     */
+    public static class FrameBuffer extends ByteArrayOutputStream {
+        public FrameBuffer() {
+            super(8192);
+        }
+
+        public void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        public byte[] array() {
+            return buf;
+        }
+
+        public ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import me.nethuli.ticketingsystem.model.JournalRecord;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * JournaledEvent is the state of one event rebuilt from its journal records: its configuration
+ * and, while it runs, the pool's remaining total, the tickets in the pool, the waiting customers
+ * in arrival order and the vendors and customers to restart. Held tickets count as available,
+ * holds do not survive a restart.
+ */
+@Getter
+@Setter
+public class JournaledEvent {
+    private final String id;
+    private TicketConfiguration config;
+    private boolean running;
+    private int remainingTotalTickets;
+    private final Set<String> availableTickets = new LinkedHashSet<>();
+    // Customer name to VIP flag
+    private final Map<String, Boolean> waitingCustomers = new LinkedHashMap<>();
+    // VENDOR_ADDED and CUSTOMER_ADDED records by participant name
+    private final Map<String, JournalRecord> vendors = new LinkedHashMap<>();
+    private final Map<String, JournalRecord> customers = new LinkedHashMap<>();
+    // Sold tickets whose release record has not been applied yet; pool threads append concurrently,
+    // so a sale can reach the journal before the release it depends on
+    private final Set<String> soldBeforeRelease = new HashSet<>();
+
+    public JournaledEvent(String id) {
+        this.id = id;
+    }
+
+    /*
+     * Apply one record of this event. EVENT_DELETED is handled by the owner of the event map.
+     */
+    public void apply(JournalRecord record) {
+        // Pool threads can still append a record while the event stops
+        if (!running && isPoolRecord(record)) {
+            return;
+        }
+        switch (record.getType()) {
+            case EVENT_CONFIGURED -> {
+                if (running) {
+                    applyRates(config, record.getConfig());
+                }
+                config = record.getConfig();
+            }
+            case EVENT_STARTED -> {
+                config = record.getConfig();
+                clearPool();
+                running = true;
+                remainingTotalTickets = config.getTotalTickets();
+            }
+            case EVENT_STOPPED -> {
+                clearPool();
+                running = false;
+            }
+            case VENDOR_ADDED -> vendors.put(record.getName(), record);
+            case CUSTOMER_ADDED -> customers.put(record.getName(), record);
+            case CUSTOMER_QUEUED -> waitingCustomers.putIfAbsent(record.getName(), record.isVip());
+            case TICKET_RELEASED -> {
+                remainingTotalTickets--;
+                if (!soldBeforeRelease.remove(record.getName())) {
+                    availableTickets.add(record.getName());
+                }
+            }
+            case TICKETS_SOLD -> {
+                for (String ticketName : record.getTicketNames()) {
+                    if (!availableTickets.remove(ticketName)) {
+                        soldBeforeRelease.add(ticketName);
+                    }
+                }
+                waitingCustomers.remove(record.getName());
+            }
+            case EVENT_DELETED -> {
+            }
+        }
+    }
+
+    /*
+     * A running event was reconfigured, so its vendors and customers that ran at the previous
+     * rates now run at the new ones, as in TicketingServiceImpl. Customers with a number of
+     * tickets keep their rate.
+     */
+    private void applyRates(TicketConfiguration previous, TicketConfiguration changed) {
+        if (previous == null) {
+            return;
+        }
+        if (changed.getTicketReleaseRate() != previous.getTicketReleaseRate()) {
+            vendors.replaceAll((name, vendor) -> vendor.getRate() != previous.getTicketReleaseRate() ? vendor
+                    : JournalRecord.vendorAdded(id, name, changed.getTicketReleaseRate()));
+        }
+        if (changed.getCustomerRetrievalRate() != previous.getCustomerRetrievalRate()) {
+            customers.replaceAll((name, customer) -> customer.getQuantity() != null
+                    || customer.getRate() != previous.getCustomerRetrievalRate() ? customer
+                    : JournalRecord.customerAdded(id, name, customer.isVip(), customer.getQuantity(),
+                    changed.getCustomerRetrievalRate()));
+        }
+    }
+
+    private static boolean isPoolRecord(JournalRecord record) {
+        return switch (record.getType()) {
+            case VENDOR_ADDED, CUSTOMER_ADDED, CUSTOMER_QUEUED, TICKET_RELEASED, TICKETS_SOLD -> true;
+            default -> false;
+        };
+    }
+
+    private void clearPool() {
+        remainingTotalTickets = 0;
+        availableTickets.clear();
+        waitingCustomers.clear();
+        vendors.clear();
+        customers.clear();
+        soldBeforeRelease.clear();
+    }
+}
@@ -0,0 +1,382 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * LockFreeTicketPool keeps the remaining total tickets, the occupied slots and the held tickets in
+ * one packed AtomicLong so that capacity and total checks are a single CAS and one read is a
+ * consistent snapshot, and stores the tickets' inventory ids in a bounded MPMC ring of longs.
+ * Vendors and customers never block each other.
+ */
+public class LockFreeTicketPool extends AbstractTicketPool {
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long SLOT = 1L << COUNT_BITS;
+    private static final long HELD = 1L;
+    // Largest ring whose slot count fits in COUNT_BITS
+    public static final int MAX_CAPACITY = 1 << (COUNT_BITS - 1);
+
+    private final MpmcLongRingBuffer tickets;
+    // May be changed while vendors and customers run; never above the ring's capacity
+    private volatile int maxCapacity;
+    // High 32 bits: remaining total tickets, then 16 bits of occupied slots and 16 bits of held
+    // tickets, which are out of the ring but still occupy their slots
+    private final AtomicLong inventory;
+    private final AtomicBoolean soldOut = new AtomicBoolean(false);
+
+    public LockFreeTicketPool(int maxCapacity, int totalTickets, TicketPoolContext context) {
+        this(maxCapacity, maxCapacity, totalTickets, context);
+    }
+
+    /*
+     * Create a pool whose ring has room for capacityLimit tickets, so its maximum capacity can
+     * later be raised up to that limit.
+     */
+    public LockFreeTicketPool(int maxCapacity, int capacityLimit, int totalTickets, TicketPoolContext context) {
+        super(context);
+        if (Math.max(maxCapacity, capacityLimit) > MAX_CAPACITY) {
+            throw new IllegalArgumentException("A lock-free pool holds at most " + MAX_CAPACITY + " tickets");
+        }
+        this.tickets = new MpmcLongRingBuffer(Math.max(maxCapacity, capacityLimit));
+        this.maxCapacity = maxCapacity;
+        this.inventory = new AtomicLong(pack(totalTickets, 0, 0));
+    }
+
+    private static long pack(int remaining, int slots, int held) {
+        return ((long) remaining << 32) | ((long) slots << COUNT_BITS) | held;
+    }
+
+    private static int remaining(long inventory) {
+        return (int) (inventory >> 32);
+    }
+
+    private static int slots(long inventory) {
+        return (int) ((inventory >>> COUNT_BITS) & COUNT_MASK);
+    }
+
+    private static int held(long inventory) {
+        return (int) (inventory & COUNT_MASK);
+    }
+
+    @Override
+    public boolean isAtCapacity() {
+        return slots(inventory.get()) >= maxCapacity;
+    }
+
+    /*
+     * The slot count is checked against the capacity on every CAS attempt, so a vendor that read
+     * the old capacity either fails its CAS or fills at most up to it once.
+     */
+    @Override
+    public void setMaxCapacity(int maxCapacity) {
+        if (maxCapacity > getCapacityLimit()) {
+            throw new IllegalArgumentException("Capacity " + maxCapacity + " exceeds the pool's limit of "
+                    + getCapacityLimit());
+        }
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    @Override
+    public int getCapacityLimit() {
+        return tickets.capacity();
+    }
+
+    /*
+     * Reserve slots and remaining tickets with one CAS, then publish the tickets into the ring.
+     * Each ticket is queued to be saved before it enters the ring, so its row is written before
+     * any sale of it.
+     */
+    @Override
+    public void addTickets(TicketIdGenerator ticketIdGenerator, int count) {
+        // A paused or backed up pool takes no tickets, the vendor tries again later
+        if (isHeldBack()) {
+            return;
+        }
+
+        int ticketsToAdd;
+        int slotsBefore;
+        int remainingBefore;
+        while (true) {
+            long current = inventory.get();
+            int remaining = remaining(current);
+            int slots = slots(current);
+            int capacity = maxCapacity;
+
+            // Check if there are any tickets left to add
+            if (remaining <= 0) {
+                publish("No more tickets available to add. Total tickets exhausted.");
+                return;
+            }
+
+            // Check if the pool is at maximum capacity
+            if (slots >= capacity) {
+                poolEventPublisher.publish(PoolEvent.poolFull(slots, remaining));
+                publish("Cannot add tickets. Pool is at maximum capacity.");
+                return;
+            }
+
+            ticketsToAdd = Math.min(Math.min(capacity - slots, count), remaining);
+            if (ticketsToAdd <= 0) {
+                publish("Cannot add tickets. Capacity would be exceeded.");
+                return;
+            }
+
+            if (inventory.compareAndSet(current, pack(remaining - ticketsToAdd, slots + ticketsToAdd,
+                    held(current)))) {
+                slotsBefore = slots;
+                remainingBefore = remaining;
+                break;
+            }
+            metrics.recordCasRetry();
+        }
+
+        // The slots are already reserved, so the ring always has room for these tickets
+        for (int i = 0; i < ticketsToAdd; i++) {
+            long inventoryId = releaseTicket(ticketIdGenerator, slotsBefore + i + 1, remainingBefore - i - 1);
+            while (!tickets.offer(inventoryId)) {
+                Thread.onSpinWait();
+            }
+        }
+        serveWaitingCustomers();
+
+        if (isLogEnabled()) {
+            long current = inventory.get();
+            publish(ticketsToAdd + " tickets added. Total tickets: " + slots(current) +
+                    ". Remaining total tickets: " + remaining(current));
+        }
+    }
+
+    /*
+     * Hand out tickets to waiting customers, VIP customers first.
+     */
+    private void serveWaitingCustomers() {
+        while (!waitingCustomers.isEmpty()) {
+            long inventoryId = tickets.poll();
+            if (inventoryId == MpmcLongRingBuffer.EMPTY) {
+                return;
+            }
+            Customer customer = waitingCustomers.poll();
+            if (customer == null) {
+                // Another thread emptied the queue, put the ticket back into its still reserved slot
+                while (!tickets.offer(inventoryId)) {
+                    Thread.onSpinWait();
+                }
+                return;
+            }
+            inventory.addAndGet(-SLOT);
+            Ticket ticket = toTicket(inventoryId);
+            markSold(ticket, customer);
+            if (isLogEnabled()) {
+                publish(customer.getName() + (customer.isVip() ? "(VIP)" : "") + " received reserved ticket: "
+                        + ticket.getTicketName());
+            }
+        }
+    }
+
+    @Override
+    public Ticket removeTicket(Customer customer) throws InterruptedException {
+        if (isSystemStopped() || isHeldBack()) {
+            return null;
+        }
+        markRequested(customer);
+
+        // Regular customers queue behind anybody already waiting; VIP customers go straight to the pool
+        if (!customer.isVip() && !waitingCustomers.isEmpty()) {
+            // Customers that queued for a block that never came are only told once the sale ends
+            if (endSaleIfSoldOut()) {
+                return null;
+            }
+            queueCustomer(customer);
+            serveWaitingCustomers();
+            return null;
+        }
+
+        long inventoryId = tickets.poll();
+        if (inventoryId == MpmcLongRingBuffer.EMPTY) {
+            if (endSaleIfSoldOut()) {
+                return null;
+            }
+            // No ticket right now, wait for the next release
+            queueCustomer(customer);
+            serveWaitingCustomers();
+            return null;
+        }
+
+        // Free the slot; the ticket was counted, so the slot count cannot underflow
+        inventory.addAndGet(-SLOT);
+        Ticket ticket = toTicket(inventoryId);
+        markSold(ticket, customer);
+        return ticket;
+    }
+
+    /*
+     * Stop the pool if every ticket has been released and sold and no more are pending.
+     */
+    private boolean endSaleIfSoldOut() {
+        long current = inventory.get();
+        if (remaining(current) > 0 || slots(current) > 0 || isMoreTicketsPending()) {
+            return false;
+        }
+        if (soldOut.compareAndSet(false, true)) {
+            poolEventPublisher.publish(PoolEvent.soldOut());
+            publish("All tickets have been sold. System will stop.");
+        }
+        stopSystem();
+        return true;
+    }
+
+    /*
+     * Sell count tickets, or none, and free their slots with one update.
+     */
+    @Override
+    public List<Ticket> removeTickets(Customer customer, int count) {
+        if (isSystemStopped() || isHeldBack()) {
+            return List.of();
+        }
+        markRequested(customer);
+        List<Ticket> taken = takeTickets(customer, count);
+        if (!taken.isEmpty()) {
+            inventory.addAndGet(-count * SLOT);
+            markSold(taken, customer);
+        }
+        return taken;
+    }
+
+    /*
+     * Hold count tickets, or none. Held tickets leave the ring but keep their slots, so
+     * releasing the hold always has room to put them back.
+     */
+    @Override
+    public List<Ticket> reserveTickets(Customer customer, int count, LocalDateTime reservedUntil) {
+        if (isSystemStopped() || isHeldBack()) {
+            return List.of();
+        }
+        List<Ticket> taken = takeTickets(customer, count);
+        if (!taken.isEmpty()) {
+            inventory.addAndGet(count * HELD);
+            markReserved(taken, customer, reservedUntil);
+        }
+        return taken;
+    }
+
+    @Override
+    public void confirmReservation(Customer customer, List<Ticket> held) {
+        // Free the slots and end the hold in one update
+        inventory.addAndGet(-held.size() * (SLOT + HELD));
+        markSold(held, customer);
+    }
+
+    @Override
+    public void releaseReservation(List<Ticket> held) {
+        markReservationReleased(held);
+        for (Ticket ticket : held) {
+            long inventoryId = toInventoryId(ticket);
+            while (!tickets.offer(inventoryId)) {
+                Thread.onSpinWait();
+            }
+        }
+        inventory.addAndGet(-held.size() * HELD);
+        serveWaitingCustomers();
+    }
+
+    @Override
+    public void addRemainingTotalTickets(int count) {
+        inventory.addAndGet((long) count << 32);
+    }
+
+    @Override
+    public int withdrawRemainingTotalTickets() {
+        while (true) {
+            long current = inventory.get();
+            int remaining = remaining(current);
+            if (inventory.compareAndSet(current, pack(0, slots(current), held(current)))) {
+                return Math.max(remaining, 0);
+            }
+        }
+    }
+
+    @Override
+    public void restore(List<String> ticketNames, int remainingTotalTickets, List<Customer> waiting) {
+        if (ticketNames.size() > tickets.capacity()) {
+            throw new IllegalArgumentException("Cannot restore " + ticketNames.size() + " tickets into a pool of "
+                    + tickets.capacity());
+        }
+        inventory.set(pack(remainingTotalTickets, ticketNames.size(), 0));
+        for (String ticketName : ticketNames) {
+            long inventoryId = ticketIds.encode(ticketName);
+            while (!tickets.offer(inventoryId)) {
+                Thread.onSpinWait();
+            }
+        }
+        waiting.forEach(waitingCustomers::offer);
+        serveWaitingCustomers();
+    }
+
+    /*
+     * Take count tickets from the ring without freeing their slots. If the ring runs out part
+     * way, the taken tickets go back into their still reserved slots and nothing is taken.
+     */
+    private List<Ticket> takeTickets(Customer customer, int count) {
+        // Regular customers do not jump ahead of customers already waiting
+        long current = inventory.get();
+        if (count > maxCapacity || slots(current) - held(current) < count
+                || (!customer.isVip() && !waitingCustomers.isEmpty())) {
+            return List.of();
+        }
+
+        long[] takenIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            takenIds[i] = tickets.poll();
+            if (takenIds[i] == MpmcLongRingBuffer.EMPTY) {
+                for (int j = 0; j < i; j++) {
+                    while (!tickets.offer(takenIds[j])) {
+                        Thread.onSpinWait();
+                    }
+                }
+                serveWaitingCustomers();
+                return List.of();
+            }
+        }
+        List<Ticket> taken = new ArrayList<>(count);
+        for (long inventoryId : takenIds) {
+            taken.add(toTicket(inventoryId));
+        }
+        return taken;
+    }
+
+    @Override
+    public PoolSnapshot getSnapshot() {
+        long current = inventory.get();
+        return new PoolSnapshot(slots(current) - held(current), held(current), remaining(current), maxCapacity);
+    }
+
+    @Override
+    public int getTicketCount() {
+        long current = inventory.get();
+        return slots(current) - held(current);
+    }
+
+    @Override
+    public int getRemainingTotalTickets() {
+        return remaining(inventory.get());
+    }
+
+    @Override
+    public boolean hasAvailableTickets() {
+        long current = inventory.get();
+        return !isSystemStopped() && (remaining(current) > 0 || slots(current) > 0 || isMoreTicketsPending());
+    }
+}
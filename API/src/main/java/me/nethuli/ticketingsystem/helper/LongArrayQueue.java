@@ -0,0 +1,58 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.Arrays;
+
+/**
+ * Unbounded FIFO queue of longs in a circular array that doubles when full. Not thread safe.
+ */
+public class LongArrayQueue {
+    // Returned by poll when the queue is empty
+    public static final long EMPTY = -1;
+
+    private long[] elements;
+    private int head;
+    private int size;
+
+    public LongArrayQueue(int initialCapacity) {
+        this.elements = new long[Math.max(2, initialCapacity)];
+    }
+
+    /**
+     * Add an element to the tail of the queue.
+     *
+     * @param element Element to add, not negative
+     */
+    public void offer(long element) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = element;
+        size++;
+    }
+
+    /**
+     * Remove the element at the head of the queue.
+     *
+     * @return the element, or EMPTY if the queue is empty
+     */
+    public long poll() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long element = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return element;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] grown = Arrays.copyOf(elements, elements.length * 2);
+        // Move the wrapped part after the old end, so the elements are contiguous from head
+        System.arraycopy(elements, 0, grown, elements.length, head);
+        elements = grown;
+    }
+}
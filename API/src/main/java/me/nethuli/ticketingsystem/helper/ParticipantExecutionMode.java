@@ -0,0 +1,13 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * ParticipantExecutionMode selects how vendor and customer ticks are driven.
+ */
+public enum ParticipantExecutionMode {
+    // One platform (OS) thread per participant, VIP customers get a higher thread priority
+    PLATFORM_THREAD,
+    // One virtual thread per participant, sleeping participants do not hold a carrier thread
+    VIRTUAL_THREAD,
+    // No thread per participant, a small shared scheduler fires every participant's ticks
+    SCHEDULED_TICK
+}
@@ -0,0 +1,29 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * ParticipantHandle is the running instance of a vendor or customer, whatever drives its ticks.
+ */
+public interface ParticipantHandle {
+    TickParticipant getParticipant();
+
+    /*
+     * Stop scheduling ticks. A participant on its own thread is interrupted, a tick in progress on
+     * a shared scheduler shard is left to finish.
+     */
+    void stop();
+
+    /*
+     * Wait up to the given time for a tick in progress to finish.
+     */
+    void join(long millis) throws InterruptedException;
+
+    /*
+     * Follow a change of the participant's configured tick rate from the next tick on.
+     */
+    void reschedule();
+
+    /*
+     * Average number of completed ticks per second since the participant was started.
+     */
+    double getAchievedTickRate();
+}
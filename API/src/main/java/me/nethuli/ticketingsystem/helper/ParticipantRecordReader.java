@@ -0,0 +1,130 @@
+package me.nethuli.ticketingsystem.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * ParticipantRecordReader reads the rows of a bulk registration body one at a time, so a body
+ * of any size is never held in memory. NDJSON rows are JSON objects, CSV rows are mapped to the
+ * request's fields by the header row. Quoted CSV fields may hold commas and doubled quotes, but
+ * no line breaks. Blank lines are skipped.
+ */
+public class ParticipantRecordReader<T> implements Closeable {
+    private final BufferedReader reader;
+    private final RegistrationFormat format;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+    private final Class<T> type;
+    private List<String> header;
+    private int lineNumber;
+
+    public ParticipantRecordReader(InputStream body, RegistrationFormat format, ObjectMapper objectMapper,
+            Class<T> type) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(type);
+        this.type = type;
+    }
+
+    /*
+     * Read the next row, or return null at the end of the body. A row that cannot be read fails
+     * with IllegalArgumentException, and the next call goes on with the row after it.
+     */
+    public T next() throws IOException {
+        String line = nextLine();
+        if (line != null && format == RegistrationFormat.CSV && header == null) {
+            header = parseCsvLine(line).stream().map(String::trim).toList();
+            line = nextLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        try {
+            if (format == RegistrationFormat.NDJSON) {
+                return rowReader.readValue(line);
+            }
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + fields.size());
+            }
+            // Empty fields are left out, so they keep the request's defaults
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    row.put(header.get(i), fields.get(i));
+                }
+            }
+            return objectMapper.convertValue(row, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    /*
+     * Get the line number of the row last read, starting at 1.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    private String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        return line;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,107 @@
+package me.nethuli.ticketingsystem.helper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingRuntimeProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
+
+/*
+ * ParticipantScheduler starts vendors and customers using ticketing.runtime.execution-mode:
+ * one platform or virtual thread per participant, or ticks fired by a bounded set of
+ * single-threaded scheduler shards. Each event is pinned to one shard, so the participants of
+ * one event never contend with each other across cores while unrelated events run in parallel.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParticipantScheduler {
+    private final TicketingRuntimeProperties runtimeProperties;
+    private ScheduledThreadPoolExecutor[] tickShards;
+    // Number of events currently pinned to each shard
+    private AtomicIntegerArray shardLoad;
+
+    @PostConstruct
+    public void init() {
+        int shards = Math.max(1, runtimeProperties.getTickThreads());
+        shardLoad = new AtomicIntegerArray(shards);
+        if (runtimeProperties.getExecutionMode() == ParticipantExecutionMode.SCHEDULED_TICK) {
+            tickShards = new ScheduledThreadPoolExecutor[shards];
+            for (int i = 0; i < shards; i++) {
+                tickShards[i] = new ScheduledThreadPoolExecutor(1,
+                        Thread.ofPlatform().name("participant-tick-" + i).daemon(true).factory());
+                tickShards[i].setRemoveOnCancelPolicy(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (tickShards != null) {
+            for (ScheduledThreadPoolExecutor shard : tickShards) {
+                shard.shutdownNow();
+            }
+        }
+    }
+
+    /*
+     * Pin a new event to the least loaded shard and return the shard index.
+     */
+    public synchronized int acquireShard() {
+        int shard = 0;
+        for (int i = 1; i < shardLoad.length(); i++) {
+            if (shardLoad.get(i) < shardLoad.get(shard)) {
+                shard = i;
+            }
+        }
+        shardLoad.incrementAndGet(shard);
+        return shard;
+    }
+
+    /*
+     * Release a shard acquired for an event that has stopped.
+     */
+    public void releaseShard(int shard) {
+        shardLoad.decrementAndGet(shard);
+    }
+
+    /*
+     * Start the participant on the event's shard and return a handle used to stop and join it.
+     */
+    public ParticipantHandle start(int shard, String name, TickParticipant participant, boolean highPriority) {
+        return switch (runtimeProperties.getExecutionMode()) {
+            case PLATFORM_THREAD -> new ThreadParticipantHandle(participant, Thread.ofPlatform()
+                    .name(name)
+                    .priority(highPriority ? Thread.MAX_PRIORITY : Thread.NORM_PRIORITY));
+            // Virtual threads ignore priorities, VIP ordering is handled by the ticket pool
+            case VIRTUAL_THREAD -> new ThreadParticipantHandle(participant, Thread.ofVirtual().name(name));
+            case SCHEDULED_TICK -> new ScheduledParticipantHandle(participant, tickShards[shard]);
+        };
+    }
+
+    /*
+     * Start participants registered together on the event's shard, returning their handles in
+     * the same order. On the tick scheduler their first ticks are spread over one tick period,
+     * so a large batch does not tick all at once.
+     */
+    public <T extends TickParticipant> List<ParticipantHandle> startAll(int shard, String namePrefix,
+            List<T> participants, Predicate<? super T> highPriority) {
+        List<ParticipantHandle> handles = new ArrayList<>(participants.size());
+        for (int i = 0; i < participants.size(); i++) {
+            T participant = participants.get(i);
+            if (runtimeProperties.getExecutionMode() == ParticipantExecutionMode.SCHEDULED_TICK) {
+                handles.add(new ScheduledParticipantHandle(participant, tickShards[shard],
+                        (double) i / participants.size()));
+            } else {
+                handles.add(start(shard, namePrefix + participant.getParticipantName(), participant,
+                        highPriority.test(participant)));
+            }
+        }
+        return handles;
+    }
+}
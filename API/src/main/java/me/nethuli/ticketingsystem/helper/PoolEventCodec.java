@@ -0,0 +1,176 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.PoolEventType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding for a batch of pool events (one WebSocket frame).
+ * <pre>
+ * frame  := 'P' 'E' version:u8 count:varint baseTimestamp:i64 event*
+ * event  := type:u8 flags:u8 timestampDelta:zigzag-varint ticketCount:varint remaining:varint
+ *           ticketName:str customerName:str
+ * str    := 0 (absent) | (length + 1):varint utf8-bytes
+ * flags  := bit 0 = VIP customer
+ * </pre>
+ * Integers are unsigned LEB128 varints, the base timestamp is big-endian epoch milliseconds
+ * and every event timestamp is stored as a delta from it. The encoder is not thread-safe;
+ * each broadcast thread owns one instance.
+ */
+public class PoolEventCodec {
+    public static final int VERSION = 1;
+    private static final int VIP_FLAG = 1;
+
+    private byte[] buffer = new byte[4096];
+    private int position;
+
+    /**
+     * Encode the events into one frame.
+     *
+     * @param events Events to encode, in publish order
+     * @return the encoded frame
+     */
+    public byte[] encode(List<PoolEvent> events) {
+        position = 0;
+        writeByte('P');
+        writeByte('E');
+        writeByte(VERSION);
+        writeVarint(events.size());
+        long baseTimestamp = events.isEmpty() ? 0 : events.get(0).getTimestamp();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (baseTimestamp >>> shift));
+        }
+        for (PoolEvent event : events) {
+            writeByte(event.getType().ordinal());
+            writeByte(event.isVip() ? VIP_FLAG : 0);
+            long delta = event.getTimestamp() - baseTimestamp;
+            writeVarint((delta << 1) ^ (delta >> 63));
+            writeVarint(event.getTicketCount());
+            writeVarint(event.getRemainingTotalTickets());
+            writeString(event.getTicketName());
+            writeString(event.getCustomerName());
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Decode a frame produced by encode.
+     *
+     * @param frame Encoded frame
+     * @return the events in the frame
+     */
+    public static List<PoolEvent> decode(byte[] frame) {
+        Reader reader = new Reader(frame);
+        if (reader.readByte() != 'P' || reader.readByte() != 'E') {
+            throw new IllegalArgumentException("Not a pool event frame");
+        }
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported pool event frame version " + version);
+        }
+        int count = (int) reader.readVarint();
+        long baseTimestamp = 0;
+        for (int i = 0; i < 8; i++) {
+            baseTimestamp = (baseTimestamp << 8) | reader.readByte();
+        }
+        List<PoolEvent> events = new ArrayList<>(count);
+        PoolEventType[] types = PoolEventType.values();
+        for (int i = 0; i < count; i++) {
+            PoolEventType type = types[reader.readByte()];
+            boolean vip = (reader.readByte() & VIP_FLAG) != 0;
+            long zigzag = reader.readVarint();
+            long timestamp = baseTimestamp + ((zigzag >>> 1) ^ -(zigzag & 1));
+            int ticketCount = (int) reader.readVarint();
+            int remaining = (int) reader.readVarint();
+            String ticketName = reader.readString();
+            String customerName = reader.readString();
+            events.add(new PoolEvent(type, timestamp, ticketName, customerName, vip, ticketCount, remaining));
+        }
+        return events;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        int length = value.length();
+        // Ticket and customer names are nearly always ASCII, copy those without an intermediate byte[]
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            writeVarint(length + 1L);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    private static class Reader {
+        private final byte[] frame;
+        private int position;
+
+        Reader(byte[] frame) {
+            this.frame = frame;
+        }
+
+        int readByte() {
+            return frame[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            int shift = 0;
+            int current;
+            do {
+                current = readByte();
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(frame, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.util.List;
+
+/*
+ * PoolJournal receives the state changes of one event's ticket pool for the pool journal.
+ * Calls never block on the disk.
+ */
+public interface PoolJournal {
+    PoolJournal NONE = new PoolJournal() {
+    };
+
+    default void ticketReleased(Ticket ticket) {
+    }
+
+    default void ticketsSold(List<Ticket> tickets, Customer customer) {
+    }
+
+    default void customerQueued(Customer customer) {
+    }
+
+    /*
+     * Check if too many records wait to be written, e.g. while the disk fails. The pool then
+     * takes no new releases or sales.
+     */
+    default boolean isBackedUp() {
+        return false;
+    }
+}
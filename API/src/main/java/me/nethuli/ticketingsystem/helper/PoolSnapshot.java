@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * PoolSnapshot is an immutable, consistent set of a pool's counts, taken at one point in time.
+ * Pools publish or decode it without locking, so status polling never contends with sales.
+ */
+@Getter
+@AllArgsConstructor
+public class PoolSnapshot {
+    public static final PoolSnapshot EMPTY = new PoolSnapshot(0, 0, 0, 0);
+
+    // Tickets in the pool that can be sold, not counting held ones
+    private final int ticketCount;
+    private final int heldTickets;
+    private final int remainingTotalTickets;
+    private final int maxCapacity;
+}
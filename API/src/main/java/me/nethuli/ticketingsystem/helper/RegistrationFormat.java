@@ -0,0 +1,33 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/*
+ * Formats of a bulk registration body: one JSON object per line, or CSV with a header row.
+ */
+@AllArgsConstructor
+@Getter
+public enum RegistrationFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    /*
+     * Get the format of a request body from its Content-Type header.
+     */
+    public static RegistrationFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (RegistrationFormat format : values()) {
+                if (mediaType.isCompatibleWith(MediaType.parseMediaType(format.contentType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type " + contentType + ", use "
+                + NDJSON.contentType + " or " + CSV.contentType);
+    }
+}
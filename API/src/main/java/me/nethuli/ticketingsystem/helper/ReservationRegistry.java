@@ -0,0 +1,132 @@
+package me.nethuli.ticketingsystem.helper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingReservationProperties;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ReservationRegistry keeps the active ticket holds of all events. Every hold is also put on a
+ * DelayQueue, and a single sweeper thread blocks on it until the earliest hold is due, so expiry
+ * costs nothing while no hold is due. Expired holds go back into their pool, which hands the
+ * tickets to waiting customers first. Holds that end earlier stay in the queue and are skipped
+ * when they come due.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationRegistry {
+    private final TicketingReservationProperties reservationProperties;
+    private final TicketingMetrics metrics;
+    private final Map<String, TicketReservation> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<TicketReservation> expiryQueue = new DelayQueue<>();
+    private Thread sweeper;
+
+    @PostConstruct
+    public void init() {
+        metrics.bindActiveHolds(holds);
+        sweeper = Thread.ofPlatform().name("reservation-sweeper").daemon(true).start(this::sweep);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.interrupt();
+    }
+
+    private void sweep() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                expire(expiryQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                LoggingHelper.error("Failed to expire ticket hold: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Hold count tickets of the pool for the customer, or return null if not enough are available.
+     */
+    public TicketReservation hold(String eventId, TicketPool ticketPool, Customer customer, int count) {
+        long holdNanos = TimeUnit.SECONDS.toNanos(reservationProperties.getHoldSeconds());
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(reservationProperties.getHoldSeconds());
+        List<Ticket> tickets = ticketPool.reserveTickets(customer, count, expiresAt);
+        if (tickets.isEmpty()) {
+            return null;
+        }
+        TicketReservation reservation = new TicketReservation(eventId, ticketPool, customer, tickets, expiresAt,
+                System.nanoTime() + holdNanos);
+        holds.put(reservation.getId(), reservation);
+        expiryQueue.put(reservation);
+        metrics.recordHeld(tickets.size());
+        return reservation;
+    }
+
+    /*
+     * Active hold with the given id, or null if there is none.
+     */
+    public TicketReservation get(String holdId) {
+        return holds.get(holdId);
+    }
+
+    /*
+     * Sell the held tickets. Returns false if the hold has already ended or is past its expiry,
+     * in which case the tickets are back in the pool.
+     */
+    public boolean confirm(TicketReservation reservation) {
+        if (reservation.isExpired()) {
+            expire(reservation);
+            return false;
+        }
+        if (!reservation.end()) {
+            return false;
+        }
+        holds.remove(reservation.getId());
+        reservation.getTicketPool().confirmReservation(reservation.getCustomer(), reservation.getTickets());
+        metrics.recordHoldConfirmed(reservation.getTickets().size());
+        return true;
+    }
+
+    /*
+     * Put the held tickets back into the pool. Returns false if the hold has already ended.
+     */
+    public boolean cancel(TicketReservation reservation) {
+        if (!reservation.end()) {
+            return false;
+        }
+        holds.remove(reservation.getId());
+        reservation.getTicketPool().releaseReservation(reservation.getTickets());
+        metrics.recordHoldCancelled(reservation.getTickets().size());
+        return true;
+    }
+
+    /*
+     * Cancel every active hold of the event, used when its pool stops.
+     */
+    public void cancelAll(String eventId) {
+        holds.values().stream()
+                .filter(reservation -> reservation.getEventId().equals(eventId))
+                .forEach(this::cancel);
+    }
+
+    private void expire(TicketReservation reservation) {
+        if (!reservation.end()) {
+            return;
+        }
+        holds.remove(reservation.getId());
+        reservation.getTicketPool().releaseReservation(reservation.getTickets());
+        metrics.recordHoldExpired(reservation.getTickets().size());
+        LoggingHelper.info("Hold " + reservation.getId() + " on " + reservation.getTickets().size()
+                + " tickets for " + reservation.getCustomer().getName() + " expired");
+    }
+}
@@ -0,0 +1,110 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.config.TicketingSalesProperties;
+import me.nethuli.ticketingsystem.dto.SalesOverTimeResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * SalesTimeSeries is an in-memory per-second histogram of ticket sales covering the last
+ * ticketing.sales.window-seconds. Each bucket packs its epoch second and its count into one
+ * long, so recording a sale is a single CAS and a bucket is reset for a new second atomically.
+ */
+@Component
+public class SalesTimeSeries {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final AtomicLongArray buckets;
+    private final int windowSeconds;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Sales before this second were made by an earlier run and only exist in the database
+    private final long coveredSince = Instant.now().getEpochSecond();
+
+    public SalesTimeSeries(TicketingSalesProperties salesProperties) {
+        this.windowSeconds = salesProperties.getWindowSeconds();
+        this.buckets = new AtomicLongArray(windowSeconds);
+    }
+
+    /*
+     * Record one sale in the current second.
+     */
+    public void recordSale() {
+        recordSales(Instant.now().getEpochSecond(), 1);
+    }
+
+    /*
+     * Record one sale in the given epoch second.
+     */
+    public void recordSale(long epochSecond) {
+        recordSales(epochSecond, 1);
+    }
+
+    /*
+     * Record a number of sales in the current second.
+     */
+    public void recordSales(int count) {
+        recordSales(Instant.now().getEpochSecond(), count);
+    }
+
+    /*
+     * Record a number of sales in the given epoch second. A bucket saturates at its maximum count.
+     */
+    public void recordSales(long epochSecond, int count) {
+        int index = (int) (epochSecond % windowSeconds);
+        while (true) {
+            long bucket = buckets.get(index);
+            long bucketSecond = bucket >>> COUNT_BITS;
+            long updated;
+            if (bucketSecond == epochSecond) {
+                if ((bucket & COUNT_MASK) == COUNT_MASK) {
+                    return;
+                }
+                updated = (bucket & ~COUNT_MASK) | Math.min(COUNT_MASK, (bucket & COUNT_MASK) + count);
+            } else if (bucketSecond < epochSecond) {
+                // The bucket still holds an older second, start it over
+                updated = (epochSecond << COUNT_BITS) | Math.min(COUNT_MASK, count);
+            } else {
+                // Too old for the window, the bucket has already moved on
+                return;
+            }
+            if (buckets.compareAndSet(index, bucket, updated)) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Check if every second from the given start time onwards is held in memory.
+     */
+    public boolean covers(LocalDateTime startTime) {
+        long startSecond = startTime.atZone(zone).toEpochSecond();
+        long oldestInWindow = Instant.now().getEpochSecond() - windowSeconds + 1;
+        return startSecond >= Math.max(coveredSince, oldestInWindow);
+    }
+
+    /*
+     * Get the number of sales per second between the two times, skipping seconds without sales.
+     */
+    public List<SalesOverTimeResponse> getSalesPerSecond(LocalDateTime startTime, LocalDateTime endTime) {
+        long startSecond = startTime.atZone(zone).toEpochSecond();
+        long endSecond = endTime.atZone(zone).toEpochSecond();
+        List<SalesOverTimeResponse> sales = new ArrayList<>();
+        for (long second = startSecond; second <= endSecond; second++) {
+            long bucket = buckets.get((int) (second % windowSeconds));
+            if ((bucket >>> COUNT_BITS) == second && (bucket & COUNT_MASK) > 0) {
+                String time = TIME_FORMATTER.format(Instant.ofEpochSecond(second).atZone(zone));
+                sales.add(new SalesOverTimeResponse(time, bucket & COUNT_MASK));
+            }
+        }
+        return sales;
+    }
+}
@@ -0,0 +1,117 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * ScheduledParticipantHandle fires a participant's ticks at a fixed rate on the shared tick scheduler.
+ * The participant holds no thread between ticks.
+ */
+public class ScheduledParticipantHandle implements ParticipantHandle {
+    private final TickParticipant participant;
+    private final ScheduledExecutorService tickExecutor;
+    private final long startedAt = System.nanoTime();
+    // Held for the duration of a tick so join() can wait for a tick in progress
+    private final ReentrantLock tickLock = new ReentrantLock();
+    private volatile ScheduledFuture<?> future;
+    private volatile boolean finished = false;
+
+    public ScheduledParticipantHandle(TickParticipant participant, ScheduledExecutorService tickExecutor) {
+        this(participant, tickExecutor, 0);
+    }
+
+    /*
+     * Start ticking after the given fraction (0 to 1) of the first tick period.
+     */
+    public ScheduledParticipantHandle(TickParticipant participant, ScheduledExecutorService tickExecutor,
+            double phase) {
+        this.participant = participant;
+        this.tickExecutor = tickExecutor;
+        long periodNanos = periodNanos();
+        this.future = tickExecutor.scheduleAtFixedRate(this::fire, (long) (periodNanos * phase), periodNanos,
+                TimeUnit.NANOSECONDS);
+        if (finished) {
+            future.cancel(false);
+        }
+    }
+
+    private long periodNanos() {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / participant.getConfiguredTickRate()));
+    }
+
+    private void fire() {
+        if (finished || !tickLock.tryLock()) {
+            return;
+        }
+        try {
+            if (participant.tick() == TickParticipant.STOP) {
+                finish();
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by the scheduler shutting down
+            finish();
+        } catch (RuntimeException e) {
+            // Keep ticking, an exception would otherwise silently cancel the schedule
+            LoggingHelper.error(participant.getParticipantName() + " tick failed: " + e.getMessage());
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private void finish() {
+        finished = true;
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    @Override
+    public TickParticipant getParticipant() {
+        return participant;
+    }
+
+    @Override
+    public void stop() {
+        boolean wasRunning = !finished;
+        finished = true;
+        // Never interrupt, the shard thread is shared with the other participants of the event.
+        // A tick in progress finishes on its own and join() waits for it.
+        future.cancel(false);
+        if (wasRunning) {
+            participant.onStopped();
+        }
+    }
+
+    @Override
+    public void join(long millis) throws InterruptedException {
+        if (tickLock.tryLock(millis, TimeUnit.MILLISECONDS)) {
+            tickLock.unlock();
+        }
+    }
+
+    /*
+     * Replace the fixed-rate schedule with one at the new period, starting one period from now.
+     */
+    @Override
+    public synchronized void reschedule() {
+        if (finished) {
+            return;
+        }
+        future.cancel(false);
+        long periodNanos = periodNanos();
+        future = tickExecutor.scheduleAtFixedRate(this::fire, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        // finish() may have cancelled the old schedule while the new one was created
+        if (finished) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public double getAchievedTickRate() {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        return seconds > 0 ? participant.getCompletedTicks() / seconds : 0;
+    }
+}
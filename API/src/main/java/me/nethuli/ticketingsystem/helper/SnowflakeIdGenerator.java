@@ -0,0 +1,55 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.config.TicketingTicketIdProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * SnowflakeIdGenerator hands out 64-bit ids made of 41 bits of milliseconds since 2024-01-01,
+ * 10 bits of node id and a 12-bit sequence within the millisecond. The millisecond and sequence
+ * are packed into one AtomicLong, so an id is one CAS. When a millisecond runs out of sequence
+ * numbers the id borrows the next millisecond instead of waiting, and a clock that steps back
+ * never makes ids go backwards. Ids stay unique across restarts as long as the clock does not go
+ * back further than the downtime, and across instances as long as each has its own node id.
+ */
+@Component
+public class SnowflakeIdGenerator {
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    // Milliseconds since the epoch shifted left by SEQUENCE_BITS, plus the sequence number
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(TicketingTicketIdProperties ticketIdProperties) {
+        this(ticketIdProperties.getNodeId());
+    }
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("Ticket id node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        long state;
+        while (true) {
+            long last = lastState.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            // A full sequence carries into the next millisecond
+            state = now > last ? now : last + 1;
+            if (lastState.compareAndSet(last, state)) {
+                break;
+            }
+        }
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+}
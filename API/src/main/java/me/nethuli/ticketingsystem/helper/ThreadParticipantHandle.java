@@ -0,0 +1,67 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ThreadParticipantHandle runs a participant on its own platform or virtual thread.
+ * Ticks are paced against a running deadline so sleep overshoot does not add up over time.
+ */
+public class ThreadParticipantHandle implements ParticipantHandle {
+    private final TickParticipant participant;
+    private final long startedAt = System.nanoTime();
+    private final Thread thread;
+
+    public ThreadParticipantHandle(TickParticipant participant, Thread.Builder threadBuilder) {
+        this.participant = participant;
+        this.thread = threadBuilder.start(this::runTicks);
+    }
+
+    private void runTicks() {
+        long nextTick = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long delay = participant.tick();
+                if (delay == TickParticipant.STOP) {
+                    break;
+                }
+                nextTick += TimeUnit.MILLISECONDS.toNanos(delay);
+                long sleepNanos = nextTick - System.nanoTime();
+                if (sleepNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } else {
+                    // Fell behind (e.g. a long pause), start a new schedule instead of bursting
+                    nextTick = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException e) {
+            participant.onStopped();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public TickParticipant getParticipant() {
+        return participant;
+    }
+
+    @Override
+    public void stop() {
+        thread.interrupt();
+    }
+
+    @Override
+    public void join(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    // Every tick returns the delay before the next one, so the new rate applies without help
+    @Override
+    public void reschedule() {
+    }
+
+    @Override
+    public double getAchievedTickRate() {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        return seconds > 0 ? participant.getCompletedTicks() / seconds : 0;
+    }
+}
@@ -0,0 +1,51 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * TickParticipant is a vendor or customer whose work is split into ticks, so it can run either
+ * on its own thread or on the shared tick scheduler.
+ */
+public interface TickParticipant extends Runnable {
+    // Returned by tick() when the participant has finished and should not be ticked again
+    long STOP = -1;
+
+    String getParticipantName();
+
+    /*
+     * Do one unit of work and return the delay in milliseconds before the next tick, or STOP.
+     */
+    long tick() throws InterruptedException;
+
+    /*
+     * Number of ticks per second this participant is configured for.
+     */
+    double getConfiguredTickRate();
+
+    /*
+     * Number of ticks that did real work (paused ticks are not counted).
+     */
+    long getCompletedTicks();
+
+    /*
+     * Called once when the participant is stopped from outside.
+     */
+    void onStopped();
+
+    /*
+     * Run the participant on the current thread until it finishes or the thread is interrupted.
+     */
+    @Override
+    default void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long delay = tick();
+                if (delay == STOP) {
+                    break;
+                }
+                Thread.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            onStopped();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
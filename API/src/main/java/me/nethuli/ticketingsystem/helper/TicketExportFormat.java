@@ -0,0 +1,16 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * Formats of the ticket export: one JSON object per line, or CSV with a header row.
+ */
+@AllArgsConstructor
+@Getter
+public enum TicketExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+}
@@ -0,0 +1,86 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * TicketIdCodec packs ticket names into the primitive inventory ids a pool keeps instead of
+ * Ticket objects, and turns them back into names when a ticket is sold or held. An inventory id
+ * is the index of a series in its top bits and an offset in its low 48 bits. A series is a name
+ * prefix and a base id, and the ticket's name is the prefix followed by base + offset in base 36.
+ * A pool sees few prefixes (one per vendor), so a series lasts until a vendor's ids have moved
+ * 2^48 past its base, about 18 hours of Snowflake ids. Inventory ids are never negative.
+ */
+public class TicketIdCodec {
+    private static final int OFFSET_BITS = 48;
+    private static final long MAX_OFFSET = (1L << OFFSET_BITS) - 1;
+    public static final int MAX_SERIES = 1 << (Long.SIZE - 1 - OFFSET_BITS);
+
+    // Series are only appended, under the lock, and published by replacing the arrays
+    private volatile String[] prefixes = new String[0];
+    private volatile long[] bases = new long[0];
+    // Newest series of every prefix, so encoding a vendor's next ticket is one lookup
+    private final Map<String, Integer> latestSeries = new ConcurrentHashMap<>();
+
+    /*
+     * Get the inventory id of the ticket named prefix followed by id in base 36.
+     */
+    public long encode(String prefix, long id) {
+        Integer series = latestSeries.get(prefix);
+        if (series != null) {
+            long offset = id - bases[series];
+            if (offset >= 0 && offset <= MAX_OFFSET) {
+                return ((long) series << OFFSET_BITS) | offset;
+            }
+        }
+        return encodeInSeries(prefix, id);
+    }
+
+    /*
+     * Get the inventory id of a ticket named by a TicketIdGenerator.
+     */
+    public long encode(String ticketName) {
+        int separator = ticketName.lastIndexOf('-');
+        if (separator < 0 || separator == ticketName.length() - 1) {
+            throw new IllegalArgumentException("Ticket name " + ticketName + " has no id");
+        }
+        return encode(ticketName.substring(0, separator + 1),
+                Long.parseLong(ticketName, separator + 1, ticketName.length(), 36));
+    }
+
+    public String decode(long inventoryId) {
+        int series = (int) (inventoryId >>> OFFSET_BITS);
+        return TicketIdGenerator.ticketName(prefixes[series], bases[series] + (inventoryId & MAX_OFFSET));
+    }
+
+    /*
+     * Find an older series of the prefix that covers the id, or start a new one based at it.
+     */
+    private synchronized long encodeInSeries(String prefix, long id) {
+        String[] currentPrefixes = prefixes;
+        long[] currentBases = bases;
+        for (int series = currentPrefixes.length - 1; series >= 0; series--) {
+            long offset = id - currentBases[series];
+            if (currentPrefixes[series].equals(prefix) && offset >= 0 && offset <= MAX_OFFSET) {
+                return ((long) series << OFFSET_BITS) | offset;
+            }
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Ticket id " + id + " is negative");
+        }
+        int series = currentPrefixes.length;
+        if (series >= MAX_SERIES) {
+            throw new IllegalStateException("A pool holds tickets of at most " + MAX_SERIES + " series");
+        }
+        String[] newPrefixes = Arrays.copyOf(currentPrefixes, series + 1);
+        long[] newBases = Arrays.copyOf(currentBases, series + 1);
+        newPrefixes[series] = prefix;
+        newBases[series] = id;
+        // Bases first, so a reader that sees the new prefix always sees its base
+        bases = newBases;
+        prefixes = newPrefixes;
+        latestSeries.put(prefix, series);
+        return (long) series << OFFSET_BITS;
+    }
+}
@@ -0,0 +1,59 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * TicketIdGenerator creates the ticket names of one vendor. A name is the generator's prefix
+ * followed by a numeric id in base 36, and names are unique across vendors, events and restarts.
+ */
+public interface TicketIdGenerator {
+    /*
+     * Get the part of the name shared by every ticket of this generator.
+     */
+    String getPrefix();
+
+    /*
+     * Get the next id. Ids are never negative.
+     */
+    long nextId();
+
+    default String nextTicketId() {
+        return ticketName(getPrefix(), nextId());
+    }
+
+    /*
+     * Generator numbering its tickets 1, 2, 3... after the prefix.
+     */
+    static TicketIdGenerator sequence(String prefix) {
+        AtomicLong sequence = new AtomicLong();
+        return new TicketIdGenerator() {
+            @Override
+            public String getPrefix() {
+                return prefix;
+            }
+
+            @Override
+            public long nextId() {
+                return sequence.incrementAndGet();
+            }
+        };
+    }
+
+    static String ticketName(String prefix, long id) {
+        return appendBase36(new StringBuilder(prefix.length() + 13).append(prefix), id).toString();
+    }
+
+    /*
+     * Append value as base 36 digits without creating an intermediate string.
+     */
+    static StringBuilder appendBase36(StringBuilder builder, long value) {
+        char[] digits = new char[13];
+        int position = digits.length;
+        long remaining = value;
+        do {
+            digits[--position] = Character.forDigit((int) Long.remainderUnsigned(remaining, 36), 36);
+            remaining = Long.divideUnsigned(remaining, 36);
+        } while (remaining != 0);
+        return builder.append(digits, position, digits.length - position);
+    }
+}
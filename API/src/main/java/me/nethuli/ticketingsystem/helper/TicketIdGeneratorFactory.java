@@ -0,0 +1,46 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingTicketIdProperties;
+import org.springframework.stereotype.Component;
+
+/*
+ * TicketIdGeneratorFactory creates a vendor's ticket id generator using ticketing.ticket-id.mode.
+ * Names are the vendor name, "-TKT-" and the id in base 36.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketIdGeneratorFactory {
+    private final TicketingTicketIdProperties ticketIdProperties;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+
+    public TicketIdGenerator create(String vendorName) {
+        String prefix = vendorName + "-TKT-";
+        return switch (ticketIdProperties.getMode()) {
+            case SNOWFLAKE -> new SnowflakeIds(prefix, snowflakeIdGenerator);
+            // A counter behind an id taken once per vendor, so ticket ids of different vendors never meet
+            case VENDOR_SEQUENCE -> TicketIdGenerator.sequence(
+                    prefix + Long.toString(snowflakeIdGenerator.nextId(), 36) + "-");
+        };
+    }
+
+    private static class SnowflakeIds implements TicketIdGenerator {
+        private final String prefix;
+        private final SnowflakeIdGenerator snowflakeIdGenerator;
+
+        SnowflakeIds(String prefix, SnowflakeIdGenerator snowflakeIdGenerator) {
+            this.prefix = prefix;
+            this.snowflakeIdGenerator = snowflakeIdGenerator;
+        }
+
+        @Override
+        public String getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public long nextId() {
+            return snowflakeIdGenerator.nextId();
+        }
+    }
+}
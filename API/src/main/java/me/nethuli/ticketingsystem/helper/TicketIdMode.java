@@ -0,0 +1,11 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * TicketIdMode selects how vendors name the tickets they release.
+ */
+public enum TicketIdMode {
+    // One Snowflake id per ticket from the generator shared by all vendors
+    SNOWFLAKE,
+    // One Snowflake id per vendor, then a counter local to the vendor
+    VENDOR_SEQUENCE
+}
@@ -2,304 +2,140 @@ package me.nethuli.ticketingsystem.helper;
 
 import me.nethuli.ticketingsystem.model.Customer;
 import me.nethuli.ticketingsystem.model.Ticket;
-import me.nethuli.ticketingsystem.repository.TicketRepository;
-import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.locks.ReentrantLock;
 
 /*
- * TicketPool class is responsible for managing the tickets in the system.
+ * TicketPool is responsible for managing the tickets in the system.
+ * The actual engine is selected with ticketing.pool.mode (see TicketPoolMode).
  */
-public class TicketPool {
-    private final ConcurrentLinkedQueue<Ticket> tickets;
-    private final ReentrantLock lock;
-    private final PriorityBlockingQueue<Customer> waitingCustomers;
-    private final int maxCapacity;
-    private int remainingTotalTickets;
-    private volatile boolean isPaused = false;
-    private final Object pauseLock = new Object();
-    private final WebSocketMessageService webSocketMessageService;
-    private final TicketRepository ticketRepository;
-    private volatile boolean isSystemStopped = false;
-
-    public TicketPool(int maxCapacity, int totalTickets, WebSocketMessageService webSocketMessageService,
-            TicketRepository ticketRepository) {
-        this.ticketRepository = ticketRepository;
-        this.tickets = new ConcurrentLinkedQueue<>();
-        this.lock = new ReentrantLock(true); // Fair locking
-        this.waitingCustomers = new PriorityBlockingQueue<>();
-        this.maxCapacity = maxCapacity;
-        this.remainingTotalTickets = totalTickets;
-        this.webSocketMessageService = webSocketMessageService;
-    }
-
-    /*
-     * Pause the ticket pool.
-     */
-    public void setPaused(boolean paused) {
-        this.isPaused = paused;
-    }
-
+public interface TicketPool {
     /*
-     * Notify all waiting threads that the ticket pool is no longer paused.
+     * Pause the ticket pool. A paused pool rejects releases and purchases without blocking the caller.
      */
-    public void notifyAllWaiting() {
-        synchronized (pauseLock) {
-            pauseLock.notifyAll();
-        }
-    }
+    void setPaused(boolean paused);
 
     /*
      * Stop the ticket pool.
      */
-    public void stopSystem() {
-        isSystemStopped = true;
-        notifyAllWaiting();
-    }
+    void stopSystem();
 
     /*
      * Check if the ticket pool is stopped.
      */
-    public boolean isSystemStopped() {
-        return isSystemStopped;
-    }
+    boolean isSystemStopped();
 
     /*
      * Check if the ticket pool is at maximum capacity.
      */
-    public boolean isAtCapacity() {
-        return tickets.size() >= maxCapacity;
-    }
+    boolean isAtCapacity();
 
     /*
-     * Add tickets to the ticket pool.
+     * Change the maximum capacity while the pool runs, up to getCapacityLimit(). Tickets above a
+     * lowered capacity stay in the pool; vendors wait until it has drained below the new capacity.
      */
-    public void addTickets(List<Ticket> newTickets) {
-        // Lock the pool to prevent multiple threads from adding tickets at the same
-        // time
-        lock.lock();
-        try {
-            while (isPaused) {
-                // If the pool is paused, wait until it is unpaused
-                lock.unlock();
-                synchronized (pauseLock) {
-                    pauseLock.wait();
-                }
-                lock.lock();
-            }
-
-            // Check if there are any tickets left to add
-            if (remainingTotalTickets <= 0) {
-                String message = "No more tickets available to add. Total tickets exhausted.";
-                webSocketMessageService.sendLogMessage(message);
-                LoggingHelper.info(message);
-                return;
-            }
-
-            // Check if the pool is at maximum capacity
-            if (isAtCapacity()) {
-                String message = "Cannot add tickets. Pool is at maximum capacity.";
-                webSocketMessageService.sendLogMessage(message);
-                LoggingHelper.info(message);
-                return;
-            }
-
-            // Add tickets to the pool up to the maximum capacity
-            int ticketsToAdd = Math.min(
-                    Math.min(maxCapacity - tickets.size(), newTickets.size()),
-                    remainingTotalTickets);
-
-            // Check if the pool would exceed the maximum capacity
-            if (ticketsToAdd <= 0) {
-                String message = "Cannot add tickets. Capacity would be exceeded.";
-                webSocketMessageService.sendLogMessage(message);
-                LoggingHelper.info(message);
-                return;
-            }
+    void setMaxCapacity(int maxCapacity);
 
-            // Add the tickets to the pool
-            for (int i = 0; i < ticketsToAdd; i++) {
-                Ticket ticket = newTickets.get(i);
-                // Save the ticket to the database
-                ticketRepository.save(ticket);
-                // Add the ticket to the pool
-                tickets.offer(ticket);
-            }
-            // Update the remaining total tickets
-            remainingTotalTickets -= ticketsToAdd;
-            processWaitingCustomers();
+    int getMaxCapacity();
 
-            String message = ticketsToAdd + " tickets added. Total tickets: " + tickets.size() +
-                    ". Remaining total tickets: " + remainingTotalTickets;
-            webSocketMessageService.sendLogMessage(message);
-            LoggingHelper.info(message);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } finally {
-            lock.unlock();
-        }
-    }
+    /*
+     * Get the largest maximum capacity this pool can be given.
+     */
+    int getCapacityLimit();
 
     /*
-     * Process the waiting customers in the queue.
+     * Release up to count new tickets named by the generator into the pool, bounded by the
+     * capacity and the remaining total tickets. Ids are only taken for the tickets released.
      */
-    private void processWaitingCustomers() {
-        // Serve customers in the waiting queue
-        while (!tickets.isEmpty() && !waitingCustomers.isEmpty()) {
-            // Get all customers from the queue
-            Customer[] customers = waitingCustomers.toArray(new Customer[0]);
-            waitingCustomers.clear();
+    void addTickets(TicketIdGenerator ticketIdGenerator, int count);
 
-            // First serve VIP customers
-            for (Customer customer : customers) {
-                if (customer.isVip() && !tickets.isEmpty()) {
-                    // Poll is used to remove the head of the queue
-                    Ticket ticket = tickets.poll();
-                    if (ticket != null) {
-                        ticket.setStatus(Ticket.TicketStatus.SOLD);
-                        ticketRepository.save(ticket);
-                        String message = customer.getName() + "(VIP) received reserved ticket: "
-                                + ticket.getTicketName();
-                        webSocketMessageService.sendLogMessage(message);
-                        LoggingHelper.info(message);
-                    }
-                } else {
-                    waitingCustomers.offer(customer);
-                }
-            }
+    /*
+     * Remove a ticket from the ticket pool. Returns null when the customer has been queued
+     * or no ticket could be handed out.
+     */
+    Ticket removeTicket(Customer customer) throws InterruptedException;
 
-            // Then serve remaining customers
-            while (!tickets.isEmpty() && !waitingCustomers.isEmpty()) {
-                Customer customer = waitingCustomers.poll();
-                if (customer != null) {
-                    Ticket ticket = tickets.poll();
-                    if (ticket != null) {
-                        ticket.setStatus(Ticket.TicketStatus.SOLD);
-                        ticket.setSoldAt(LocalDateTime.now());
-                        ticketRepository.save(ticket);
-                        String message = customer.getName() + " received reserved ticket: " + ticket.getTicketName();
-                        webSocketMessageService.sendLogMessage(message);
-                        LoggingHelper.info(message);
-                    }
-                }
-            }
-        }
-    }
+    /*
+     * Sell count tickets to the customer at once, or none. Returns an empty list when fewer than
+     * count tickets are in the pool, or a regular customer would jump the waiting queue.
+     */
+    List<Ticket> removeTickets(Customer customer, int count);
 
     /*
-     * Remove a ticket from the ticket pool.
+     * Hold count tickets for the customer until reservedUntil, or none, on the same terms as
+     * removeTickets. Held tickets keep their place in the pool's capacity until the hold ends.
      */
-    public Ticket removeTicket(Customer customer) throws InterruptedException {
-        if (isSystemStopped) {
-            return null;
-        }
+    List<Ticket> reserveTickets(Customer customer, int count, LocalDateTime reservedUntil);
 
-        lock.lock();
-        try {
-            while (isPaused) {
-                // If the pool is paused, wait until it is unpaused
-                lock.unlock();
-                synchronized (pauseLock) {
-                    pauseLock.wait();
-                }
-                lock.lock();
-            }
+    /*
+     * Sell held tickets to the customer that holds them.
+     */
+    void confirmReservation(Customer customer, List<Ticket> tickets);
 
-            if (isSystemStopped) {
-                return null;
-            }
+    /*
+     * Put held tickets back into the pool, serving waiting customers first.
+     */
+    void releaseReservation(List<Ticket> tickets);
 
-            // First check if there are no more tickets available at all
-            if (tickets.isEmpty() && remainingTotalTickets <= 0) {
-                if (!isSystemStopped) {
-                    String message = "All tickets have been sold. System will stop.";
-                    webSocketMessageService.sendLogMessage(message);
-                    LoggingHelper.info(message);
-                    stopSystem();
-                }
-                return null;
-            }
+    /*
+     * Take a waiting customer out of the waiting queue. Returns false if the customer is not
+     * waiting, in which case a ticket may be on its way to them.
+     */
+    boolean cancelWaiting(Customer customer);
 
-            // If no tickets available, add to waiting queue
-            if (tickets.isEmpty()) {
-                waitingCustomers.offer(customer);
-                return null;
-            }
+    /*
+     * Give the pool more tickets to release, such as a new block of a clustered event's inventory.
+     */
+    void addRemainingTotalTickets(int count);
 
-            // Check if there are any VIP customers waiting
-            boolean vipWaiting = false;
-            for (Customer waitingCustomer : waitingCustomers) {
-                if (waitingCustomer.isVip()) {
-                    vipWaiting = true;
-                    break;
-                }
-            }
+    /*
+     * Take back the tickets not released yet, so vendors release no more, and return how many.
+     */
+    int withdrawRemainingTotalTickets();
 
-            // If customer is not VIP and there are VIP customers waiting, add to queue
-            if (!customer.isVip() && (vipWaiting || !waitingCustomers.isEmpty())) {
-                waitingCustomers.offer(customer);
-                return null;
-            }
+    /*
+     * Set whether more tickets may still be added to the remaining total. While they may, running
+     * out of tickets does not end the sale.
+     */
+    void setMoreTicketsPending(boolean pending);
 
-            // If customer is VIP, they get priority
-            if (customer.isVip()) {
-                Ticket ticket = tickets.poll();
-                if (ticket != null) {
-                    ticket.setStatus(Ticket.TicketStatus.SOLD);
-                    ticket.setSoldAt(LocalDateTime.now());
-                    ticketRepository.save(ticket);
-                }
-                return ticket;
-            }
+    boolean isMoreTicketsPending();
 
-            // For non-VIP customers when no VIPs are waiting
-            if (waitingCustomers.isEmpty()) {
-                Ticket ticket = tickets.poll();
-                if (ticket != null) {
-                    ticket.setStatus(Ticket.TicketStatus.SOLD);
-                    ticket.setSoldAt(LocalDateTime.now());
-                    ticketRepository.save(ticket);
-                }
-                return ticket;
-            }
+    /*
+     * Load the state of a pool recovered from the journal into this new pool, without publishing
+     * or journaling it again. Must be called before the pool is used.
+     */
+    void restore(List<String> ticketNames, int remainingTotalTickets, List<Customer> waitingCustomers);
 
-            // Add to waiting queue if none of the above conditions are met
-            waitingCustomers.offer(customer);
-            return null;
-        } finally {
-            lock.unlock();
-        }
-    }
+    /*
+     * Get the pool's counts as of one point in time, without locking.
+     */
+    PoolSnapshot getSnapshot();
 
     /*
      * Get the number of tickets in the ticket pool.
      */
-    public synchronized int getTicketCount() {
-        return tickets.size();
-    }
+    int getTicketCount();
 
     /*
      * Get the number of remaining total tickets.
      */
-    public synchronized int getRemainingTotalTickets() {
-        return remainingTotalTickets;
-    }
+    int getRemainingTotalTickets();
 
     /*
      * Check if there are any available tickets in the ticket pool.
      */
-    public synchronized boolean hasAvailableTickets() {
-        return !isSystemStopped && (remainingTotalTickets > 0 || !tickets.isEmpty());
-    }
+    boolean hasAvailableTickets();
 
     /*
      * Check if the ticket pool is paused.
      */
-    public boolean isPaused() {
-        return isPaused;
-    }
+    boolean isPaused();
+
+    /*
+     * Check if the pool's changes are waiting to be written faster than they are. A backed up pool
+     * rejects releases and purchases like a paused one until they have caught up.
+     */
+    boolean isBackedUp();
 }
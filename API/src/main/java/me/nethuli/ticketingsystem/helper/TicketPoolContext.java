@@ -0,0 +1,36 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+
+/*
+ * TicketPoolContext groups the collaborators every ticket pool engine reports to.
+ */
+@Getter
+@AllArgsConstructor
+public class TicketPoolContext {
+    private final WebSocketMessageService webSocketMessageService;
+    private final TicketPersistenceService ticketPersistenceService;
+    private final PoolEventPublisher poolEventPublisher;
+    private final SalesTimeSeries salesTimeSeries;
+    private final TicketingMetrics metrics;
+    private final PoolJournal journal;
+
+    public TicketPoolContext(WebSocketMessageService webSocketMessageService,
+            TicketPersistenceService ticketPersistenceService, PoolEventPublisher poolEventPublisher,
+            SalesTimeSeries salesTimeSeries, TicketingMetrics metrics) {
+        this(webSocketMessageService, ticketPersistenceService, poolEventPublisher, salesTimeSeries, metrics,
+                PoolJournal.NONE);
+    }
+
+    /*
+     * Same collaborators, reporting to the given journal.
+     */
+    public TicketPoolContext withJournal(PoolJournal journal) {
+        return new TicketPoolContext(webSocketMessageService, ticketPersistenceService, poolEventPublisher,
+                salesTimeSeries, metrics, journal);
+    }
+}
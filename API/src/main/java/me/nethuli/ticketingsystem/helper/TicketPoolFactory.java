@@ -0,0 +1,71 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.config.TicketingPoolProperties;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketJournal;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import org.springframework.stereotype.Component;
+
+/*
+ * TicketPoolFactory creates ticket pools using the engine configured in ticketing.pool.mode.
+ */
+@Component
+public class TicketPoolFactory {
+    private final TicketingPoolProperties poolProperties;
+    private final TicketPoolContext context;
+    private final TicketJournal ticketJournal;
+
+    public TicketPoolFactory(TicketingPoolProperties poolProperties, WebSocketMessageService webSocketMessageService,
+            TicketPersistenceService ticketPersistenceService, PoolEventPublisher poolEventPublisher,
+            SalesTimeSeries salesTimeSeries, TicketingMetrics metrics, TicketJournal ticketJournal) {
+        this.poolProperties = poolProperties;
+        this.ticketJournal = ticketJournal;
+        this.context = new TicketPoolContext(webSocketMessageService, ticketPersistenceService, poolEventPublisher,
+                salesTimeSeries, metrics);
+    }
+
+    /*
+     * Create a ticket pool for the event with the configured engine.
+     */
+    public TicketPool create(String eventId, int maxCapacity, int totalTickets) {
+        return create(poolProperties.getMode(), eventId, maxCapacity, totalTickets);
+    }
+
+    /*
+     * Create a ticket pool for the event with the given engine, journaling its operations.
+     */
+    public TicketPool create(TicketPoolMode mode, String eventId, int maxCapacity, int totalTickets) {
+        return create(mode, maxCapacity, totalTickets, context.withJournal(ticketJournal.forEvent(eventId)));
+    }
+
+    /*
+     * Create a ticket pool with the given engine, reporting to the given collaborators.
+     */
+    public TicketPool create(TicketPoolMode mode, int maxCapacity, int totalTickets, TicketPoolContext poolContext) {
+        TicketPoolMode engine = engineFor(mode, maxCapacity);
+        if (engine != mode) {
+            LoggingHelper.warn("A " + mode + " pool holds at most " + LockFreeTicketPool.MAX_CAPACITY
+                    + " tickets, using " + engine + " for a capacity of " + maxCapacity);
+        }
+        LoggingHelper.info("Creating " + engine + " ticket pool");
+        return switch (engine) {
+            case FAIR_LOCK -> new FairLockTicketPool(maxCapacity, totalTickets, poolContext);
+            // The ring is sized for capacity raises while running, within what the packed counts can hold
+            case LOCK_FREE -> new LockFreeTicketPool(maxCapacity,
+                    Math.min(poolProperties.getMaxCapacityLimit(), LockFreeTicketPool.MAX_CAPACITY), totalTickets,
+                    poolContext);
+        };
+    }
+
+    /*
+     * Get the engine a pool of the given capacity is created with: a capacity the lock-free ring
+     * cannot hold gets a fair-lock pool, which has no limit.
+     */
+    public TicketPoolMode engineFor(TicketPoolMode mode, int maxCapacity) {
+        if (mode == TicketPoolMode.LOCK_FREE && maxCapacity > LockFreeTicketPool.MAX_CAPACITY) {
+            return TicketPoolMode.FAIR_LOCK;
+        }
+        return mode;
+    }
+}
@@ -0,0 +1,11 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * TicketPoolMode selects the engine behind the TicketPool interface.
+ */
+public enum TicketPoolMode {
+    // Single fair ReentrantLock around every pool operation (original engine)
+    FAIR_LOCK,
+    // CAS-based counters plus a bounded MPMC ring of ticket slots
+    LOCK_FREE
+}
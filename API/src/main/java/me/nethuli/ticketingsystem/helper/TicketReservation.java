@@ -0,0 +1,64 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.Getter;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * TicketReservation is one hold on a set of tickets in an event's pool. It is ordered by its
+ * deadline so the sweeper can wait on a DelayQueue instead of scanning for expired holds.
+ * Exactly one of confirm, cancel and expire gets to end a hold.
+ */
+@Getter
+public class TicketReservation implements Delayed {
+    private final String id = UUID.randomUUID().toString();
+    private final String eventId;
+    private final TicketPool ticketPool;
+    private final Customer customer;
+    private final List<Ticket> tickets;
+    private final LocalDateTime expiresAt;
+    private final long deadlineNanos;
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+
+    public TicketReservation(String eventId, TicketPool ticketPool, Customer customer, List<Ticket> tickets,
+                             LocalDateTime expiresAt, long deadlineNanos) {
+        this.eventId = eventId;
+        this.ticketPool = ticketPool;
+        this.customer = customer;
+        this.tickets = tickets;
+        this.expiresAt = expiresAt;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /*
+     * Claim the hold for ending it. Returns false if it has already been confirmed, cancelled
+     * or expired.
+     */
+    public boolean end() {
+        return ended.compareAndSet(false, true);
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof TicketReservation reservation) {
+            return Long.compare(deadlineNanos - reservation.deadlineNanos, 0);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
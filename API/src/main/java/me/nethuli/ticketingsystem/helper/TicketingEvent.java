@@ -0,0 +1,31 @@
+package me.nethuli.ticketingsystem.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * TicketingEvent holds everything one event sells with: its configuration, its own ticket pool
+ * and the vendors and customers working on it. Lifecycle changes are made while holding the
+ * event's monitor, so different events never wait for each other.
+ */
+@Getter
+@Setter
+public class TicketingEvent {
+    private final String id;
+    private TicketConfiguration config;
+    private volatile TicketPool ticketPool;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    // Scheduler shard the event's participants tick on while it is running
+    private int shard = -1;
+    private final Map<String, ParticipantHandle> vendorThreads = new ConcurrentHashMap<>();
+    private final Map<String, ParticipantHandle> customerThreads = new ConcurrentHashMap<>();
+
+    public TicketingEvent(String id, TicketConfiguration config) {
+        this.id = id;
+        this.config = config;
+    }
+}
@@ -0,0 +1,206 @@
+package me.nethuli.ticketingsystem.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * TicketingMetrics owns the Micrometer meters for the pool, the waiting queue, persistence and
+ * broadcasting. Meters are created once so the hot path only records into them; everything is
+ * exported on /actuator/prometheus.
+ */
+@Component
+public class TicketingMetrics {
+    private final MeterRegistry registry;
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final Counter casRetries;
+    private final Timer purchaseLatency;
+    private final Counter ticketsReleased;
+    private final Counter ticketsSold;
+    private final Timer persistenceSave;
+    private final Counter persistenceFailures;
+    private final Counter persistenceRejections;
+    private final Counter ticketsHeld;
+    private final Counter holdsConfirmed;
+    private final Counter holdsExpired;
+    private final Counter holdsCancelled;
+    private final Counter requestsAdmitted;
+    private final Counter requestsRejected;
+    // Waiting queues of all running pools, one per event
+    private final Set<WaitingCustomerQueue> waitingQueues = ConcurrentHashMap.newKeySet();
+
+    public TicketingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lockWait = Timer.builder("ticketing.pool.lock.wait")
+                .description("Time spent waiting for the fair pool lock")
+                .register(registry);
+        this.lockHold = Timer.builder("ticketing.pool.lock.hold")
+                .description("Time the fair pool lock is held per operation")
+                .register(registry);
+        this.casRetries = Counter.builder("ticketing.pool.cas.retries")
+                .description("Failed inventory CAS attempts in the lock-free pool")
+                .register(registry);
+        this.purchaseLatency = Timer.builder("ticketing.purchase.latency")
+                .description("Time from a customer's purchase request until a ticket is sold to them")
+                .register(registry);
+        this.ticketsReleased = Counter.builder("ticketing.tickets.released").register(registry);
+        this.ticketsSold = Counter.builder("ticketing.tickets.sold").register(registry);
+        this.persistenceSave = Timer.builder("ticketing.persistence.save")
+                .description("Latency of one batched ticket saveAll call")
+                .register(registry);
+        this.persistenceFailures = Counter.builder("ticketing.persistence.failures")
+                .description("Ticket batch writes that failed and were retried")
+                .register(registry);
+        this.persistenceRejections = Counter.builder("ticketing.persistence.rejected")
+                .description("Ticket changes the database rejected, which were dropped")
+                .register(registry);
+        // Counted in tickets, so held = confirmed + expired + cancelled + still held
+        this.ticketsHeld = reservationCounter("held");
+        this.holdsConfirmed = reservationCounter("confirmed");
+        this.holdsExpired = reservationCounter("expired");
+        this.holdsCancelled = reservationCounter("cancelled");
+        this.requestsAdmitted = admissionCounter("admitted");
+        this.requestsRejected = admissionCounter("rejected");
+        // The gauges observe the queue set, not this instance, which is not fully built yet
+        Gauge.builder("ticketing.queue.depth", waitingQueues, queues -> waitingCount(queues, true))
+                .tag("tier", "vip")
+                .register(registry);
+        Gauge.builder("ticketing.queue.depth", waitingQueues, queues -> waitingCount(queues, false))
+                .tag("tier", "regular")
+                .register(registry);
+    }
+
+    private Counter reservationCounter(String outcome) {
+        return Counter.builder("ticketing.reservations")
+                .description("Tickets put on hold and how their holds ended")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter admissionCounter(String outcome) {
+        return Counter.builder("ticketing.admission.requests")
+                .description("Registration and purchase requests let through or turned away by admission control")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static double waitingCount(Set<WaitingCustomerQueue> waitingQueues, boolean vip) {
+        int count = 0;
+        for (WaitingCustomerQueue queue : waitingQueues) {
+            count += vip ? queue.getVipCount() : queue.getRegularCount();
+        }
+        return count;
+    }
+
+    /*
+     * Include this queue in the waiting queue depth until it is unbound.
+     */
+    public void bindWaitingQueue(WaitingCustomerQueue waitingCustomers) {
+        waitingQueues.add(waitingCustomers);
+    }
+
+    public void unbindWaitingQueue(WaitingCustomerQueue waitingCustomers) {
+        waitingQueues.remove(waitingCustomers);
+    }
+
+    /*
+     * Report the size of the write-behind queue.
+     */
+    public void bindPersistenceQueue(Collection<?> pendingTickets) {
+        Gauge.builder("ticketing.persistence.queue.depth", pendingTickets, Collection::size).register(registry);
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCasRetry() {
+        casRetries.increment();
+    }
+
+    public void recordPurchase(long nanos) {
+        purchaseLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRelease() {
+        ticketsReleased.increment();
+    }
+
+    public void recordSale() {
+        ticketsSold.increment();
+    }
+
+    public void recordSales(int count) {
+        ticketsSold.increment(count);
+    }
+
+    public void recordAdmission(boolean admitted) {
+        (admitted ? requestsAdmitted : requestsRejected).increment();
+    }
+
+    public long getAdmittedCount() {
+        return (long) requestsAdmitted.count();
+    }
+
+    public long getRejectedCount() {
+        return (long) requestsRejected.count();
+    }
+
+    public void recordHeld(int tickets) {
+        ticketsHeld.increment(tickets);
+    }
+
+    public void recordHoldConfirmed(int tickets) {
+        holdsConfirmed.increment(tickets);
+    }
+
+    public void recordHoldExpired(int tickets) {
+        holdsExpired.increment(tickets);
+    }
+
+    public void recordHoldCancelled(int tickets) {
+        holdsCancelled.increment(tickets);
+    }
+
+    /*
+     * Report the number of holds that have neither been confirmed nor ended.
+     */
+    public void bindActiveHolds(Map<?, ?> holds) {
+        Gauge.builder("ticketing.reservations.active", holds, Map::size).register(registry);
+    }
+
+    public Timer getPersistenceSaveTimer() {
+        return persistenceSave;
+    }
+
+    public void recordPersistenceFailure() {
+        persistenceFailures.increment();
+    }
+
+    public void recordPersistenceRejection() {
+        persistenceRejections.increment();
+    }
+
+    /*
+     * Timer for sending one batch to the given WebSocket topic.
+     */
+    public Timer broadcastSendTimer(String topic) {
+        return Timer.builder("ticketing.broadcast.send")
+                .description("Latency of handing one batched frame to the message broker")
+                .tag("topic", topic)
+                .register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package me.nethuli.ticketingsystem.helper;
+
+/*
+ * TokenBucket allows ratePerSecond requests per second on average and bursts of up to burst
+ * requests. Tokens are refilled lazily from the time elapsed since the last request.
+ */
+public class TokenBucket {
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = nowNanos;
+    }
+
+    /*
+     * Take one token. Returns 0 if one was taken, or the nanoseconds until one will be available.
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) ((1 - tokens) / tokensPerNano));
+    }
+
+    /*
+     * Check if the bucket has refilled completely, so dropping it changes nothing for its client.
+     */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= burst;
+    }
+
+    private void refill(long nowNanos) {
+        tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+    }
+}
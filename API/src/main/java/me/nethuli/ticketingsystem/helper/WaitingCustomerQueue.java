@@ -0,0 +1,94 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.Customer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * WaitingCustomerQueue is a two-tier FIFO of customers waiting for a ticket.
+ * VIP customers are always served before regular customers, and customers within a tier are
+ * served in arrival order. Every operation but remove is O(1), and all are safe without an
+ * external lock.
+ */
+public class WaitingCustomerQueue {
+    private final ConcurrentLinkedQueue<Customer> vipCustomers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Customer> regularCustomers = new ConcurrentLinkedQueue<>();
+    // A customer keeps asking while waiting, but only holds one place in the queue
+    private final Set<Customer> waiting = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger vipCount = new AtomicInteger();
+    private final AtomicInteger regularCount = new AtomicInteger();
+
+    /*
+     * Add the customer to the back of its tier. Returns false if the customer is already waiting.
+     */
+    public boolean offer(Customer customer) {
+        if (!waiting.add(customer)) {
+            return false;
+        }
+        if (customer.isVip()) {
+            vipCustomers.offer(customer);
+            vipCount.incrementAndGet();
+        } else {
+            regularCustomers.offer(customer);
+            regularCount.incrementAndGet();
+        }
+        return true;
+    }
+
+    /*
+     * Remove the next customer to serve: the oldest VIP, otherwise the oldest regular customer.
+     */
+    public Customer poll() {
+        Customer customer = vipCustomers.poll();
+        if (customer != null) {
+            vipCount.decrementAndGet();
+        } else {
+            customer = regularCustomers.poll();
+            if (customer == null) {
+                return null;
+            }
+            regularCount.decrementAndGet();
+        }
+        waiting.remove(customer);
+        return customer;
+    }
+
+    /*
+     * Take the customer out of the queue, for a customer that stops waiting. Returns false if the
+     * customer is not waiting, or has just been polled to be served.
+     */
+    public boolean remove(Customer customer) {
+        if (customer.isVip()) {
+            if (!vipCustomers.remove(customer)) {
+                return false;
+            }
+            vipCount.decrementAndGet();
+        } else {
+            if (!regularCustomers.remove(customer)) {
+                return false;
+            }
+            regularCount.decrementAndGet();
+        }
+        waiting.remove(customer);
+        return true;
+    }
+
+    public boolean isVipWaiting() {
+        return !vipCustomers.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return vipCustomers.isEmpty() && regularCustomers.isEmpty();
+    }
+
+    public int getVipCount() {
+        return vipCount.get();
+    }
+
+    public int getRegularCount() {
+        return regularCount.get();
+    }
+}
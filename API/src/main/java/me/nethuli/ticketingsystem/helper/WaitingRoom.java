@@ -0,0 +1,81 @@
+package me.nethuli.ticketingsystem.helper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * WaitingRoom is the virtual queue of customers waiting to register with a full event. Each
+ * customer gets a number on arrival; a customer is let in once its position is within the
+ * number of free places. Customers keep their number by retrying, and lose it when they have
+ * not retried for the TTL.
+ */
+public class WaitingRoom {
+    // Returned by enter() when the customer may register now
+    public static final int ADMITTED = 0;
+    // Returned by enter() when the room is full
+    public static final int FULL = -1;
+
+    private final int capacity;
+    private final long ttlNanos;
+    // Customer name to its entry, in arrival order
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long lastNumber;
+
+    public WaitingRoom(int capacity, long ttlNanos) {
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+    }
+
+    /*
+     * Let the customer in if it is within the first freePlaces, otherwise queue it or refresh its
+     * place. Returns ADMITTED, FULL or the customer's 1-based position.
+     */
+    public synchronized int enter(String customerName, int freePlaces, long nowNanos) {
+        dropExpired(nowNanos);
+        Entry entry = entries.get(customerName);
+        if (entry == null) {
+            if (entries.isEmpty() && freePlaces > 0) {
+                return ADMITTED;
+            }
+            if (entries.size() >= capacity) {
+                return FULL;
+            }
+            entry = new Entry(++lastNumber);
+            entries.put(customerName, entry);
+        }
+        entry.lastSeenAt = nowNanos;
+
+        // Numbers of customers that left early leave gaps, so the position is an upper bound
+        int position = (int) (entry.number - entries.values().iterator().next().number + 1);
+        if (position <= freePlaces) {
+            entries.remove(customerName);
+            return ADMITTED;
+        }
+        return position;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /*
+     * Drop customers at the head that stopped retrying. Expired customers further back are
+     * dropped once they reach the head.
+     */
+    private void dropExpired(long nowNanos) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && nowNanos - iterator.next().lastSeenAt > ttlNanos) {
+            iterator.remove();
+        }
+    }
+
+    private static class Entry {
+        private final long number;
+        private long lastSeenAt;
+
+        Entry(long number) {
+            this.number = number;
+        }
+    }
+}
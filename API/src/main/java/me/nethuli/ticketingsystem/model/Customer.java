@@ -1,12 +1,17 @@
 package me.nethuli.ticketingsystem.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.TickParticipant;
 import me.nethuli.ticketingsystem.helper.TicketPool;
 import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
 /*
  * Customer class represents a customer who purchases tickets from the ticket pool.
  */
@@ -14,7 +19,7 @@ import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 @Table(name = "customers")
 @Getter
 @NoArgsConstructor(force = true)
-public class Customer implements Runnable, Comparable<Customer> {
+public class Customer implements TickParticipant {
     @Id //pk
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,12 +34,26 @@ public class Customer implements Runnable, Comparable<Customer> {
     @Transient
     private final TicketPool ticketPool;
 
+    // Changed while running when the event is reconfigured
     @Column(name = "retrieval_rate")
-    private int retrievalRate;
+    private volatile int retrievalRate;
 
     @Transient
     private final WebSocketMessageService webSocketMessageService;
 
+    @Transient
+    private volatile long completedTicks;
+
+    // System.nanoTime() of the oldest purchase request not yet served, 0 when none is pending
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong purchaseRequestedAt = new AtomicLong();
+
+    // Completed with the ticket sold to a customer that waits for one over HTTP, null otherwise
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<Ticket> soldTicket;
+
     public Customer(String name, boolean isVip, Integer noOfTickets, TicketPool ticketPool, int retrievalRate,
             WebSocketMessageService webSocketMessageService) {
         this.name = name;
@@ -45,64 +64,104 @@ public class Customer implements Runnable, Comparable<Customer> {
         this.webSocketMessageService = webSocketMessageService;
     }
 
-    // Compare customers based on their VIP status
+    // Purchase one ticket per tick
     @Override
-    public int compareTo(Customer other) {
-        // VIP customers have higher priority
-        if (this.isVip && !other.isVip)
-            return -1;
-        if (!this.isVip && other.isVip)
-            return 1;
-        return 0;
+    public long tick() throws InterruptedException {
+        if (ticketPool.isSystemStopped()) {
+            String message = name + " stopped: System has been shut down.";
+            webSocketMessageService.sendLogMessage(message);
+            LoggingHelper.info(message);
+            return STOP;
+        }
+
+        if (ticketPool.isPaused() || ticketPool.isBackedUp()) {
+            return 100;
+        }
+        Ticket ticket = ticketPool.removeTicket(this);
+        // The sale itself is published as a TICKET_SOLD event, the text line is only for the log feed
+        if (ticket != null && webSocketMessageService.isLogEnabled()) {
+            String message = String.format(
+                    "%s%s purchased ticket: %s (Tickets in pool: %d, Total remaining: %d)",
+                    name,
+                    isVip ? "(VIP)" : "",
+                    ticket.getTicketName(),
+                    ticketPool.getTicketCount(),
+                    ticketPool.getRemainingTotalTickets());
+            webSocketMessageService.sendLogMessage(message);
+            LoggingHelper.info(message);
+        }
+        completedTicks++;
+        return (long) (1000 / getConfiguredTickRate());
     }
 
-    // Run method to purchase tickets
-    @Override
-    public void run() {
-        try {
-            // Purchase tickets until the thread is interrupted
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    if (ticketPool.isSystemStopped()) {
-                        String message = name + " stopped: System has been shut down.";
-                        webSocketMessageService.sendLogMessage(message);
-                        LoggingHelper.info(message);
-                        break;
-                    }
-
-                    if (ticketPool.isPaused()) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    Ticket ticket = ticketPool.removeTicket(this);
-                    if (ticket != null) {
-                        String message = String.format(
-                                "%s%s purchased ticket: %s (Tickets in pool: %d, Total remaining: %d)",
-                                name,
-                                isVip ? "(VIP)" : "",
-                                ticket.getTicketName(),
-                                ticketPool.getTicketCount(),
-                                ticketPool.getRemainingTotalTickets());
-                        webSocketMessageService.sendLogMessage(message);
-                        LoggingHelper.info(message);
-                    }
-                    if (noOfTickets != null) {
-                        retrievalRate = noOfTickets;
-                    }
-
-                    Thread.sleep(1000 / retrievalRate);
-                } catch (InterruptedException e) {
-                    String message = name + " stopped purchasing tickets.";
-                    webSocketMessageService.sendLogMessage(message);
-                    LoggingHelper.error(message);
-                    throw e;
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /*
+     * Start timing a purchase request, unless an earlier request is still waiting for a ticket.
+     */
+    public void startPurchase(long nanoTime) {
+        purchaseRequestedAt.compareAndSet(0, nanoTime);
+    }
+
+    /*
+     * Finish the pending purchase request and return when it started, or 0 if none was pending.
+     */
+    public long completePurchase() {
+        return purchaseRequestedAt.getAndSet(0);
+    }
+
+    /*
+     * Return a future completed with the next ticket sold to this customer.
+     */
+    public CompletableFuture<Ticket> awaitTicket() {
+        CompletableFuture<Ticket> future = new CompletableFuture<>();
+        soldTicket = future;
+        return future;
+    }
+
+    /*
+     * Called by the pool when a ticket has been sold to this customer.
+     */
+    public void ticketSold(Ticket ticket) {
+        CompletableFuture<Ticket> future = soldTicket;
+        if (future != null) {
+            future.complete(ticket);
+        }
+    }
+
+    /*
+     * Called by the pool when it stops while this customer is waiting.
+     */
+    public void salesEnded() {
+        CompletableFuture<Ticket> future = soldTicket;
+        if (future != null) {
+            future.completeExceptionally(new IllegalStateException("Ticket sales have ended."));
         }
     }
 
+    /*
+     * Change the retrieval rate; the participant handle has to be rescheduled to follow it.
+     */
+    public void setRetrievalRate(int retrievalRate) {
+        this.retrievalRate = retrievalRate;
+    }
+
+    @Override
+    public String getParticipantName() {
+        return name;
+    }
+
+    // The requested number of tickets overrides the retrieval rate
+    @Override
+    public double getConfiguredTickRate() {
+        return Math.max(1, noOfTickets != null ? noOfTickets : retrievalRate);
+    }
+
+    @Override
+    public void onStopped() {
+        String message = name + " stopped purchasing tickets.";
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.error(message);
+    }
+
     public boolean isVip() {
         return isVip;
     }
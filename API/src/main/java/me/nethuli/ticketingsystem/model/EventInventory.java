@@ -0,0 +1,36 @@
+package me.nethuli.ticketingsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * EventInventory is the shared inventory of a clustered event: its total tickets and how many of
+ * them have been leased to instances, either still leased or already released from a lease.
+ */
+@Entity
+@Table(name = "event_inventory")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventInventory {
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "total_tickets")
+    private int totalTickets;
+
+    @Column(name = "allocated_tickets")
+    private int allocatedTickets;
+
+    public EventInventory(String eventId, int totalTickets) {
+        this.eventId = eventId;
+        this.totalTickets = totalTickets;
+    }
+
+    public int getUnallocatedTickets() {
+        return totalTickets - allocatedTickets;
+    }
+}
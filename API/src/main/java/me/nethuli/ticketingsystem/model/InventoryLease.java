@@ -0,0 +1,49 @@
+package me.nethuli.ticketingsystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+ * InventoryLease is the part of a clustered event's inventory one instance sells from: every
+ * block it has leased since it started the event, and how many of those tickets it had released
+ * as of its last heartbeat.
+ */
+@Entity
+@Table(name = "inventory_leases", uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "node_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventoryLease {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "node_id")
+    private int nodeId;
+
+    @Column(name = "leased_tickets")
+    private int leasedTickets;
+
+    @Column(name = "released_tickets")
+    private int releasedTickets;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    public InventoryLease(String eventId, int nodeId) {
+        this.eventId = eventId;
+        this.nodeId = nodeId;
+    }
+
+    // Leased tickets the instance has not released yet
+    public int getUnreleasedTickets() {
+        return Math.max(leasedTickets - releasedTickets, 0);
+    }
+}
@@ -0,0 +1,66 @@
+package me.nethuli.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+
+import java.util.List;
+
+/*
+ * JournalRecord is one operation of an event, appended to the pool journal. Fields a type does
+ * not use are null, false or 0. name is the ticket, vendor or customer the record is about.
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+    private final JournalRecordType type;
+    private final String eventId;
+    private final String name;
+    private final boolean vip;
+    // Vendor release rate or customer retrieval rate
+    private final int rate;
+    // Customer's number of tickets, null if not given
+    private final Integer quantity;
+    private final TicketConfiguration config;
+    private final List<String> ticketNames;
+
+    public static JournalRecord eventConfigured(String eventId, TicketConfiguration config) {
+        return new JournalRecord(JournalRecordType.EVENT_CONFIGURED, eventId, null, false, 0, null, config, null);
+    }
+
+    public static JournalRecord eventStarted(String eventId, TicketConfiguration config) {
+        return new JournalRecord(JournalRecordType.EVENT_STARTED, eventId, null, false, 0, null, config, null);
+    }
+
+    public static JournalRecord eventStopped(String eventId) {
+        return new JournalRecord(JournalRecordType.EVENT_STOPPED, eventId, null, false, 0, null, null, null);
+    }
+
+    public static JournalRecord eventDeleted(String eventId) {
+        return new JournalRecord(JournalRecordType.EVENT_DELETED, eventId, null, false, 0, null, null, null);
+    }
+
+    public static JournalRecord vendorAdded(String eventId, String vendorName, int releaseRate) {
+        return new JournalRecord(JournalRecordType.VENDOR_ADDED, eventId, vendorName, false, releaseRate, null, null,
+                null);
+    }
+
+    public static JournalRecord customerAdded(String eventId, String customerName, boolean vip,
+            Integer numberOfTickets, int retrievalRate) {
+        return new JournalRecord(JournalRecordType.CUSTOMER_ADDED, eventId, customerName, vip, retrievalRate,
+                numberOfTickets, null, null);
+    }
+
+    public static JournalRecord customerQueued(String eventId, String customerName, boolean vip) {
+        return new JournalRecord(JournalRecordType.CUSTOMER_QUEUED, eventId, customerName, vip, 0, null, null, null);
+    }
+
+    public static JournalRecord ticketReleased(String eventId, String ticketName) {
+        return new JournalRecord(JournalRecordType.TICKET_RELEASED, eventId, ticketName, false, 0, null, null, null);
+    }
+
+    public static JournalRecord ticketsSold(String eventId, String customerName, List<String> ticketNames) {
+        return new JournalRecord(JournalRecordType.TICKETS_SOLD, eventId, customerName, false, 0, null, null,
+                ticketNames);
+    }
+}
@@ -0,0 +1,17 @@
+package me.nethuli.ticketingsystem.model;
+
+/*
+ * JournalRecordType lists the operations written to the pool journal.
+ * The ordinal is the type byte on disk, so new types must be appended.
+ */
+public enum JournalRecordType {
+    EVENT_CONFIGURED,
+    EVENT_STARTED,
+    EVENT_STOPPED,
+    EVENT_DELETED,
+    VENDOR_ADDED,
+    CUSTOMER_ADDED,
+    CUSTOMER_QUEUED,
+    TICKET_RELEASED,
+    TICKETS_SOLD
+}
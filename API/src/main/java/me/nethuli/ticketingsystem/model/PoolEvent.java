@@ -0,0 +1,61 @@
+package me.nethuli.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * PoolEvent is a typed ticket pool event published on /topic/events.
+ * Fields that do not apply to an event type are null (names) or 0 (counters).
+ */
+@Getter
+@AllArgsConstructor
+public class PoolEvent {
+    private final PoolEventType type;
+    // Epoch milliseconds
+    private final long timestamp;
+    private final String ticketName;
+    private final String customerName;
+    private final boolean vip;
+    private final int ticketCount;
+    private final int remainingTotalTickets;
+
+    public static PoolEvent ticketReleased(String ticketName, int ticketCount, int remainingTotalTickets) {
+        return new PoolEvent(PoolEventType.TICKET_RELEASED, System.currentTimeMillis(), ticketName, null, false,
+                ticketCount, remainingTotalTickets);
+    }
+
+    public static PoolEvent ticketSold(String ticketName, String customerName, boolean vip) {
+        return new PoolEvent(PoolEventType.TICKET_SOLD, System.currentTimeMillis(), ticketName, customerName, vip,
+                0, 0);
+    }
+
+    public static PoolEvent ticketReserved(String ticketName, String customerName, boolean vip) {
+        return new PoolEvent(PoolEventType.TICKET_RESERVED, System.currentTimeMillis(), ticketName, customerName, vip,
+                0, 0);
+    }
+
+    public static PoolEvent reservationReleased(String ticketName) {
+        return new PoolEvent(PoolEventType.RESERVATION_RELEASED, System.currentTimeMillis(), ticketName, null, false,
+                0, 0);
+    }
+
+    public static PoolEvent customerQueued(String customerName, boolean vip) {
+        return new PoolEvent(PoolEventType.CUSTOMER_QUEUED, System.currentTimeMillis(), null, customerName, vip,
+                0, 0);
+    }
+
+    public static PoolEvent poolFull(int ticketCount, int remainingTotalTickets) {
+        return new PoolEvent(PoolEventType.POOL_FULL, System.currentTimeMillis(), null, null, false,
+                ticketCount, remainingTotalTickets);
+    }
+
+    // ticketCount carries the new maximum capacity
+    public static PoolEvent configChanged(int maxTicketCapacity, int remainingTotalTickets) {
+        return new PoolEvent(PoolEventType.CONFIG_CHANGED, System.currentTimeMillis(), null, null, false,
+                maxTicketCapacity, remainingTotalTickets);
+    }
+
+    public static PoolEvent soldOut() {
+        return new PoolEvent(PoolEventType.SOLD_OUT, System.currentTimeMillis(), null, null, false, 0, 0);
+    }
+}
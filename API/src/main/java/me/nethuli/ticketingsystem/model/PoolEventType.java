@@ -0,0 +1,16 @@
+package me.nethuli.ticketingsystem.model;
+
+/*
+ * PoolEventType lists the structured events published on /topic/events.
+ * The ordinal is the type byte on the wire, so new types must be appended.
+ */
+public enum PoolEventType {
+    TICKET_RELEASED,
+    TICKET_SOLD,
+    CUSTOMER_QUEUED,
+    POOL_FULL,
+    SOLD_OUT,
+    TICKET_RESERVED,
+    RESERVATION_RELEASED,
+    CONFIG_CHANGED
+}
@@ -11,12 +11,15 @@ import java.time.LocalDateTime;
  * Ticket class represents a ticket that is available for purchase.
  */
 @Entity
-@Table(name = "tickets")
+// sold_at is indexed for sold-time queries and exports
+@Table(name = "tickets", indexes = @Index(name = "idx_tickets_sold_at", columnList = "sold_at"))
 @Getter
 @NoArgsConstructor
 public class Ticket {
+    // Sequence ids (allocated in blocks) let Hibernate batch the inserts, IDENTITY would not
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -33,8 +36,18 @@ public class Ticket {
     @Column(name = "sold_at")
     private LocalDateTime soldAt;
 
+    // End of the hold while RESERVED, null otherwise
+    @Setter
+    @Column(name = "reserved_until")
+    private LocalDateTime reservedUntil;
+
+    // Set on tickets rebuilt from a pool's inventory, whose row was inserted when they were released
+    @Transient
+    private boolean stored;
+
     public enum TicketStatus {
         AVAILABLE,
+        RESERVED,
         SOLD
     }
 
@@ -44,4 +57,31 @@ public class Ticket {
         this.createdAt = LocalDateTime.now();
     }
 
+    /*
+     * Rebuild an available ticket that is already saved. Changes to it are written to its row by
+     * name instead of inserting it again.
+     */
+    public static Ticket stored(String ticketName) {
+        Ticket ticket = new Ticket();
+        ticket.ticketName = ticketName;
+        ticket.status = TicketStatus.AVAILABLE;
+        ticket.stored = true;
+        return ticket;
+    }
+
+    /*
+     * Called once the ticket's row has been inserted, so a later write updates it by name.
+     */
+    public void markStored() {
+        stored = true;
+    }
+
+    /*
+     * Called when the insert of the ticket was rolled back, so writing it again inserts it anew
+     * instead of merging into a row that does not exist.
+     */
+    public void clearUnsavedId() {
+        id = null;
+    }
+
 }
@@ -1,101 +1,116 @@
 package me.nethuli.ticketingsystem.model;
 
 import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.TickParticipant;
+import me.nethuli.ticketingsystem.helper.TicketIdGenerator;
 import me.nethuli.ticketingsystem.helper.TicketPool;
 import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
-
 /**
  * Vendor class that represents a ticket vendor.
  * Vendors release tickets to the ticket pool at a specified rate.
  */
-public class Vendor implements Runnable {
+public class Vendor implements TickParticipant {
     private final TicketPool ticketPool;
-    private final int releaseRate;
+    // Changed while running when the event is reconfigured, picked up by the next release
+    private volatile int releaseRate;
     private final String vendorName;
     private final WebSocketMessageService webSocketMessageService;
+    private final TicketIdGenerator ticketIdGenerator;
     private boolean isWaitingForCapacity = false;
+    private volatile long completedTicks;
 
     public Vendor(TicketPool ticketPool, int releaseRate, String vendorName,
-            WebSocketMessageService webSocketMessageService) {
+            WebSocketMessageService webSocketMessageService, TicketIdGenerator ticketIdGenerator) {
         this.ticketPool = ticketPool;
         this.releaseRate = releaseRate;
         this.vendorName = vendorName;
         this.webSocketMessageService = webSocketMessageService;
+        this.ticketIdGenerator = ticketIdGenerator;
     }
 
     /**
-     * Release tickets to the ticket pool.
-     * 
-     * @param count Number of tickets to release
-     * @return List of released tickets
+     * Release one round of tickets to the pool.
+     *
+     * @return delay in milliseconds before the next release, or STOP
      */
-    private List<Ticket> releaseTickets(int count) {
-        List<Ticket> newTickets = new ArrayList<>();
-
-        for (int i = 0; i < count; i++) {
-            String ticketId = vendorName + "-TKT-" + UUID.randomUUID().toString().substring(0, 8).replaceAll("-", "");
-            newTickets.add(new Ticket(ticketId));
+    @Override
+    public long tick() {
+        int remainingTickets = ticketPool.getRemainingTotalTickets();
+        // A clustered pool between two leased blocks
+        if (remainingTickets <= 0 && ticketPool.isMoreTicketsPending()) {
+            completedTicks++;
+            return 100;
+        }
+        if (remainingTickets <= 0) {
+            String message = vendorName + " stopping: No more tickets available";
+            webSocketMessageService.sendLogMessage(message);
+            LoggingHelper.info(message);
+            return STOP;
         }
 
-        String message = vendorName + " released " + newTickets.size() + " tickets";
-        webSocketMessageService.sendLogMessage(message);
-        LoggingHelper.info(message);
-        return newTickets;
-    }
+        if (ticketPool.isPaused() || ticketPool.isBackedUp()) {
+            return 100;
+        }
 
-    @Override
-    public void run() {
-        try {
-            while (!Thread.currentThread().isInterrupted()) {
-                int remainingTickets = ticketPool.getRemainingTotalTickets();
-                if (remainingTickets <= 0) {
-                    String message = vendorName + " stopping: No more tickets available";
-                    webSocketMessageService.sendLogMessage(message);
-                    LoggingHelper.info(message);
-                    break;
-                }
-
-                if (ticketPool.isPaused()) {
-                    Thread.sleep(100);
-                    continue;
-                }
-
-                // Check if pool is at capacity before releasing tickets
-                if (ticketPool.isAtCapacity()) {
-                    // Wait until some capacity is available
-                    if (!isWaitingForCapacity) {
-                        String message = vendorName + " waiting: Pool is at maximum capacity";
-                        webSocketMessageService.sendLogMessage(message);
-                        LoggingHelper.info(message);
-                        isWaitingForCapacity = true;
-                    }
-                    Thread.sleep(1000);
-                    continue;
-                }
-
-                // Find number of tickets to release
-                int ticketsToRelease = Math.min(releaseRate, remainingTickets);
-
-                // Release tickets
-                List<Ticket> newTickets = releaseTickets(ticketsToRelease);
-
-                // Add tickets to pool
-                if (!newTickets.isEmpty()) {
-                    ticketPool.addTickets(newTickets);
-                }
-
-                Thread.sleep(1000);
+        // Check if pool is at capacity before releasing tickets
+        if (ticketPool.isAtCapacity()) {
+            // Wait until some capacity is available
+            if (!isWaitingForCapacity) {
+                String message = vendorName + " waiting: Pool is at maximum capacity";
+                webSocketMessageService.sendLogMessage(message);
+                LoggingHelper.info(message);
+                isWaitingForCapacity = true;
             }
-        } catch (InterruptedException e) {
-            String message = vendorName + " stopped releasing tickets.";
+            completedTicks++;
+            return 1000;
+        }
+        isWaitingForCapacity = false;
+
+        // Find number of tickets to release
+        int ticketsToRelease = Math.min(releaseRate, remainingTickets);
+
+        if (webSocketMessageService.isLogEnabled()) {
+            String message = vendorName + " released " + ticketsToRelease + " tickets";
             webSocketMessageService.sendLogMessage(message);
-            LoggingHelper.error(message);
-            Thread.currentThread().interrupt();
+            LoggingHelper.info(message);
         }
 
+        // Release tickets into the pool, which names them with this vendor's generator
+        ticketPool.addTickets(ticketIdGenerator, ticketsToRelease);
+
+        completedTicks++;
+        return 1000;
+    }
+
+    public int getReleaseRate() {
+        return releaseRate;
+    }
+
+    public void setReleaseRate(int releaseRate) {
+        this.releaseRate = releaseRate;
+    }
+
+    @Override
+    public String getParticipantName() {
+        return vendorName;
+    }
+
+    // Vendors release a batch of releaseRate tickets once per second
+    @Override
+    public double getConfiguredTickRate() {
+        return 1;
+    }
+
+    @Override
+    public long getCompletedTicks() {
+        return completedTicks;
+    }
+
+    @Override
+    public void onStopped() {
+        String message = vendorName + " stopped releasing tickets.";
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.error(message);
     }
 }
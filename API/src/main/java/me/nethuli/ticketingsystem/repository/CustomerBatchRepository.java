@@ -0,0 +1,13 @@
+package me.nethuli.ticketingsystem.repository;
+
+import me.nethuli.ticketingsystem.model.Customer;
+
+import java.util.List;
+
+/*
+ * CustomerBatchRepository saves customers registered in bulk.
+ */
+public interface CustomerBatchRepository {
+        // Insert new customers in one JDBC batch, without reading their generated ids back
+        void insertAll(List<Customer> customers);
+}
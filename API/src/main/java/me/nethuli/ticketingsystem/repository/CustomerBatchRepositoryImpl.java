@@ -0,0 +1,34 @@
+package me.nethuli.ticketingsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.model.Customer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+/*
+ * Customer ids come from an IDENTITY column, which stops Hibernate from batching inserts, so
+ * customers registered in bulk are inserted with one JDBC batch instead.
+ */
+@RequiredArgsConstructor
+public class CustomerBatchRepositoryImpl implements CustomerBatchRepository {
+        private static final String INSERT = """
+                        INSERT INTO customers (name, is_vip, no_of_tickets, retrieval_rate)
+                        VALUES (?, ?, ?, ?)
+                        """;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @Override
+        @Transactional
+        public void insertAll(List<Customer> customers) {
+                jdbcTemplate.batchUpdate(INSERT, customers, customers.size(), (statement, customer) -> {
+                        statement.setString(1, customer.getName());
+                        statement.setBoolean(2, customer.isVip());
+                        statement.setObject(3, customer.getNoOfTickets(), Types.INTEGER);
+                        statement.setInt(4, customer.getRetrievalRate());
+                });
+        }
+}
@@ -6,5 +6,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 /*
  * CustomerRepository interface extends JpaRepository interface.
  */
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerBatchRepository {
 }
@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.repository;
+
+import jakarta.persistence.LockModeType;
+import me.nethuli.ticketingsystem.model.EventInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/*
+ * EventInventoryRepository interface extends JpaRepository interface.
+ */
+public interface EventInventoryRepository extends JpaRepository<EventInventory, String> {
+        // Custom query to read an event's inventory and lock it until the transaction ends
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT i FROM EventInventory i WHERE i.eventId = :eventId")
+        Optional<EventInventory> findForUpdate(@Param("eventId") String eventId);
+}
@@ -0,0 +1,36 @@
+package me.nethuli.ticketingsystem.repository;
+
+import me.nethuli.ticketingsystem.model.InventoryLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * InventoryLeaseRepository interface extends JpaRepository interface.
+ */
+public interface InventoryLeaseRepository extends JpaRepository<InventoryLease, Long> {
+        // Custom query to find the lease of an instance on an event
+        Optional<InventoryLease> findByEventIdAndNodeId(String eventId, int nodeId);
+
+        // Custom query to check if another instance holds a lease on an event
+        boolean existsByEventIdAndNodeIdNot(String eventId, int nodeId);
+
+        // Custom query to find the leases that have not been renewed since the given time
+        List<InventoryLease> findByHeartbeatAtBefore(LocalDateTime time);
+
+        // Custom query to renew a lease, returns 0 when the lease no longer exists
+        @Modifying
+        @Query("""
+                        UPDATE InventoryLease l SET l.releasedTickets = :releasedTickets, l.heartbeatAt = :heartbeatAt
+                        WHERE l.eventId = :eventId AND l.nodeId = :nodeId
+                        """)
+        int renew(@Param("eventId") String eventId,
+                        @Param("nodeId") int nodeId,
+                        @Param("releasedTickets") int releasedTickets,
+                        @Param("heartbeatAt") LocalDateTime heartbeatAt);
+}
@@ -1,21 +1,42 @@
 package me.nethuli.ticketingsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import me.nethuli.ticketingsystem.dto.TicketResponse;
 import me.nethuli.ticketingsystem.model.Ticket;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /*
  * TicketRepository is an interface that extends JpaRepository interface.
  */
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketUpdateRepository {
+        String TICKET_QUERY = """
+                        SELECT NEW me.nethuli.ticketingsystem.dto.TicketResponse(t.id, t.ticketName, t.status, t.createdAt, t.soldAt)
+                        FROM Ticket t
+                        WHERE t.id > :afterId
+                        AND (:status IS NULL OR t.status = :status)
+                        AND (:namePattern IS NULL OR t.ticketName LIKE :namePattern ESCAPE '!')
+                        AND (:soldFrom IS NULL OR t.soldAt >= :soldFrom)
+                        AND (:soldTo IS NULL OR t.soldAt < :soldTo)
+                        ORDER BY t.id
+                        """;
+
         // Custom query to find tickets by status
         List<Ticket> findByStatus(Ticket.TicketStatus status);
 
+        // Custom query to find tickets by name
+        List<Ticket> findByTicketNameIn(Collection<String> ticketNames);
+
         // Custom query to find tickets by status and soldAt
         @Query("""
                         SELECT NEW map(FORMATDATETIME(t.soldAt, 'yyyy-MM-dd HH:mm:ss') as timestamp, COUNT(t) as count)
@@ -32,4 +53,24 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         // Custom query to count available tickets
         @Query("SELECT COUNT(t) FROM Ticket t WHERE t.status = 'AVAILABLE'")
         long countAvailableTickets();
+
+        // Keyset page: the tickets after afterId that match the filters, in id order
+        @Query(TICKET_QUERY)
+        List<TicketResponse> findTicketPage(
+                        @Param("afterId") long afterId,
+                        @Param("status") Ticket.TicketStatus status,
+                        @Param("namePattern") String namePattern,
+                        @Param("soldFrom") LocalDateTime soldFrom,
+                        @Param("soldTo") LocalDateTime soldTo,
+                        Limit limit);
+
+        // Same query read through a cursor, must be consumed and closed inside a transaction
+        @Query(TICKET_QUERY)
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+        Stream<TicketResponse> streamTickets(
+                        @Param("afterId") long afterId,
+                        @Param("status") Ticket.TicketStatus status,
+                        @Param("namePattern") String namePattern,
+                        @Param("soldFrom") LocalDateTime soldFrom,
+                        @Param("soldTo") LocalDateTime soldTo);
 }
@@ -0,0 +1,13 @@
+package me.nethuli.ticketingsystem.repository;
+
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.util.List;
+
+/*
+ * TicketUpdateRepository writes changes to tickets rebuilt from a pool's inventory.
+ */
+public interface TicketUpdateRepository {
+        // Write the status, sale time and hold end of saved tickets to their rows by name, in order
+        void updateAllByTicketName(List<Ticket> tickets);
+}
@@ -0,0 +1,33 @@
+package me.nethuli.ticketingsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.model.Ticket;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+ * Rebuilt tickets have no id, so they are updated by their unique name in one JDBC batch instead
+ * of being loaded and merged one by one.
+ */
+@RequiredArgsConstructor
+public class TicketUpdateRepositoryImpl implements TicketUpdateRepository {
+        private static final String UPDATE_BY_NAME = """
+                        UPDATE tickets SET status = ?, sold_at = ?, reserved_until = ?
+                        WHERE ticket_name = ?
+                        """;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @Override
+        @Transactional
+        public void updateAllByTicketName(List<Ticket> tickets) {
+                jdbcTemplate.batchUpdate(UPDATE_BY_NAME, tickets, tickets.size(), (statement, ticket) -> {
+                        statement.setString(1, ticket.getStatus().name());
+                        statement.setObject(2, ticket.getSoldAt());
+                        statement.setObject(3, ticket.getReservedUntil());
+                        statement.setString(4, ticket.getTicketName());
+                });
+        }
+}
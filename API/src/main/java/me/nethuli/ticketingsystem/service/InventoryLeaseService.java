@@ -0,0 +1,9 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.helper.TicketPool;
+
+public interface InventoryLeaseService {
+    boolean isEnabled();
+    void attach(String eventId, int totalTickets, TicketPool ticketPool, int releasedTickets);
+    void detach(String eventId);
+}
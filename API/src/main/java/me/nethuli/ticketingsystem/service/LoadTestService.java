@@ -0,0 +1,8 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.dto.LoadTestReport;
+import me.nethuli.ticketingsystem.dto.LoadTestRequest;
+
+public interface LoadTestService {
+    LoadTestReport run(LoadTestRequest request) throws InterruptedException;
+}
@@ -0,0 +1,26 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.model.PoolEvent;
+
+public interface PoolEventPublisher {
+    // Drops every event, for pools that run without broadcasting
+    PoolEventPublisher NONE = new PoolEventPublisher() {
+        @Override
+        public void publish(PoolEvent event) {
+        }
+
+        @Override
+        public long getSentEventCount() {
+            return 0;
+        }
+
+        @Override
+        public long getDroppedEventCount() {
+            return 0;
+        }
+    };
+
+    void publish(PoolEvent event);
+    long getSentEventCount();
+    long getDroppedEventCount();
+}
@@ -0,0 +1,20 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.dto.CustomerRequest;
+import me.nethuli.ticketingsystem.dto.VendorRequest;
+import me.nethuli.ticketingsystem.helper.JournaledEvent;
+import me.nethuli.ticketingsystem.helper.PoolJournal;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+
+import java.util.Map;
+
+public interface TicketJournal {
+    PoolJournal forEvent(String eventId);
+    void eventConfigured(String eventId, TicketConfiguration config);
+    void eventStarted(String eventId, TicketConfiguration config);
+    void eventStopped(String eventId);
+    void eventDeleted(String eventId);
+    void vendorAdded(String eventId, VendorRequest request);
+    void customerAdded(String eventId, CustomerRequest request);
+    Map<String, JournaledEvent> getRecoveredEvents();
+}
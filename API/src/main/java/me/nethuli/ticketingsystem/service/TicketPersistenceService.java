@@ -0,0 +1,33 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.model.Ticket;
+
+import java.util.List;
+
+public interface TicketPersistenceService {
+    // Keeps tickets in memory only, for pools that run without persistence
+    TicketPersistenceService NONE = new TicketPersistenceService() {
+        @Override
+        public void enqueue(Ticket ticket) {
+        }
+
+        @Override
+        public void enqueueAll(List<Ticket> tickets) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public boolean isBackedUp() {
+            return false;
+        }
+    };
+
+    void enqueue(Ticket ticket);
+    void enqueueAll(List<Ticket> tickets);
+    void flush();
+    // True while too many changes wait to be written; pools then take no new releases or sales
+    boolean isBackedUp();
+}
@@ -0,0 +1,14 @@
+package me.nethuli.ticketingsystem.service;
+
+import me.nethuli.ticketingsystem.dto.TicketPageResponse;
+import me.nethuli.ticketingsystem.dto.TicketQueryRequest;
+import me.nethuli.ticketingsystem.helper.TicketExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TicketQueryService {
+    void validateQuery(TicketQueryRequest request);
+    TicketPageResponse findTickets(TicketQueryRequest request);
+    void exportTickets(TicketQueryRequest request, TicketExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,20 +1,37 @@
 package me.nethuli.ticketingsystem.service;
 
 import me.nethuli.ticketingsystem.dto.*;
+import me.nethuli.ticketingsystem.helper.RegistrationFormat;
 import me.nethuli.ticketingsystem.helper.TicketConfiguration;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TicketingService {
-    void startTicketOperations();
-    void stopTicketOperations();
-    void pauseTicketOperations();
-    void resumeTicketOperations();
-    void addVendor(VendorRequest request, Boolean isInitial);
-    void addCustomer(CustomerRequest request);
-    SystemStatusResponse getSystemStatus();
-    TicketConfiguration configureSystem(TicketConfigurationRequest request);
-    TicketConfiguration getCurrentConfig();
+    EventResponse createEvent(String eventId, TicketConfigurationRequest request);
+    void deleteEvent(String eventId);
+    EventResponse getEvent(String eventId);
+    List<EventResponse> getEvents();
+    void startTicketOperations(String eventId);
+    void stopTicketOperations(String eventId);
+    void pauseTicketOperations(String eventId);
+    void resumeTicketOperations(String eventId);
+    void addVendor(String eventId, VendorRequest request, Boolean isInitial);
+    void addCustomer(String eventId, CustomerRequest request);
+    BulkRegistrationResponse registerCustomers(String eventId, RegistrationFormat format, InputStream body)
+            throws IOException;
+    BulkRegistrationResponse registerVendors(String eventId, RegistrationFormat format, InputStream body)
+            throws IOException;
+    PurchaseResponse purchaseTickets(String eventId, PurchaseRequest request);
+    CompletableFuture<PurchaseResponse> buyTicket(String eventId, BuyRequest request, Long timeoutMs);
+    HoldResponse holdTickets(String eventId, PurchaseRequest request);
+    PurchaseResponse confirmHold(String eventId, String holdId);
+    void cancelHold(String eventId, String holdId);
+    SystemStatusResponse getSystemStatus(String eventId);
+    TicketConfiguration configureSystem(String eventId, TicketConfigurationRequest request);
+    TicketConfiguration getCurrentConfig(String eventId);
     List<SalesOverTimeResponse> getSalesOverTime(LocalDateTime dateTime);
 }
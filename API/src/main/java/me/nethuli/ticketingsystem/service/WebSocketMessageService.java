@@ -1,5 +1,30 @@
 package me.nethuli.ticketingsystem.service;
 
 public interface WebSocketMessageService {
+    // Drops every message, for pools that run without broadcasting
+    WebSocketMessageService NONE = new WebSocketMessageService() {
+        @Override
+        public void sendLogMessage(String message) {
+        }
+
+        @Override
+        public boolean isLogEnabled() {
+            return false;
+        }
+
+        @Override
+        public long getSentMessageCount() {
+            return 0;
+        }
+
+        @Override
+        public long getDroppedMessageCount() {
+            return 0;
+        }
+    };
+
     void sendLogMessage(String message);
+    boolean isLogEnabled();
+    long getSentMessageCount();
+    long getDroppedMessageCount();
 }
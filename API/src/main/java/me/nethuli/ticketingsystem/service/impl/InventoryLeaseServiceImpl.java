@@ -0,0 +1,342 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import me.nethuli.ticketingsystem.config.TicketingClusterProperties;
+import me.nethuli.ticketingsystem.config.TicketingTicketIdProperties;
+import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.TicketPool;
+import me.nethuli.ticketingsystem.model.EventInventory;
+import me.nethuli.ticketingsystem.model.InventoryLease;
+import me.nethuli.ticketingsystem.repository.EventInventoryRepository;
+import me.nethuli.ticketingsystem.repository.InventoryLeaseRepository;
+import me.nethuli.ticketingsystem.service.InventoryLeaseService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Clustered selling. Instances that share a database share each event's total tickets through
+ * the event_inventory table: an instance leases blocks of ticketing.cluster.lease-size tickets
+ * into its own pool's remaining total, and its vendors release from that block without asking
+ * anybody. A keeper thread leases the next block before the current one runs out, renews the
+ * lease with the number of tickets released from it, and gives back the unreleased tickets of
+ * leases whose instance stopped renewing them. Stopping an event gives its unreleased tickets
+ * back right away. Every inventory change locks the event's inventory row first.
+ */
+@Service
+public class InventoryLeaseServiceImpl implements InventoryLeaseService {
+    // leaseBlock result when the lease was given back by another instance
+    private static final int LEASE_LOST = -1;
+
+    private final TicketingClusterProperties properties;
+    private final int nodeId;
+    private final EventInventoryRepository inventoryRepository;
+    private final InventoryLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Events this instance sells in clustered mode, by id
+    private final Map<String, LocalLease> leases = new ConcurrentHashMap<>();
+    private Thread keeper;
+    private volatile boolean running;
+
+    public InventoryLeaseServiceImpl(TicketingClusterProperties properties, TicketingTicketIdProperties ticketIdProperties,
+            EventInventoryRepository inventoryRepository, InventoryLeaseRepository leaseRepository,
+            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.nodeId = ticketIdProperties.getNodeId();
+        this.inventoryRepository = inventoryRepository;
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /*
+     * The lease this instance holds on one event, as far as it knows. Changed while holding its monitor.
+     */
+    private static class LocalLease {
+        private final String eventId;
+        private final TicketPool ticketPool;
+        // Tickets leased since this instance started selling the event
+        private int leasedTickets;
+        // The last lease attempt found no unallocated tickets
+        private boolean exhausted;
+        private boolean detached;
+
+        private LocalLease(String eventId, TicketPool ticketPool, int leasedTickets) {
+            this.eventId = eventId;
+            this.ticketPool = ticketPool;
+            this.leasedTickets = leasedTickets;
+        }
+
+        private int getReleasedTickets() {
+            return Math.max(leasedTickets - ticketPool.getRemainingTotalTickets(), 0);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        keeper = Thread.ofPlatform().name("inventory-lease").daemon(true).start(this::runKeeper);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        keeper.interrupt();
+        try {
+            keeper.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Other instances can sell what this one has not released
+        for (String eventId : leases.keySet()) {
+            try {
+                detach(eventId);
+            } catch (RuntimeException e) {
+                LoggingHelper.error("Failed to give back the lease of event " + eventId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /*
+     * Sell the event from leased blocks: the pool's remaining total is replaced by what this
+     * instance holds of the shared inventory. releasedTickets is the number of tickets the pool
+     * released before, 0 when the event starts and the journaled count when it resumes, so a
+     * resumed instance keeps the unreleased part of its lease.
+     */
+    @Override
+    public void attach(String eventId, int totalTickets, TicketPool ticketPool, int releasedTickets) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ticketPool.withdrawRemainingTotalTickets();
+        ticketPool.setMoreTicketsPending(true);
+        InventoryLease lease;
+        try {
+            lease = transactionTemplate.execute(status -> adopt(eventId, totalTickets, releasedTickets));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the inventory row at the same time
+            lease = transactionTemplate.execute(status -> adopt(eventId, totalTickets, releasedTickets));
+        }
+        ticketPool.addRemainingTotalTickets(lease.getUnreleasedTickets());
+        LocalLease local = new LocalLease(eventId, ticketPool, lease.getLeasedTickets());
+        leases.put(eventId, local);
+        LoggingHelper.info("Node " + nodeId + " sells event " + eventId + " from the shared inventory, "
+                + lease.getUnreleasedTickets() + " leased tickets kept");
+        // Lease the first block now, so vendors can release from the start
+        refill(local, true);
+    }
+
+    /*
+     * Create or resume this instance's lease on the event. Starts a new sale when no other
+     * instance sells the event.
+     */
+    private InventoryLease adopt(String eventId, int totalTickets, int releasedTickets) {
+        EventInventory inventory = inventoryRepository.findForUpdate(eventId)
+                .orElseGet(() -> inventoryRepository.saveAndFlush(new EventInventory(eventId, totalTickets)));
+        InventoryLease lease = leaseRepository.findByEventIdAndNodeId(eventId, nodeId)
+                .orElseGet(() -> new InventoryLease(eventId, nodeId));
+        if (releasedTickets == 0) {
+            // Left over from a run of this instance that was not resumed
+            inventory.setAllocatedTickets(inventory.getAllocatedTickets() - lease.getUnreleasedTickets());
+            lease.setLeasedTickets(0);
+            lease.setReleasedTickets(0);
+            if (!leaseRepository.existsByEventIdAndNodeIdNot(eventId, nodeId)) {
+                inventory.setTotalTickets(totalTickets);
+                inventory.setAllocatedTickets(0);
+            }
+        } else {
+            lease.setReleasedTickets(Math.min(releasedTickets, lease.getLeasedTickets()));
+        }
+        if (inventory.getTotalTickets() != totalTickets) {
+            LoggingHelper.warn("Event " + eventId + " is already sold with " + inventory.getTotalTickets()
+                    + " total tickets, not " + totalTickets);
+        }
+        lease.setHeartbeatAt(LocalDateTime.now());
+        return leaseRepository.save(lease);
+    }
+
+    /*
+     * Give the event's unreleased tickets back to the shared inventory. The pool releases no more.
+     */
+    @Override
+    public void detach(String eventId) {
+        LocalLease local = leases.remove(eventId);
+        if (local == null) {
+            return;
+        }
+        synchronized (local) {
+            local.detached = true;
+            int unreleased = local.ticketPool.withdrawRemainingTotalTickets();
+            transactionTemplate.executeWithoutResult(status -> {
+                EventInventory inventory = inventoryRepository.findForUpdate(eventId).orElse(null);
+                InventoryLease lease = leaseRepository.findByEventIdAndNodeId(eventId, nodeId).orElse(null);
+                // Without the lease its tickets have already been given back
+                if (inventory != null && lease != null) {
+                    inventory.setAllocatedTickets(inventory.getAllocatedTickets()
+                            - Math.min(unreleased, lease.getLeasedTickets()));
+                    leaseRepository.delete(lease);
+                }
+            });
+            LoggingHelper.info("Node " + nodeId + " gave back " + unreleased + " tickets of event " + eventId);
+        }
+    }
+
+    private void runKeeper() {
+        long heartbeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getHeartbeatIntervalMs());
+        long nextHeartbeat = System.nanoTime() + heartbeatIntervalNanos;
+        while (running) {
+            boolean heartbeat = System.nanoTime() - nextHeartbeat >= 0;
+            if (heartbeat) {
+                nextHeartbeat = System.nanoTime() + heartbeatIntervalNanos;
+            }
+            try {
+                maintain(heartbeat);
+            } catch (RuntimeException e) {
+                LoggingHelper.error("Failed to update the inventory leases: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(properties.getRefillIntervalMs());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * One round of the keeper: refill the pools running low and, on heartbeats, renew the leases,
+     * retry exhausted inventories and give back the leases of crashed instances.
+     */
+    void maintain(boolean heartbeat) {
+        for (LocalLease local : leases.values()) {
+            refill(local, heartbeat);
+            if (heartbeat) {
+                renew(local);
+            }
+        }
+        if (heartbeat) {
+            reclaimStaleLeases();
+        }
+    }
+
+    /*
+     * Lease the next block when the pool is running low.
+     */
+    private void refill(LocalLease local, boolean retryExhausted) {
+        synchronized (local) {
+            TicketPool ticketPool = local.ticketPool;
+            if (local.detached || ticketPool.isSystemStopped() || (local.exhausted && !retryExhausted)
+                    || ticketPool.getRemainingTotalTickets() >= properties.getLowWaterMark()) {
+                return;
+            }
+            int granted = transactionTemplate.execute(status -> leaseBlock(local.eventId, local.leasedTickets));
+            if (granted == LEASE_LOST) {
+                leaseLost(local);
+                return;
+            }
+            if (granted == 0) {
+                // The pool ends the sale once it is empty, unless tickets are given back before that
+                local.exhausted = true;
+                ticketPool.setMoreTicketsPending(false);
+                return;
+            }
+            local.exhausted = false;
+            local.leasedTickets += granted;
+            ticketPool.setMoreTicketsPending(true);
+            ticketPool.addRemainingTotalTickets(granted);
+        }
+    }
+
+    private int leaseBlock(String eventId, int leasedTickets) {
+        EventInventory inventory = inventoryRepository.findForUpdate(eventId).orElse(null);
+        if (inventory == null) {
+            return 0;
+        }
+        InventoryLease lease = leaseRepository.findByEventIdAndNodeId(eventId, nodeId).orElse(null);
+        if (lease == null && leasedTickets > 0) {
+            return LEASE_LOST;
+        }
+        int granted = Math.min(properties.getLeaseSize(), inventory.getUnallocatedTickets());
+        if (granted <= 0) {
+            return 0;
+        }
+        if (lease == null) {
+            lease = new InventoryLease(eventId, nodeId);
+        }
+        inventory.setAllocatedTickets(inventory.getAllocatedTickets() + granted);
+        lease.setLeasedTickets(lease.getLeasedTickets() + granted);
+        lease.setHeartbeatAt(LocalDateTime.now());
+        leaseRepository.save(lease);
+        return granted;
+    }
+
+    /*
+     * Renew the lease and report how many of its tickets have been released.
+     */
+    private void renew(LocalLease local) {
+        synchronized (local) {
+            if (local.detached) {
+                return;
+            }
+            int renewed = transactionTemplate.execute(status -> leaseRepository.renew(local.eventId, nodeId,
+                    local.getReleasedTickets(), LocalDateTime.now()));
+            if (renewed == 0) {
+                leaseLost(local);
+            }
+        }
+    }
+
+    /*
+     * Another instance took this lease for a crashed one, so its unreleased tickets are no longer
+     * this instance's to release. Called while holding the lease's monitor.
+     */
+    private void leaseLost(LocalLease local) {
+        int dropped = local.ticketPool.withdrawRemainingTotalTickets();
+        local.leasedTickets = 0;
+        String message = "Node " + nodeId + " lost its lease on event " + local.eventId + " after missing heartbeats, "
+                + dropped + " unreleased tickets dropped";
+        LoggingHelper.error(message);
+    }
+
+    /*
+     * Give back the unreleased tickets of every lease that has not been renewed within the lease TTL.
+     */
+    private void reclaimStaleLeases() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getLeaseTtlMs()));
+        for (InventoryLease stale : leaseRepository.findByHeartbeatAtBefore(cutoff)) {
+            // This instance renews its own leases, a late renewal is not a crash
+            if (stale.getNodeId() == nodeId && leases.containsKey(stale.getEventId())) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                EventInventory inventory = inventoryRepository.findForUpdate(stale.getEventId()).orElse(null);
+                InventoryLease lease = leaseRepository.findById(stale.getId()).orElse(null);
+                if (lease == null || !lease.getHeartbeatAt().isBefore(cutoff)) {
+                    return;
+                }
+                if (inventory != null) {
+                    inventory.setAllocatedTickets(inventory.getAllocatedTickets() - lease.getUnreleasedTickets());
+                }
+                leaseRepository.delete(lease);
+                LoggingHelper.warn("Node " + nodeId + " gave back " + lease.getUnreleasedTickets()
+                        + " unreleased tickets of event " + lease.getEventId() + " leased by node " + lease.getNodeId());
+            });
+        }
+    }
+}
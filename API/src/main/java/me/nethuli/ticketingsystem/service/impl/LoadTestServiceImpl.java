@@ -0,0 +1,267 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingLoadTestProperties;
+import me.nethuli.ticketingsystem.config.TicketingPoolProperties;
+import me.nethuli.ticketingsystem.config.TicketingSalesProperties;
+import me.nethuli.ticketingsystem.dto.LoadTestReport;
+import me.nethuli.ticketingsystem.dto.LoadTestRequest;
+import me.nethuli.ticketingsystem.helper.ArrivalSchedule;
+import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.ParticipantHandle;
+import me.nethuli.ticketingsystem.helper.ParticipantScheduler;
+import me.nethuli.ticketingsystem.helper.SalesTimeSeries;
+import me.nethuli.ticketingsystem.helper.TicketIdGeneratorFactory;
+import me.nethuli.ticketingsystem.helper.TicketPool;
+import me.nethuli.ticketingsystem.helper.TicketPoolContext;
+import me.nethuli.ticketingsystem.helper.TicketPoolFactory;
+import me.nethuli.ticketingsystem.helper.TicketPoolMode;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.model.Vendor;
+import me.nethuli.ticketingsystem.service.LoadTestService;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * LoadTestServiceImpl rehearses an on-sale inside the process. Each run gets its own pool, which
+ * is not an event: it is not journaled, not listed and does not count in /sot. Vendors are the
+ * real Vendor participants on a scheduler shard. Every synthetic customer runs on a virtual
+ * thread from its scheduled arrival and waits in the pool's queue for its tickets, one at a time,
+ * like a buy request. Only one load test runs at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoadTestServiceImpl implements LoadTestService {
+    private final TicketingLoadTestProperties loadTestProperties;
+    private final TicketingPoolProperties poolProperties;
+    private final TicketingSalesProperties salesProperties;
+    private final TicketPoolFactory ticketPoolFactory;
+    private final ParticipantScheduler participantScheduler;
+    private final TicketIdGeneratorFactory ticketIdGeneratorFactory;
+    private final WebSocketMessageService webSocketMessageService;
+    private final PoolEventPublisher poolEventPublisher;
+    private final TicketPersistenceService ticketPersistenceService;
+    private final TicketingMetrics metrics;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Override
+    public LoadTestReport run(LoadTestRequest request) throws InterruptedException {
+        if (!loadTestProperties.isEnabled()) {
+            LoggingHelper.error("Load testing is disabled.");
+            throw new IllegalStateException("Load testing is disabled, set ticketing.loadtest.enabled=true.");
+        }
+        validate(request);
+        if (!running.compareAndSet(false, true)) {
+            LoggingHelper.error("A load test is already running.");
+            throw new IllegalStateException("A load test is already running.");
+        }
+        try {
+            return runTest("LoadTest-" + runs.incrementAndGet(), request);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void validate(LoadTestRequest request) {
+        String problem = null;
+        int maxDuration = loadTestProperties.getMaxDurationSeconds();
+        double maxArrivalRate = loadTestProperties.getMaxArrivalRate();
+        if (request.getDurationSeconds() <= 0 || request.getDurationSeconds() > maxDuration) {
+            problem = "Duration must be between 1 and " + maxDuration + " seconds.";
+        } else if (request.getArrivalRate() <= 0 || request.getArrivalRate() > maxArrivalRate) {
+            problem = "Arrival rate must be positive and at most " + maxArrivalRate + ".";
+        } else if (request.getArrivalPattern() == null || request.getBurstSize() <= 0) {
+            problem = "Arrival pattern is missing or burst size is not positive.";
+        } else if (request.getVipRatio() < 0 || request.getVipRatio() > 1) {
+            problem = "VIP ratio must be between 0 and 1.";
+        } else if (request.getMinTickets() <= 0 || request.getMaxTickets() < request.getMinTickets()) {
+            problem = "Tickets per customer must be at least 1, and maxTickets at least minTickets.";
+        } else if (request.getMaxTicketCapacity() <= 0 || request.getTotalTickets() <= 0
+                || request.getInitialTickets() < 0) {
+            problem = "Capacity and total tickets must be positive, initial tickets not negative.";
+        } else if (request.getVendors() < 0 || (request.getVendors() > 0 && request.getReleaseRate() <= 0)) {
+            problem = "Vendors must not be negative and their release rate must be positive.";
+        } else if (request.getMaxWaitMs() < 0) {
+            problem = "Max wait must not be negative.";
+        }
+        if (problem != null) {
+            LoggingHelper.error(problem);
+            throw new IllegalArgumentException(problem);
+        }
+    }
+
+    private LoadTestReport runTest(String runId, LoadTestRequest request) throws InterruptedException {
+        TicketPoolMode mode = ticketPoolFactory.engineFor(
+                request.getPoolMode() != null ? request.getPoolMode() : poolProperties.getMode(),
+                request.getMaxTicketCapacity());
+        WebSocketMessageService messages = request.isBroadcast() ? webSocketMessageService
+                : WebSocketMessageService.NONE;
+        TicketPoolContext context = new TicketPoolContext(messages,
+                request.isPersistence() ? ticketPersistenceService : TicketPersistenceService.NONE,
+                request.isBroadcast() ? poolEventPublisher : PoolEventPublisher.NONE,
+                new SalesTimeSeries(salesProperties), metrics);
+        TicketPool pool = ticketPoolFactory.create(mode, request.getMaxTicketCapacity(), request.getTotalTickets(),
+                context);
+        pool.addTickets(ticketIdGeneratorFactory.create(runId + "-Stock"), request.getInitialTickets());
+
+        List<Vendor> vendors = new ArrayList<>();
+        for (int i = 1; i <= request.getVendors(); i++) {
+            String vendorName = runId + "-Vendor-" + i;
+            vendors.add(new Vendor(pool, request.getReleaseRate(), vendorName, messages,
+                    ticketIdGeneratorFactory.create(vendorName)));
+        }
+
+        String message = runId + " started: " + request.getArrivalPattern() + " arrivals of "
+                + request.getArrivalRate() + " customers per second for " + request.getDurationSeconds()
+                + " seconds on a " + mode + " pool";
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.info(message);
+
+        SplittableRandom random = request.getSeed() != null ? new SplittableRandom(request.getSeed())
+                : new SplittableRandom();
+        ArrivalSchedule arrivals = new ArrivalSchedule(request.getArrivalPattern(), request.getArrivalRate(),
+                request.getDurationSeconds(), request.getBurstSize(), random);
+        // Microseconds, resized as needed so no latency is out of range
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder ticketsSold = new LongAdder();
+        AtomicInteger customersServed = new AtomicInteger();
+        int customers = 0;
+
+        int shard = participantScheduler.acquireShard();
+        List<ParticipantHandle> vendorHandles = participantScheduler.startAll(shard, runId + "-vendor-", vendors,
+                vendor -> false);
+        long start = System.nanoTime();
+        long elapsedNanos;
+        try {
+            try (ExecutorService customerThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                // Customers stop arriving once the sale is over
+                for (long arrival = arrivals.next(); arrival >= 0 && !pool.isSystemStopped();
+                        arrival = arrivals.next()) {
+                    long arrivalTime = start + arrival;
+                    for (long delay = arrivalTime - System.nanoTime(); delay > 0;
+                            delay = arrivalTime - System.nanoTime()) {
+                        LockSupport.parkNanos(delay);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException("Load test " + runId + " interrupted.");
+                        }
+                    }
+                    customers++;
+                    int quantity = random.nextInt(request.getMinTickets(), request.getMaxTickets() + 1);
+                    Customer customer = new Customer(runId + "-Customer-" + customers,
+                            random.nextDouble() < request.getVipRatio(), quantity, pool, 0, messages);
+                    long deadline = arrivalTime + TimeUnit.MILLISECONDS.toNanos(request.getMaxWaitMs());
+                    customerThreads.execute(() -> {
+                        int bought = buyTickets(pool, customer, quantity, deadline);
+                        ticketsSold.add(bought);
+                        if (bought == quantity) {
+                            customersServed.incrementAndGet();
+                            latencies.recordValue(Math.max(1, (System.nanoTime() - arrivalTime) / 1000));
+                        }
+                    });
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+        } finally {
+            vendorHandles.forEach(ParticipantHandle::stop);
+            participantScheduler.releaseShard(shard);
+            pool.stopSystem();
+        }
+
+        long flushStart = System.nanoTime();
+        if (request.isPersistence()) {
+            ticketPersistenceService.flush();
+        }
+        long flushMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - flushStart);
+
+        LoadTestReport report = toReport(request, mode, elapsedNanos, customers, customersServed.get(),
+                ticketsSold.sum(), flushMs, latencies);
+        message = String.format("%s finished: %d of %d customers served, %d tickets sold at %.1f per second, "
+                        + "p99 latency %.1f ms", runId, report.getCustomersServed(), customers,
+                report.getTicketsSold(), report.getTicketsPerSecond(), report.getLatencyMs().get("p99"));
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.info(message + "\n" + report.getLatencyDistribution());
+        return report;
+    }
+
+    /*
+     * Buy the customer's tickets one at a time, waiting in the pool's queue until the deadline,
+     * and return how many it got.
+     */
+    private static int buyTickets(TicketPool pool, Customer customer, int quantity, long deadline) {
+        int bought = 0;
+        try {
+            while (bought < quantity) {
+                CompletableFuture<Ticket> soldTicket = customer.awaitTicket();
+                if (pool.removeTicket(customer) == null && !soldTicket.isDone()) {
+                    // A sold-out pool does not queue the customer
+                    if (pool.isSystemStopped() && (pool.cancelWaiting(customer) || !soldTicket.isDone())) {
+                        break;
+                    }
+                    try {
+                        soldTicket.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        if (pool.cancelWaiting(customer)) {
+                            break;
+                        }
+                        // The customer has just been taken from the queue and the sale completes the future
+                        soldTicket.get(1, TimeUnit.SECONDS);
+                    }
+                }
+                bought++;
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            // The sale ended while the customer waited
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return bought;
+    }
+
+    private static LoadTestReport toReport(LoadTestRequest request, TicketPoolMode mode, long elapsedNanos,
+            int customers, int customersServed, long ticketsSold, long flushMs, Histogram latencies) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        Map<String, Double> latencyMs = new LinkedHashMap<>();
+        latencyMs.put("p50", latencies.getValueAtPercentile(50) / 1000.0);
+        latencyMs.put("p90", latencies.getValueAtPercentile(90) / 1000.0);
+        latencyMs.put("p99", latencies.getValueAtPercentile(99) / 1000.0);
+        latencyMs.put("p99.9", latencies.getValueAtPercentile(99.9) / 1000.0);
+        latencyMs.put("max", latencies.getMaxValue() / 1000.0);
+        latencyMs.put("mean", latencies.getTotalCount() == 0 ? 0 : latencies.getMean() / 1000.0);
+
+        ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(distribution, true, StandardCharsets.UTF_8)) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+        return new LoadTestReport(mode.name(), request.getArrivalPattern().name(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), customers, customersServed, customers - customersServed,
+                ticketsSold, ticketsSold / elapsedSeconds, customersServed / elapsedSeconds, flushMs, latencyMs,
+                distribution.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingBroadcastProperties;
+import me.nethuli.ticketingsystem.helper.BatchingBroadcaster;
+import me.nethuli.ticketingsystem.helper.PoolEventCodec;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Pool events are buffered like log messages and sent to /topic/events as one binary
+ * PoolEventCodec frame per batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class PoolEventPublisherImpl implements PoolEventPublisher {
+    private static final String EVENTS_TOPIC = "/topic/events";
+    private static final Map<String, Object> BINARY_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TicketingBroadcastProperties properties;
+    private final TicketingMetrics metrics;
+
+    // Only used from the broadcast thread
+    private final PoolEventCodec codec = new PoolEventCodec();
+    private BatchingBroadcaster<PoolEvent> broadcaster;
+    private Timer sendTimer;
+
+    @PostConstruct
+    public void start() {
+        sendTimer = metrics.broadcastSendTimer(EVENTS_TOPIC);
+        broadcaster = new BatchingBroadcaster<>("event-broadcaster", properties.getBufferCapacity(),
+                properties.getFlushIntervalMs(), properties.getMaxBatchSize(), properties.getOverflowPolicy(),
+                properties.getSampleRate(), this::send);
+        broadcaster.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Override
+    public void publish(PoolEvent event) {
+        if (properties.isEventsEnabled()) {
+            broadcaster.publish(event);
+        }
+    }
+
+    private void send(List<PoolEvent> batch) {
+        byte[] frame = codec.encode(batch);
+        sendTimer.record(() -> messagingTemplate.convertAndSend(EVENTS_TOPIC, frame, BINARY_HEADERS));
+    }
+
+    @Override
+    public long getSentEventCount() {
+        return broadcaster.getSentCount();
+    }
+
+    @Override
+    public long getDroppedEventCount() {
+        return broadcaster.getDroppedCount();
+    }
+}
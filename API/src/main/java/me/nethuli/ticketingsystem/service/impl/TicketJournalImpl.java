@@ -0,0 +1,350 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingJournalProperties;
+import me.nethuli.ticketingsystem.dto.CustomerRequest;
+import me.nethuli.ticketingsystem.dto.VendorRequest;
+import me.nethuli.ticketingsystem.helper.JournalCodec;
+import me.nethuli.ticketingsystem.helper.JournaledEvent;
+import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.PoolJournal;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.JournalRecord;
+import me.nethuli.ticketingsystem.model.JournalRecordType;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.service.TicketJournal;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Append-only journal of pool operations with group commit. Producers queue records and never
+ * touch the disk; a single writer thread encodes everything queued into one buffer, writes it
+ * to the journal with a FileChannel and forces it once per group. The writer also applies every
+ * record to its per-event state, so it can write a snapshot at any point and start an empty
+ * journal. On startup the last snapshot is loaded and the journal replayed on top of it. A crash
+ * loses at most the records of the group being written. A group that fails to write is kept,
+ * the journal cut back to the end of the last written group and the same group retried with a
+ * growing backoff, so the journal never has a gap. Appending never waits, as pools journal
+ * while holding their lock; once queueCapacity records are waiting the event journals report
+ * themselves backed up and their pools take no new releases or sales until the writer catches up.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketJournalImpl implements TicketJournal {
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private final TicketingJournalProperties properties;
+
+    // Owned by the writer thread once it has started
+    private final Map<String, JournaledEvent> events = new LinkedHashMap<>();
+    private final JournalCodec codec = new JournalCodec();
+    private final JournalCodec.FrameBuffer frames = new JournalCodec.FrameBuffer();
+    private Map<String, JournaledEvent> recoveredEvents = Map.of();
+    private LinkedBlockingQueue<JournalRecord> pendingRecords;
+    private final List<JournalRecord> group = new ArrayList<>();
+    private FileChannel journal;
+    // End of the last group written in full, anything after it is a failed write
+    private long committedEnd;
+    private long lastLsn;
+    private int recordsSinceSnapshot;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+        recover(directory);
+
+        // Unbounded, isBackedUp() keeps it near queueCapacity without making producers wait
+        pendingRecords = new LinkedBlockingQueue<>();
+        running = true;
+        writerThread = new Thread(this::runWriter, "journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // A group the writer could not write comes first
+            pendingRecords.drainTo(group);
+            writeGroup();
+            writeSnapshot();
+            journal.close();
+        } catch (IOException e) {
+            LoggingHelper.error("Failed to close the journal: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Load the snapshot, replay the journal entries written after it and cut off a torn tail.
+     */
+    private void recover(Path directory) throws IOException {
+        long snapshotLsn = 0;
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            byte[] frame;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotPath))) {
+                frame = JournalCodec.readFrame(in);
+            }
+            if (frame == null) {
+                throw new IllegalStateException("Journal snapshot " + snapshotPath + " is corrupt");
+            }
+            JournalCodec.Snapshot snapshot = JournalCodec.readSnapshot(frame);
+            events.putAll(snapshot.getEvents());
+            snapshotLsn = snapshot.getLsn();
+        }
+        lastLsn = snapshotLsn;
+
+        Path journalPath = directory.resolve(JOURNAL_FILE);
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long validEnd = 0;
+        int replayed = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(journalPath))) {
+            byte[] frame;
+            while ((frame = JournalCodec.readFrame(in)) != null) {
+                validEnd += 8 + frame.length;
+                JournalCodec.Entry entry = JournalCodec.readEntry(frame);
+                // Entries up to the snapshot are left over from a crash right after it was written
+                if (entry.getLsn() > snapshotLsn) {
+                    apply(entry.getRecord());
+                    lastLsn = entry.getLsn();
+                    replayed++;
+                }
+            }
+        }
+        if (journal.size() > validEnd) {
+            LoggingHelper.warn("Discarding " + (journal.size() - validEnd) + " bytes of a torn journal entry");
+            journal.truncate(validEnd);
+        }
+        journal.position(validEnd);
+        committedEnd = validEnd;
+        recordsSinceSnapshot = replayed;
+
+        // Hand the service its own copy, the writer keeps applying records to events
+        frames.reset();
+        codec.writeSnapshot(frames, lastLsn, events.values());
+        recoveredEvents = JournalCodec.readSnapshot(JournalCodec.readFrame(
+                new ByteArrayInputStream(frames.array(), 0, frames.size()))).getEvents();
+        LoggingHelper.info("Recovered " + events.size() + " events from the journal (" + replayed
+                + " entries after the snapshot)");
+    }
+
+    private void apply(JournalRecord record) {
+        if (record.getType() == JournalRecordType.EVENT_DELETED) {
+            events.remove(record.getEventId());
+            return;
+        }
+        events.computeIfAbsent(record.getEventId(), JournaledEvent::new).apply(record);
+    }
+
+    private void append(JournalRecord record) {
+        if (!running) {
+            return;
+        }
+        pendingRecords.offer(record);
+        if (pendingRecords.size() >= properties.getGroupSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        long backoffMs = 0;
+        while (running) {
+            // A failed group stays and is written again before anything newer
+            if (group.isEmpty()) {
+                pendingRecords.drainTo(group, properties.getGroupSize());
+            }
+            int written = group.size();
+            try {
+                writeGroup();
+                backoffMs = 0;
+            } catch (IOException | RuntimeException e) {
+                backoffMs = backoffMs == 0 ? properties.getRetryInitialBackoffMs()
+                        : Math.min(backoffMs * 2, properties.getRetryMaxBackoffMs());
+                LoggingHelper.error("Failed to write journal group of " + group.size() + " records, retrying in "
+                        + backoffMs + " ms: " + e.getMessage());
+            }
+            if (backoffMs > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMs));
+            } else if (written < properties.getGroupSize()) {
+                // Wait for the next interval unless a full group is already waiting
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    /*
+     * Write the group with one write and at most one force, apply it and empty it. The group is
+     * kept if the write fails.
+     */
+    private void writeGroup() throws IOException {
+        if (group.isEmpty()) {
+            return;
+        }
+        if (journal.size() > committedEnd) {
+            // Cut off what a failed write left behind, replay would stop at it
+            journal.truncate(committedEnd);
+        }
+        journal.position(committedEnd);
+        frames.reset();
+        long lsn = lastLsn;
+        for (JournalRecord record : group) {
+            codec.writeEntry(frames, ++lsn, record);
+        }
+        ByteBuffer buffer = frames.asByteBuffer();
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        if (properties.isFsync()) {
+            journal.force(false);
+        }
+        committedEnd = journal.position();
+        lastLsn = lsn;
+        for (JournalRecord record : group) {
+            apply(record);
+        }
+        recordsSinceSnapshot += group.size();
+        group.clear();
+        if (recordsSinceSnapshot >= properties.getSnapshotEveryRecords()) {
+            // The group is in the journal, a failed snapshot is tried again after the next one
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                LoggingHelper.error("Failed to write journal snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Write the state as of lastLsn to a new snapshot file, swap it in and empty the journal.
+     */
+    private void writeSnapshot() throws IOException {
+        Path directory = Path.of(properties.getDirectory());
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        frames.reset();
+        codec.writeSnapshot(frames, lastLsn, events.values());
+        try (FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = frames.asByteBuffer();
+            while (buffer.hasRemaining()) {
+                snapshot.write(buffer);
+            }
+            snapshot.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        journal.truncate(0);
+        journal.position(0);
+        committedEnd = 0;
+        recordsSinceSnapshot = 0;
+    }
+
+    @Override
+    public PoolJournal forEvent(String eventId) {
+        if (!properties.isEnabled()) {
+            return PoolJournal.NONE;
+        }
+        return new PoolJournal() {
+            @Override
+            public void ticketReleased(Ticket ticket) {
+                append(JournalRecord.ticketReleased(eventId, ticket.getTicketName()));
+            }
+
+            @Override
+            public void ticketsSold(List<Ticket> tickets, Customer customer) {
+                List<String> ticketNames = new ArrayList<>(tickets.size());
+                for (Ticket ticket : tickets) {
+                    ticketNames.add(ticket.getTicketName());
+                }
+                append(JournalRecord.ticketsSold(eventId, customer.getName(), ticketNames));
+            }
+
+            @Override
+            public void customerQueued(Customer customer) {
+                append(JournalRecord.customerQueued(eventId, customer.getName(), customer.isVip()));
+            }
+
+            @Override
+            public boolean isBackedUp() {
+                return running && pendingRecords.size() >= properties.getQueueCapacity();
+            }
+        };
+    }
+
+    @Override
+    public void eventConfigured(String eventId, TicketConfiguration config) {
+        append(JournalRecord.eventConfigured(eventId, config));
+    }
+
+    @Override
+    public void eventStarted(String eventId, TicketConfiguration config) {
+        append(JournalRecord.eventStarted(eventId, config));
+    }
+
+    @Override
+    public void eventStopped(String eventId) {
+        append(JournalRecord.eventStopped(eventId));
+    }
+
+    @Override
+    public void eventDeleted(String eventId) {
+        append(JournalRecord.eventDeleted(eventId));
+    }
+
+    @Override
+    public void vendorAdded(String eventId, VendorRequest request) {
+        append(JournalRecord.vendorAdded(eventId, request.getName(), request.getReleaseRate()));
+    }
+
+    @Override
+    public void customerAdded(String eventId, CustomerRequest request) {
+        append(JournalRecord.customerAdded(eventId, request.getName(), request.isVip(),
+                request.getNumberOfTickets(), request.getRetrievalRate()));
+    }
+
+    /*
+     * Events as recovered on startup, by id.
+     */
+    @Override
+    public Map<String, JournaledEvent> getRecoveredEvents() {
+        return recoveredEvents;
+    }
+}
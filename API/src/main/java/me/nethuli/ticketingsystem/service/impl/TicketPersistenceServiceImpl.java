@@ -0,0 +1,239 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingPersistenceProperties;
+import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.repository.TicketRepository;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Write-behind ticket persistence. Pool transitions are queued in memory and a single writer
+ * thread drains them into batched saveAll calls, so no pool operation waits on the database.
+ * A batch that fails to write is kept and written again, with a growing wait, before anything
+ * else is drained, so no change is lost or overtaken while the database is unavailable. A batch
+ * rejected for its content (a constraint violation or a bad row) would fail forever, so it is
+ * split until the rejected changes are found; those are logged and dropped, the rest is written.
+ * Queueing never waits, as pools queue changes while holding their lock. Once queueCapacity
+ * changes are waiting the service reports itself backed up and pools take no new releases or
+ * sales; changes already under way are still queued.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketPersistenceServiceImpl implements TicketPersistenceService {
+    private final TicketRepository ticketRepository;
+    private final TicketingPersistenceProperties properties;
+    private final TicketingMetrics metrics;
+
+    private LinkedBlockingQueue<Ticket> pendingTickets;
+    // Serializes batches between the writer thread and flush()
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Batch whose write failed, written again before the queue is drained further; guarded by writeLock
+    private List<Ticket> failedBatch;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        // Unbounded, isBackedUp() keeps it near queueCapacity without making producers wait
+        pendingTickets = new LinkedBlockingQueue<>();
+        metrics.bindPersistenceQueue(pendingTickets);
+        running = true;
+        writerThread = new Thread(this::runWriter, "ticket-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /*
+     * Queue a new or changed ticket to be written by the writer thread.
+     */
+    @Override
+    public void enqueue(Ticket ticket) {
+        pendingTickets.offer(ticket);
+        if (pendingTickets.size() >= properties.getBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /*
+     * Queue several tickets changed together, waking the writer at most once.
+     */
+    @Override
+    public void enqueueAll(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            pendingTickets.offer(ticket);
+        }
+        if (pendingTickets.size() >= properties.getBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /*
+     * Check if queueCapacity changes are waiting to be written, e.g. while the database is down.
+     */
+    @Override
+    public boolean isBackedUp() {
+        return pendingTickets.size() >= properties.getQueueCapacity();
+    }
+
+    /*
+     * Write every queued ticket before returning.
+     */
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            while (failedBatch != null || !pendingTickets.isEmpty()) {
+                writeBatch();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        long backoffMs = 0;
+        while (running) {
+            int written = 0;
+            writeLock.lock();
+            try {
+                written = writeBatch();
+                backoffMs = 0;
+            } catch (RuntimeException e) {
+                backoffMs = backoffMs == 0 ? properties.getRetryInitialBackoffMs()
+                        : Math.min(backoffMs * 2, properties.getRetryMaxBackoffMs());
+                LoggingHelper.error("Failed to write ticket batch of " + failedBatch.size() + " changes, retrying in "
+                        + backoffMs + " ms: " + e.getMessage());
+            } finally {
+                writeLock.unlock();
+            }
+            if (backoffMs > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMs));
+            } else if (written < properties.getBatchSize()) {
+                // Wait for the next interval unless a full batch is already waiting
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    /*
+     * Drain up to one batch, insert the new tickets with a single saveAll call and then write the
+     * changes to saved tickets in queue order. A ticket is queued when it is released, before it
+     * can be sold, so its row always exists by the time it is updated. A failed batch stays in
+     * failedBatch and is written again by the next call; inserted tickets are marked stored, so
+     * that write updates their rows instead of inserting them twice.
+     * Must be called while holding writeLock.
+     */
+    private int writeBatch() {
+        List<Ticket> drained = failedBatch;
+        if (drained == null) {
+            drained = new ArrayList<>(properties.getBatchSize());
+            pendingTickets.drainTo(drained, properties.getBatchSize());
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            failedBatch = drained;
+        }
+        Set<Ticket> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            writeIsolatingRejected(drained, rejected);
+        } catch (RuntimeException e) {
+            metrics.recordPersistenceFailure();
+            if (!rejected.isEmpty()) {
+                // Retry only what the database has not rejected
+                failedBatch = drained.stream().filter(ticket -> !rejected.contains(ticket)).toList();
+            }
+            throw e;
+        }
+        failedBatch = null;
+        return drained.size();
+    }
+
+    /*
+     * Write the tickets, halving a part the database rejects for its content until the single
+     * rejected changes are left, which are dropped. Any other failure is thrown, to be retried.
+     */
+    private void writeIsolatingRejected(List<Ticket> tickets, Set<Ticket> rejected) {
+        try {
+            write(tickets);
+        } catch (RuntimeException e) {
+            if (!isPermanent(e)) {
+                throw e;
+            }
+            if (tickets.size() == 1) {
+                Ticket ticket = tickets.get(0);
+                rejected.add(ticket);
+                metrics.recordPersistenceRejection();
+                LoggingHelper.error("Dropping change of ticket " + ticket.getTicketName() + " (" + ticket.getStatus()
+                        + ") rejected by the database: " + e.getMessage());
+                return;
+            }
+            int half = tickets.size() / 2;
+            writeIsolatingRejected(tickets.subList(0, half), rejected);
+            writeIsolatingRejected(tickets.subList(half, tickets.size()), rejected);
+        }
+    }
+
+    private void write(List<Ticket> tickets) {
+        // A ticket can be queued as RESERVED and as SOLD in the same batch, write it once
+        Set<Ticket> batch = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Ticket> inserted = new ArrayList<>(tickets.size());
+        List<Ticket> updated = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if (batch.add(ticket)) {
+                (ticket.isStored() ? updated : inserted).add(ticket);
+            }
+        }
+        metrics.getPersistenceSaveTimer().record(() -> {
+            if (!inserted.isEmpty()) {
+                try {
+                    ticketRepository.saveAll(inserted);
+                } catch (RuntimeException e) {
+                    inserted.forEach(Ticket::clearUnsavedId);
+                    throw e;
+                }
+                inserted.forEach(Ticket::markStored);
+            }
+            if (!updated.isEmpty()) {
+                ticketRepository.updateAllByTicketName(updated);
+            }
+        });
+    }
+
+    /*
+     * Check if the database rejected the changes themselves (a duplicate key, a value it does not
+     * take), so writing them again fails again. Anything else, such as an unreachable database or
+     * a broken schema, is retried rather than dropping every change.
+     */
+    private static boolean isPermanent(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException;
+    }
+}
@@ -0,0 +1,143 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingQueryProperties;
+import me.nethuli.ticketingsystem.dto.TicketPageResponse;
+import me.nethuli.ticketingsystem.dto.TicketQueryRequest;
+import me.nethuli.ticketingsystem.dto.TicketResponse;
+import me.nethuli.ticketingsystem.helper.TicketExportFormat;
+import me.nethuli.ticketingsystem.repository.TicketRepository;
+import me.nethuli.ticketingsystem.service.TicketQueryService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * Read-only ticket queries for reporting. Pages are keyset paginated on the ticket id, exports
+ * read the same query through a database cursor and write each row as it arrives, so neither
+ * holds more than a page of tickets in memory and neither locks the tickets being sold.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketQueryServiceImpl implements TicketQueryService {
+    private static final String CSV_HEADER = "id,ticketName,status,createdAt,soldAt";
+
+    private final TicketRepository ticketRepository;
+    private final TicketingQueryProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void validateQuery(TicketQueryRequest request) {
+        LocalDateTime soldFrom = request.getSoldFrom();
+        LocalDateTime soldTo = request.getSoldTo();
+        if (soldFrom != null && soldTo != null && !soldFrom.isBefore(soldTo)) {
+            throw new IllegalArgumentException("soldFrom must be before soldTo");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketPageResponse findTickets(TicketQueryRequest request) {
+        validateQuery(request);
+        int limit = request.getLimit() == null ? properties.getDefaultPageSize() : request.getLimit();
+        if (limit <= 0 || limit > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getMaxPageSize());
+        }
+        List<TicketResponse> tickets = ticketRepository.findTicketPage(afterId(request), request.getStatus(),
+                namePattern(request.getVendor()), request.getSoldFrom(), request.getSoldTo(), Limit.of(limit));
+        // A full page may be followed by more tickets, a shorter one is the last
+        Long nextAfterId = tickets.size() == limit ? tickets.get(tickets.size() - 1).getId() : null;
+        return new TicketPageResponse(tickets, nextAfterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTickets(TicketQueryRequest request, TicketExportFormat format, OutputStream out)
+            throws IOException {
+        validateQuery(request);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<TicketResponse> tickets = ticketRepository.streamTickets(afterId(request), request.getStatus(),
+                namePattern(request.getVendor()), request.getSoldFrom(), request.getSoldTo())) {
+            Iterator<TicketResponse> rows = tickets.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(rows, writer);
+                case CSV -> writeCsv(rows, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<TicketResponse> rows, Writer writer) throws IOException {
+        // Flushing after every row would send one chunk per ticket
+        ObjectWriter rowWriter = objectMapper.writerFor(TicketResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows are separated by the newline alone, not the default space between root values
+        generator.setRootValueSeparator(null);
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<TicketResponse> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TicketResponse ticket = rows.next();
+            writer.write(String.valueOf(ticket.getId()));
+            writer.write(',');
+            writer.write(csvField(ticket.getTicketName()));
+            writer.write(',');
+            writer.write(String.valueOf(ticket.getStatus()));
+            writer.write(',');
+            writer.write(csvField(ticket.getCreatedAt()));
+            writer.write(',');
+            writer.write(csvField(ticket.getSoldAt()));
+            writer.write('\n');
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static long afterId(TicketQueryRequest request) {
+        return request.getAfterId() == null ? 0 : request.getAfterId();
+    }
+
+    /*
+     * LIKE pattern for the names of a vendor's tickets, "<vendor>-TKT-<id>".
+     */
+    private static String namePattern(String vendor) {
+        if (vendor == null || vendor.isBlank()) {
+            return null;
+        }
+        String escaped = vendor.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return escaped + "-TKT-%";
+    }
+}
@@ -1,77 +1,368 @@
 package me.nethuli.ticketingsystem.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingBulkProperties;
+import me.nethuli.ticketingsystem.config.TicketingBuyProperties;
 import me.nethuli.ticketingsystem.config.TicketingDefaultProperties;
+import me.nethuli.ticketingsystem.config.TicketingEventsProperties;
 import me.nethuli.ticketingsystem.dto.*;
+import me.nethuli.ticketingsystem.helper.AdmissionController;
+import me.nethuli.ticketingsystem.helper.JournaledEvent;
 import me.nethuli.ticketingsystem.helper.LoggingHelper;
+import me.nethuli.ticketingsystem.helper.ParticipantHandle;
+import me.nethuli.ticketingsystem.helper.ParticipantRecordReader;
+import me.nethuli.ticketingsystem.helper.ParticipantScheduler;
+import me.nethuli.ticketingsystem.helper.PoolSnapshot;
+import me.nethuli.ticketingsystem.helper.RegistrationFormat;
+import me.nethuli.ticketingsystem.helper.ReservationRegistry;
+import me.nethuli.ticketingsystem.helper.SalesTimeSeries;
 import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+import me.nethuli.ticketingsystem.helper.TicketIdGeneratorFactory;
 import me.nethuli.ticketingsystem.helper.TicketPool;
+import me.nethuli.ticketingsystem.helper.TicketPoolFactory;
+import me.nethuli.ticketingsystem.helper.TicketReservation;
+import me.nethuli.ticketingsystem.helper.TicketingEvent;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
 import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.JournalRecord;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.Ticket;
 import me.nethuli.ticketingsystem.model.Vendor;
 import me.nethuli.ticketingsystem.repository.CustomerRepository;
 import me.nethuli.ticketingsystem.repository.TicketRepository;
+import me.nethuli.ticketingsystem.service.InventoryLeaseService;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketJournal;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
 import me.nethuli.ticketingsystem.service.TicketingService;
 import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
+/*
+ * Every event has its own configuration, ticket pool and participants (see TicketingEvent).
+ * Lifecycle operations lock only the event they act on, so events are managed and sell
+ * independently of each other.
+ */
 @Service
 @RequiredArgsConstructor
 public class TicketingServiceImpl implements TicketingService {
     private final TicketingDefaultProperties defaultProperties;
+    private final TicketingEventsProperties eventsProperties;
+    private final TicketingBuyProperties buyProperties;
+    private final TicketingBulkProperties bulkProperties;
+    private final ObjectMapper objectMapper;
     private final WebSocketMessageService webSocketMessageService;
     private final TicketRepository ticketRepository;
     private final CustomerRepository customerRepository;
+    private final TicketPoolFactory ticketPoolFactory;
+    private final TicketPersistenceService ticketPersistenceService;
+    private final ParticipantScheduler participantScheduler;
+    private final SalesTimeSeries salesTimeSeries;
+    private final ReservationRegistry reservationRegistry;
+    private final TicketIdGeneratorFactory ticketIdGeneratorFactory;
+    private final TicketJournal ticketJournal;
+    private final PoolEventPublisher poolEventPublisher;
+    private final AdmissionController admissionController;
+    private final InventoryLeaseService inventoryLeaseService;
+    private final TicketingMetrics metrics;
 
-    private TicketPool ticketPool;
-    private TicketConfiguration config;
-    private boolean isRunning = false;
-    private final Map<String, Thread> vendorThreads = new ConcurrentHashMap<>();
-    private final Map<String, Thread> customerThreads = new ConcurrentHashMap<>();
-    private volatile boolean isPaused = false;
+    private final Map<String, TicketingEvent> events = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
-        // Initialize with default configuration
-        this.config = new TicketConfiguration(
-                defaultProperties.getTotalTickets(),
-                defaultProperties.getTicketReleaseRate(),
-                defaultProperties.getCustomerRetrievalRate(),
-                defaultProperties.getMaxTicketCapacity()
-        );
+        // Create the default event with the default configuration
+        events.put(eventsProperties.getDefaultEventId(), new TicketingEvent(eventsProperties.getDefaultEventId(),
+                new TicketConfiguration(
+                        defaultProperties.getTotalTickets(),
+                        defaultProperties.getTicketReleaseRate(),
+                        defaultProperties.getCustomerRetrievalRate(),
+                        defaultProperties.getMaxTicketCapacity()
+                )));
+
+        // Bring back the events of the previous run and resume the ones that were running
+        for (JournaledEvent journaled : ticketJournal.getRecoveredEvents().values()) {
+            if (journaled.getConfig() == null) {
+                continue;
+            }
+            TicketingEvent event = events.computeIfAbsent(journaled.getId(),
+                    id -> new TicketingEvent(id, journaled.getConfig()));
+            event.setConfig(journaled.getConfig());
+            if (journaled.isRunning()) {
+                try {
+                    resumeEvent(event, journaled);
+                } catch (RuntimeException e) {
+                    // One event that cannot be resumed must not keep the application from starting
+                    abandonResume(event);
+                    LoggingHelper.error("Could not resume event " + event.getId() + ", it stays stopped: "
+                            + e.getMessage());
+                }
+            }
+        }
     }
 
-    @Override
-    public TicketConfiguration configureSystem(TicketConfigurationRequest request) {
-        if (isRunning) {
-            String message = "Cannot update configuration while running";
+    /*
+     * Undo whatever a failed resume had set up, leaving the event stopped. Its journal is kept, so
+     * the sale resumes on a later restart once the cause is fixed.
+     */
+    private void abandonResume(TicketingEvent event) {
+        event.getVendorThreads().values().forEach(ParticipantHandle::stop);
+        event.getCustomerThreads().values().forEach(ParticipantHandle::stop);
+        event.getVendorThreads().clear();
+        event.getCustomerThreads().clear();
+        inventoryLeaseService.detach(event.getId());
+        if (event.getTicketPool() != null) {
+            event.getTicketPool().stopSystem();
+            event.setTicketPool(null);
+        }
+        if (event.getShard() >= 0) {
+            participantScheduler.releaseShard(event.getShard());
+            event.setShard(-1);
+        }
+        event.setRunning(false);
+    }
+
+    /*
+     * Restart a running event from its journaled state: a new pool holding the tickets that were
+     * in it, the same remaining total and waiting queue, and the same vendors and customers.
+     */
+    private void resumeEvent(TicketingEvent event, JournaledEvent journaled) {
+        TicketConfiguration config = event.getConfig();
+        List<String> ticketNames = new ArrayList<>(journaled.getAvailableTickets());
+        // A capacity lowered while running keeps the tickets above it: the pool is made big enough
+        // for all of them and vendors wait until it has drained to the configured capacity
+        TicketPool ticketPool = ticketPoolFactory.create(event.getId(),
+                Math.max(config.getMaxTicketCapacity(), ticketNames.size()), config.getTotalTickets());
+        ticketPool.setMaxCapacity(config.getMaxTicketCapacity());
+        event.setTicketPool(ticketPool);
+        event.setShard(participantScheduler.acquireShard());
+        event.setPaused(false);
+        event.getVendorThreads().clear();
+        event.getCustomerThreads().clear();
+
+        // Reuse the saved rows; tickets the write-behind queue had not saved yet are saved now
+        Set<String> saved = ticketRepository.findByTicketNameIn(ticketNames).stream()
+                .map(Ticket::getTicketName)
+                .collect(Collectors.toSet());
+        List<Ticket> tickets = new ArrayList<>(ticketNames.size());
+        for (String ticketName : ticketNames) {
+            // Holds do not survive a restart, saved tickets are made available again
+            tickets.add(saved.contains(ticketName) ? Ticket.stored(ticketName) : new Ticket(ticketName));
+        }
+        ticketPersistenceService.enqueueAll(tickets);
+
+        Map<String, Customer> customers = new LinkedHashMap<>();
+        for (JournalRecord record : journaled.getCustomers().values()) {
+            customers.put(record.getName(), new Customer(record.getName(), record.isVip(), record.getQuantity(),
+                    ticketPool, record.getRate(), webSocketMessageService));
+        }
+        List<Customer> waiting = journaled.getWaitingCustomers().keySet().stream()
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        ticketPool.restore(ticketNames, journaled.getRemainingTotalTickets(), waiting);
+        // In clustered mode the journal only knows how many tickets this instance released
+        inventoryLeaseService.attach(event.getId(), config.getTotalTickets(), ticketPool,
+                config.getTotalTickets() - journaled.getRemainingTotalTickets());
+
+        for (JournalRecord record : journaled.getVendors().values()) {
+            addVendor(event, new VendorRequest(record.getName(), record.getRate()), true);
+        }
+        for (Customer customer : customers.values()) {
+            startCustomer(event, customer);
+        }
+        event.setRunning(true);
+        LoggingHelper.info("Resumed event " + event.getId() + " with " + tickets.size() + " tickets in the pool, "
+                + journaled.getRemainingTotalTickets() + " still to release and " + waiting.size()
+                + " waiting customers");
+    }
+
+    /*
+     * Look up an event, failing with NoSuchElementException if it does not exist.
+     */
+    private TicketingEvent getEventOrThrow(String eventId) {
+        TicketingEvent event = events.get(eventId);
+        if (event == null) {
+            String message = "Event " + eventId + " does not exist.";
             LoggingHelper.error(message);
-            throw new IllegalStateException(message);
+            throw new NoSuchElementException(message);
         }
-        this.config = new TicketConfiguration(
+        return event;
+    }
+
+    private static TicketConfiguration toConfiguration(TicketConfigurationRequest request) {
+        return new TicketConfiguration(
                 request.getTotalTickets(),
                 request.getTicketReleaseRate(),
                 request.getCustomerRetrievalRate(),
                 request.getMaxTicketCapacity()
         );
-        return this.config;
+    }
+
+    private EventResponse toResponse(TicketingEvent event) {
+        return new EventResponse(event.getId(), event.getConfig(), getSystemStatus(event));
+    }
+
+    @Override
+    public EventResponse createEvent(String eventId, TicketConfigurationRequest request) {
+        synchronized (events) {
+            if (events.containsKey(eventId)) {
+                LoggingHelper.error("Event already exists!");
+                throw new IllegalStateException("Event already exists!");
+            }
+            if (events.size() >= eventsProperties.getMaxEvents()) {
+                String message = "Cannot create more than " + eventsProperties.getMaxEvents() + " events.";
+                LoggingHelper.error(message);
+                throw new IllegalStateException(message);
+            }
+            TicketingEvent event = new TicketingEvent(eventId, toConfiguration(request));
+            events.put(eventId, event);
+            ticketJournal.eventConfigured(eventId, event.getConfig());
+            LoggingHelper.info("Event " + eventId + " created");
+            return toResponse(event);
+        }
+    }
+
+    @Override
+    public void deleteEvent(String eventId) {
+        if (eventId.equals(eventsProperties.getDefaultEventId())) {
+            LoggingHelper.error("The default event cannot be deleted.");
+            throw new IllegalStateException("The default event cannot be deleted.");
+        }
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (event.isRunning()) {
+                LoggingHelper.error("Cannot delete an event while running");
+                throw new IllegalStateException("Cannot delete an event while running");
+            }
+            events.remove(eventId);
+            ticketJournal.eventDeleted(eventId);
+        }
+        LoggingHelper.info("Event " + eventId + " deleted");
+    }
+
+    @Override
+    public EventResponse getEvent(String eventId) {
+        return toResponse(getEventOrThrow(eventId));
+    }
+
+    @Override
+    public List<EventResponse> getEvents() {
+        return events.values().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TicketConfiguration configureSystem(String eventId, TicketConfigurationRequest request) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            TicketConfiguration config = toConfiguration(request);
+            if (event.isRunning()) {
+                reconfigureRunningEvent(event, config);
+            }
+            event.setConfig(config);
+            ticketJournal.eventConfigured(eventId, config);
+            return config;
+        }
+    }
+
+    /*
+     * Apply a new configuration to a running event: the pool's capacity and the rates of the
+     * vendors and customers still running at the event's previous rates, rescheduling those
+     * customers. Participants registered with a rate of their own keep it, and so do customers
+     * with a number of tickets, which sets their rate instead. Everything is checked before
+     * anything changes, so a rejected configuration leaves the event as it was.
+     */
+    private void reconfigureRunningEvent(TicketingEvent event, TicketConfiguration config) {
+        TicketConfiguration current = event.getConfig();
+        TicketPool ticketPool = event.getTicketPool();
+        String error = null;
+        if (config.getTotalTickets() != current.getTotalTickets()) {
+            error = "Total tickets cannot be changed while running";
+        } else if (config.getMaxTicketCapacity() <= 0 || config.getTicketReleaseRate() <= 0
+                || config.getCustomerRetrievalRate() <= 0) {
+            error = "Capacity and rates must be positive";
+        } else if (config.getMaxTicketCapacity() > ticketPool.getCapacityLimit()) {
+            error = "Max ticket capacity cannot be raised above " + ticketPool.getCapacityLimit() + " while running";
+        }
+        if (error != null) {
+            webSocketMessageService.sendLogMessage(error);
+            LoggingHelper.error(error);
+            throw new IllegalStateException(error);
+        }
+
+        if (config.getMaxTicketCapacity() != current.getMaxTicketCapacity()) {
+            ticketPool.setMaxCapacity(config.getMaxTicketCapacity());
+        }
+        int vendorsChanged = 0;
+        if (config.getTicketReleaseRate() != current.getTicketReleaseRate()) {
+            for (ParticipantHandle handle : event.getVendorThreads().values()) {
+                Vendor vendor = (Vendor) handle.getParticipant();
+                if (vendor.getReleaseRate() == current.getTicketReleaseRate()) {
+                    vendor.setReleaseRate(config.getTicketReleaseRate());
+                    vendorsChanged++;
+                }
+            }
+        }
+        int customersChanged = 0;
+        int customersWithTickets = 0;
+        if (config.getCustomerRetrievalRate() != current.getCustomerRetrievalRate()) {
+            for (ParticipantHandle handle : event.getCustomerThreads().values()) {
+                Customer customer = (Customer) handle.getParticipant();
+                if (customer.getNoOfTickets() != null) {
+                    customersWithTickets++;
+                } else if (customer.getRetrievalRate() == current.getCustomerRetrievalRate()) {
+                    customer.setRetrievalRate(config.getCustomerRetrievalRate());
+                    handle.reschedule();
+                    customersChanged++;
+                }
+            }
+        }
+
+        poolEventPublisher.publish(PoolEvent.configChanged(config.getMaxTicketCapacity(),
+                ticketPool.getRemainingTotalTickets()));
+        String message = String.format("Configuration changed while running: max capacity %d, release rate %d "
+                        + "(%d of %d vendors), retrieval rate %d (%d of %d customers, %d skipped as they set a "
+                        + "number of tickets)", config.getMaxTicketCapacity(), config.getTicketReleaseRate(),
+                vendorsChanged, event.getVendorThreads().size(), config.getCustomerRetrievalRate(), customersChanged,
+                event.getCustomerThreads().size(), customersWithTickets);
+        webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.info(message + " (event " + event.getId() + ")");
     }
 
     @Override
-    public TicketConfiguration getCurrentConfig() {
-        return this.config;
+    public TicketConfiguration getCurrentConfig(String eventId) {
+        return getEventOrThrow(eventId).getConfig();
     }
 
     @Override
     public List<SalesOverTimeResponse> getSalesOverTime(LocalDateTime dateTime) {
         LocalDateTime startDateTime = dateTime.minusMinutes(1);
+        // Serve recent windows from the in-memory histogram, fall back to the database for older ones
+        if (salesTimeSeries.covers(startDateTime)) {
+            return salesTimeSeries.getSalesPerSecond(startDateTime, dateTime);
+        }
         List<Map<String, Object>> salesData = ticketRepository.findTicketsSoldPerSecond(startDateTime, dateTime);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss");
@@ -85,167 +376,628 @@ public class TicketingServiceImpl implements TicketingService {
     }
 
     @Override
-    public void startTicketOperations() {
-        if (isRunning) {
-            LoggingHelper.error("Ticket operations are already running.");
-            throw new IllegalStateException("Ticket operations are already running.");
-        }
+    public void startTicketOperations(String eventId) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (event.isRunning()) {
+                LoggingHelper.error("Ticket operations are already running.");
+                throw new IllegalStateException("Ticket operations are already running.");
+            }
 
-        ticketPool = new TicketPool(config.getMaxTicketCapacity(), config.getTotalTickets(), webSocketMessageService, ticketRepository);
-        vendorThreads.clear();
-        customerThreads.clear();
+            TicketConfiguration config = event.getConfig();
+            TicketPool ticketPool = ticketPoolFactory.create(eventId, config.getMaxTicketCapacity(),
+                    config.getTotalTickets());
+            try {
+                inventoryLeaseService.attach(eventId, config.getTotalTickets(), ticketPool, 0);
+            } catch (RuntimeException e) {
+                ticketPool.stopSystem();
+                throw e;
+            }
+            // Journaled only once the pool is set up, so an event that failed to start is not resumed
+            ticketJournal.eventStarted(eventId, config);
+            event.setTicketPool(ticketPool);
+            event.setShard(participantScheduler.acquireShard());
+            event.setPaused(false);
+            event.getVendorThreads().clear();
+            event.getCustomerThreads().clear();
 
-        LoggingHelper.info("Ticket operations started");
-        webSocketMessageService.sendLogMessage("Ticket operations started");
+            LoggingHelper.info("Ticket operations started for event " + eventId);
+            webSocketMessageService.sendLogMessage("Ticket operations started");
 
-        // Create initial vendor with default configuration
-        String initialVendorName = "Default-Vendor";
-        addVendor(new VendorRequest(initialVendorName, defaultProperties.getTicketReleaseRate()), true);
+            // Create initial vendor at the event's release rate, so it follows changes of that rate
+            String initialVendorName = "Default-Vendor";
+            addVendor(event, new VendorRequest(initialVendorName, config.getTicketReleaseRate()), true);
 
-        isRunning = true;
+            event.setRunning(true);
+        }
     }
 
     @Override
-    public void addVendor(VendorRequest request, Boolean isInitial) {
-        if ((isInitial != null && !isInitial) && !isRunning) {
+    public void addVendor(String eventId, VendorRequest request, Boolean isInitial) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            addVendor(event, request, isInitial);
+        }
+    }
+
+    private void addVendor(TicketingEvent event, VendorRequest request, Boolean isInitial) {
+        if ((isInitial != null && !isInitial) && !event.isRunning()) {
             webSocketMessageService.sendLogMessage("Please start the system first.");
             LoggingHelper.error("Please start the system first.");
             throw new IllegalStateException("Please start the system first.");
         }
-        if (vendorThreads.containsKey(request.getName())) {
+        if (event.getVendorThreads().containsKey(request.getName())) {
             webSocketMessageService.sendLogMessage("Vendor already exists!");
             LoggingHelper.error("Vendor already exists!");
             throw new IllegalStateException("Vendor already exists!");
         }
 
-        Vendor vendor = new Vendor(ticketPool, request.getReleaseRate(), request.getName(), webSocketMessageService);
-        Thread vendorThread = new Thread(vendor);
-        vendorThread.start();
-        vendorThreads.put(request.getName(), vendorThread);
+        Vendor vendor = new Vendor(event.getTicketPool(), request.getReleaseRate(), request.getName(),
+                webSocketMessageService, ticketIdGeneratorFactory.create(request.getName()));
+        ParticipantHandle vendorThread = participantScheduler.start(event.getShard(),
+                event.getId() + "-vendor-" + request.getName(), vendor, false);
+        event.getVendorThreads().put(request.getName(), vendorThread);
+        ticketJournal.vendorAdded(event.getId(), request);
     }
 
     @Override
-    public void addCustomer(CustomerRequest request) {
-        if (!isRunning) {
+    public void addCustomer(String eventId, CustomerRequest request) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (!event.isRunning()) {
+                webSocketMessageService.sendLogMessage("Please start the system first.");
+                LoggingHelper.error("Please start the system first.");
+                throw new IllegalStateException("Please start the system first.");
+            }
+            if (event.getCustomerThreads().containsKey(request.getName())) {
+                LoggingHelper.error("Customer already exists!");
+                throw new IllegalStateException("Customer already exists!");
+            }
+            admissionController.admitCustomer(eventId, request.getName(), event.getCustomerThreads().size());
+
+            Customer customer = new Customer(
+                    request.getName(),
+                    request.isVip(),
+                    request.getNumberOfTickets(),
+                    event.getTicketPool(),
+                    request.getRetrievalRate(),
+                    webSocketMessageService
+            );
+            customerRepository.save(customer);
+            startCustomer(event, customer);
+            ticketJournal.customerAdded(eventId, request);
+            String message = String.format("Customer %s%s added with retrieval rate as %d", customer.getName(), customer.isVip() ? "(VIP)" : "", customer.getRetrievalRate());
+            webSocketMessageService.sendLogMessage(message);
+        }
+    }
+
+    private void startCustomer(TicketingEvent event, Customer customer) {
+        ParticipantHandle customerThread = participantScheduler.start(event.getShard(),
+                event.getId() + "-customer-" + customer.getName(), customer, customer.isVip());
+        event.getCustomerThreads().put(customer.getName(), customerThread);
+    }
+
+    @Override
+    public BulkRegistrationResponse registerCustomers(String eventId, RegistrationFormat format, InputStream body)
+            throws IOException {
+        return registerInBulk(eventId, format, body, CustomerRequest.class, this::registerCustomerBatch, "customers");
+    }
+
+    @Override
+    public BulkRegistrationResponse registerVendors(String eventId, RegistrationFormat format, InputStream body)
+            throws IOException {
+        return registerInBulk(eventId, format, body, VendorRequest.class, this::registerVendorBatch, "vendors");
+    }
+
+    /*
+     * Read the body row by row and register the rows a batch at a time, holding the event only
+     * while a batch is checked and started so the running sale is not held up by the upload.
+     */
+    private <T> BulkRegistrationResponse registerInBulk(String eventId, RegistrationFormat format, InputStream body,
+            Class<T> type, BiConsumer<TicketingEvent, BulkRegistration<T>> registerBatch, String participants)
+            throws IOException {
+        TicketingEvent event = getEventOrThrow(eventId);
+        if (!event.isRunning()) {
             webSocketMessageService.sendLogMessage("Please start the system first.");
             LoggingHelper.error("Please start the system first.");
             throw new IllegalStateException("Please start the system first.");
         }
-        if (customerThreads.containsKey(request.getName())) {
-            LoggingHelper.error("Customer already exists!");
-            throw new IllegalStateException("Customer already exists!");
+
+        BulkRegistration<T> registration = new BulkRegistration<>(bulkProperties.getMaxReportedErrors());
+        try (ParticipantRecordReader<T> reader = new ParticipantRecordReader<>(body, format, objectMapper, type)) {
+            while (true) {
+                T request;
+                try {
+                    request = reader.next();
+                } catch (IllegalArgumentException e) {
+                    registration.reject(reader.getLineNumber(), e.getMessage());
+                    continue;
+                }
+                if (request == null) {
+                    break;
+                }
+                registration.add(reader.getLineNumber(), request);
+                if (registration.lines.size() >= bulkProperties.getBatchSize()) {
+                    registerBatch.accept(event, registration);
+                    registration.clearBatch();
+                }
+            }
+        }
+        if (!registration.lines.isEmpty()) {
+            registerBatch.accept(event, registration);
         }
 
-        Customer customer = new Customer(
-                request.getName(),
-                request.isVip(),
-                request.getNumberOfTickets(),
-                ticketPool,
-                request.getRetrievalRate(),
-                webSocketMessageService
-        );
-        customerRepository.save(customer);
-        Thread customerThread = new Thread(customer);
-        customerThread.setPriority(customer.isVip() ? Thread.MAX_PRIORITY : Thread.NORM_PRIORITY);
-        customerThread.start();
-        customerThreads.put(request.getName(), customerThread);
-        String message = String.format("Customer %s%s added with retrieval rate as %d", customer.getName(), customer.isVip() ? "(VIP)" : "", customer.getRetrievalRate());
+        String message = "Bulk registration added " + registration.accepted + " " + participants + " to event "
+                + eventId + ", rejected " + registration.rejected;
         webSocketMessageService.sendLogMessage(message);
+        LoggingHelper.info(message);
+        return new BulkRegistrationResponse(registration.accepted, registration.rejected, registration.errors);
     }
 
-    @Override
-    public void stopTicketOperations() {
-        if (!isRunning) {
-            webSocketMessageService.sendLogMessage("Ticket operations are not running.");
-            LoggingHelper.error("Ticket operations are not running.");
-            throw new IllegalStateException("Ticket operations are not running.");
-        }
+    /*
+     * Check, save and start one batch of customers: duplicates and invalid rows are rejected, as
+     * are customers beyond the event's free places.
+     */
+    private void registerCustomerBatch(TicketingEvent event, BulkRegistration<CustomerRequest> batch) {
+        synchronized (event) {
+            if (!event.isRunning()) {
+                batch.rejectBatch("Ticket operations are not running.");
+                return;
+            }
+            int freePlaces = admissionController.getFreeCustomerPlaces(event.getId(),
+                    event.getCustomerThreads().size());
+            Set<String> names = new HashSet<>();
+            List<CustomerRequest> accepted = new ArrayList<>();
+            List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < batch.requests.size(); i++) {
+                CustomerRequest request = batch.requests.get(i);
+                String problem = checkParticipant(request.getName(), request.getRetrievalRate(), "Retrieval rate");
+                if (problem == null && (event.getCustomerThreads().containsKey(request.getName())
+                        || !names.add(request.getName()))) {
+                    problem = "Customer already exists!";
+                }
+                if (problem == null && customers.size() >= freePlaces) {
+                    problem = "The event is full.";
+                }
+                if (problem != null) {
+                    batch.reject(batch.lines.get(i), problem);
+                    continue;
+                }
+                accepted.add(request);
+                customers.add(new Customer(request.getName(), request.isVip(), request.getNumberOfTickets(),
+                        event.getTicketPool(), request.getRetrievalRate(), webSocketMessageService));
+            }
+            if (customers.isEmpty()) {
+                return;
+            }
 
-        if (ticketPool != null) {
-            ticketPool.stopSystem();
+            customerRepository.insertAll(customers);
+            List<ParticipantHandle> handles = participantScheduler.startAll(event.getShard(),
+                    event.getId() + "-customer-", customers, Customer::isVip);
+            for (int i = 0; i < customers.size(); i++) {
+                event.getCustomerThreads().put(customers.get(i).getName(), handles.get(i));
+                ticketJournal.customerAdded(event.getId(), accepted.get(i));
+            }
+            batch.accepted += customers.size();
         }
+    }
 
-        // Stop all vendors
-        vendorThreads.forEach((name, thread) -> {
-            thread.interrupt();
-            try {
-                thread.join(1000);
-            } catch (InterruptedException e) {
-                webSocketMessageService.sendLogMessage("Interrupted while waiting for vendor " + name + " to stop");
-                LoggingHelper.warn("Interrupted while waiting for vendor " + name + " to stop");
+    /*
+     * Check and start one batch of vendors: duplicates and invalid rows are rejected.
+     */
+    private void registerVendorBatch(TicketingEvent event, BulkRegistration<VendorRequest> batch) {
+        synchronized (event) {
+            if (!event.isRunning()) {
+                batch.rejectBatch("Ticket operations are not running.");
+                return;
+            }
+            Set<String> names = new HashSet<>();
+            List<VendorRequest> accepted = new ArrayList<>();
+            List<Vendor> vendors = new ArrayList<>();
+            for (int i = 0; i < batch.requests.size(); i++) {
+                VendorRequest request = batch.requests.get(i);
+                String problem = checkParticipant(request.getName(), request.getReleaseRate(), "Release rate");
+                if (problem == null && (event.getVendorThreads().containsKey(request.getName())
+                        || !names.add(request.getName()))) {
+                    problem = "Vendor already exists!";
+                }
+                if (problem != null) {
+                    batch.reject(batch.lines.get(i), problem);
+                    continue;
+                }
+                accepted.add(request);
+                vendors.add(new Vendor(event.getTicketPool(), request.getReleaseRate(), request.getName(),
+                        webSocketMessageService, ticketIdGeneratorFactory.create(request.getName())));
+            }
+            if (vendors.isEmpty()) {
+                return;
             }
-        });
 
-        // Stop all customers
-        customerThreads.forEach((name, thread) -> {
-            thread.interrupt();
-            try {
-                thread.join(1000);
-            } catch (InterruptedException e) {
-                webSocketMessageService.sendLogMessage("Interrupted while waiting for customer " + name + " to stop");
-                LoggingHelper.warn("Interrupted while waiting for customer " + name + " to stop");
+            List<ParticipantHandle> handles = participantScheduler.startAll(event.getShard(),
+                    event.getId() + "-vendor-", vendors, vendor -> false);
+            for (int i = 0; i < vendors.size(); i++) {
+                event.getVendorThreads().put(accepted.get(i).getName(), handles.get(i));
+                ticketJournal.vendorAdded(event.getId(), accepted.get(i));
             }
-        });
+            batch.accepted += vendors.size();
+        }
+    }
 
-        // Clean up
-        vendorThreads.clear();
-        customerThreads.clear();
-        ticketPool = null;
-        isRunning = false;
-        webSocketMessageService.sendLogMessage("Ticket Operation Stopped.");
-        LoggingHelper.info("Ticket Operation Stopped.");
+    /*
+     * Get why a participant row cannot be registered, or null if it can.
+     */
+    private static String checkParticipant(String name, int rate, String rateName) {
+        if (name == null || name.isBlank()) {
+            return "Name is missing.";
+        }
+        if (rate <= 0) {
+            return rateName + " must be positive.";
+        }
+        return null;
+    }
+
+    /*
+     * Rows of a bulk registration waiting to be registered, with their line numbers, and the
+     * counts so far.
+     */
+    private static class BulkRegistration<T> {
+        private final int maxReportedErrors;
+        private final List<Integer> lines = new ArrayList<>();
+        private final List<T> requests = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int accepted;
+        private int rejected;
 
+        BulkRegistration(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void add(int line, T request) {
+            lines.add(line);
+            requests.add(request);
+        }
+
+        void reject(int line, String reason) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add("Line " + line + ": " + reason);
+            }
+        }
+
+        void rejectBatch(String reason) {
+            lines.forEach(line -> reject(line, reason));
+        }
+
+        void clearBatch() {
+            lines.clear();
+            requests.clear();
+        }
     }
 
+    @Override
+    public PurchaseResponse purchaseTickets(String eventId, PurchaseRequest request) {
+        checkQuantity(request);
+        TicketPool ticketPool = getRunningPool(eventId);
+        Customer customer = toCustomer(request, ticketPool);
+        List<Ticket> tickets = ticketPool.removeTickets(customer, request.getQuantity());
+        if (tickets.isEmpty()) {
+            String message = "Not enough tickets available to sell " + request.getQuantity() + " tickets.";
+            LoggingHelper.warn(message);
+            throw new IllegalStateException(message);
+        }
+        return toPurchaseResponse(customer, tickets);
+    }
 
     @Override
-    public void pauseTicketOperations() {
-        if (!isRunning) {
-            webSocketMessageService.sendLogMessage("Ticket operations are not running.");
-            LoggingHelper.error("Ticket operations are not running.");
-            throw new IllegalStateException("Ticket operations are not running.");
+    public HoldResponse holdTickets(String eventId, PurchaseRequest request) {
+        checkQuantity(request);
+        TicketPool ticketPool = getRunningPool(eventId);
+        Customer customer = toCustomer(request, ticketPool);
+        TicketReservation reservation = reservationRegistry.hold(eventId, ticketPool, customer, request.getQuantity());
+        if (reservation == null) {
+            String message = "Not enough tickets available to hold " + request.getQuantity() + " tickets.";
+            LoggingHelper.warn(message);
+            throw new IllegalStateException(message);
+        }
+
+        List<String> ticketNames = reservation.getTickets().stream()
+                .map(Ticket::getTicketName)
+                .collect(Collectors.toList());
+        if (webSocketMessageService.isLogEnabled()) {
+            String message = String.format("%s%s holds %d tickets until %s: %s", customer.getName(),
+                    customer.isVip() ? "(VIP)" : "", ticketNames.size(), reservation.getExpiresAt(),
+                    String.join(", ", ticketNames));
+            webSocketMessageService.sendLogMessage(message);
+            LoggingHelper.info(message);
+        }
+        return new HoldResponse(reservation.getId(), customer.getName(), ticketNames, reservation.getExpiresAt());
+    }
+
+    @Override
+    public PurchaseResponse confirmHold(String eventId, String holdId) {
+        TicketReservation reservation = getHoldOrThrow(eventId, holdId);
+        if (!reservationRegistry.confirm(reservation)) {
+            String message = "Hold " + holdId + " has expired or already ended.";
+            LoggingHelper.warn(message);
+            throw new IllegalStateException(message);
+        }
+        return toPurchaseResponse(reservation.getCustomer(), reservation.getTickets());
+    }
+
+    @Override
+    public void cancelHold(String eventId, String holdId) {
+        TicketReservation reservation = getHoldOrThrow(eventId, holdId);
+        if (!reservationRegistry.cancel(reservation)) {
+            String message = "Hold " + holdId + " has expired or already ended.";
+            LoggingHelper.warn(message);
+            throw new IllegalStateException(message);
+        }
+        LoggingHelper.info("Hold " + holdId + " cancelled");
+    }
+
+    /*
+     * Sell one ticket, waiting in the pool's waiting queue if none is available. Nothing blocks
+     * while the customer waits: the future completes when the pool sells them a ticket, or with a
+     * TimeoutException once they have been taken out of the queue after the timeout.
+     */
+    @Override
+    public CompletableFuture<PurchaseResponse> buyTicket(String eventId, BuyRequest request, Long timeoutMs) {
+        long timeout = Math.min(timeoutMs != null ? timeoutMs : buyProperties.getDefaultTimeoutMs(),
+                buyProperties.getMaxTimeoutMs());
+        if (timeout <= 0) {
+            LoggingHelper.error("Timeout must be positive.");
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        TicketPool ticketPool = getRunningPool(eventId);
+        if (ticketPool.isPaused()) {
+            LoggingHelper.error("Ticket operations are paused.");
+            throw new IllegalStateException("Ticket operations are paused.");
+        }
+
+        Customer customer = new Customer(request.getCustomerName(), request.isVip(), 1, ticketPool, 0,
+                webSocketMessageService);
+        CompletableFuture<Ticket> soldTicket = customer.awaitTicket();
+        try {
+            ticketPool.removeTicket(customer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while buying a ticket.");
+        }
+        // A pool that stopped (sold out), paused or backed up meanwhile did not queue the customer
+        if (!soldTicket.isDone() && (ticketPool.isSystemStopped() || ticketPool.isPaused() || ticketPool.isBackedUp())
+                && !ticketPool.cancelWaiting(customer) && !soldTicket.isDone()) {
+            LoggingHelper.warn("No ticket available for " + customer.getName());
+            throw new IllegalStateException("No tickets are available.");
+        }
+
+        if (!soldTicket.isDone()) {
+            CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS).execute(() -> {
+                if (ticketPool.cancelWaiting(customer)) {
+                    soldTicket.completeExceptionally(new TimeoutException(
+                            "No ticket became available within " + timeout + " ms."));
+                } else {
+                    // The customer has just been taken from the queue and the sale completes the future
+                    soldTicket.orTimeout(1, TimeUnit.SECONDS);
+                }
+            });
+        }
+        return soldTicket.thenApply(ticket -> toPurchaseResponse(customer, List.of(ticket)));
+    }
+
+    private static void checkQuantity(PurchaseRequest request) {
+        if (request.getQuantity() <= 0) {
+            LoggingHelper.error("Quantity must be at least 1.");
+            throw new IllegalArgumentException("Quantity must be at least 1.");
         }
-        if (isPaused) {
-            webSocketMessageService.sendLogMessage("Ticket operations are already paused.");
-            LoggingHelper.error("Ticket operations are already paused.");
-            throw new IllegalStateException("Ticket operations are already paused.");
+    }
+
+    /*
+     * Pool of a running event for a purchase, hold or buy request.
+     */
+    private TicketPool getRunningPool(String eventId) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        // Purchases and holds do not take the event's monitor, the pool makes them atomic
+        TicketPool ticketPool = event.getTicketPool();
+        if (!event.isRunning() || ticketPool == null) {
+            LoggingHelper.error("Please start the system first.");
+            throw new IllegalStateException("Please start the system first.");
         }
+        if (ticketPool.isBackedUp()) {
+            String message = "Ticket sales are held back until pending ticket changes are saved, please retry later.";
+            LoggingHelper.warn(message);
+            throw new IllegalStateException(message);
+        }
+        return ticketPool;
+    }
 
-        webSocketMessageService.sendLogMessage("Pausing ticket operations...");
-        LoggingHelper.info("Pausing ticket operations...");
-        isPaused = true;
-        ticketPool.setPaused(true);
+    private Customer toCustomer(PurchaseRequest request, TicketPool ticketPool) {
+        return new Customer(
+                request.getCustomerName(),
+                request.isVip(),
+                request.getQuantity(),
+                ticketPool,
+                0,
+                webSocketMessageService
+        );
+    }
+
+    /*
+     * Look up an active hold of the event, failing with NoSuchElementException if there is none.
+     */
+    private TicketReservation getHoldOrThrow(String eventId, String holdId) {
+        getEventOrThrow(eventId);
+        TicketReservation reservation = reservationRegistry.get(holdId);
+        if (reservation == null || !reservation.getEventId().equals(eventId)) {
+            String message = "Hold " + holdId + " does not exist for event " + eventId + ".";
+            LoggingHelper.error(message);
+            throw new NoSuchElementException(message);
+        }
+        return reservation;
+    }
+
+    private PurchaseResponse toPurchaseResponse(Customer customer, List<Ticket> tickets) {
+        List<String> ticketNames = tickets.stream().map(Ticket::getTicketName).collect(Collectors.toList());
+        if (webSocketMessageService.isLogEnabled()) {
+            String message = String.format("%s%s purchased %d tickets: %s", customer.getName(),
+                    customer.isVip() ? "(VIP)" : "", ticketNames.size(), String.join(", ", ticketNames));
+            webSocketMessageService.sendLogMessage(message);
+            LoggingHelper.info(message);
+        }
+        return new PurchaseResponse(customer.getName(), ticketNames);
     }
 
     @Override
-    public void resumeTicketOperations() {
-        if (!isRunning) {
-            webSocketMessageService.sendLogMessage("Ticket operations are not running.");
-            LoggingHelper.error("Ticket operations are not running.");
-            throw new IllegalStateException("Ticket operations are not running.");
+    public void stopTicketOperations(String eventId) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (!event.isRunning()) {
+                webSocketMessageService.sendLogMessage("Ticket operations are not running.");
+                LoggingHelper.error("Ticket operations are not running.");
+                throw new IllegalStateException("Ticket operations are not running.");
+            }
+
+            // Held tickets go back to the pool before it stops
+            reservationRegistry.cancelAll(eventId);
+            admissionController.closeWaitingRoom(eventId);
+            if (event.getTicketPool() != null) {
+                event.getTicketPool().stopSystem();
+            }
+
+            // Stop all vendors
+            event.getVendorThreads().forEach((name, thread) -> {
+                thread.stop();
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    webSocketMessageService.sendLogMessage("Interrupted while waiting for vendor " + name + " to stop");
+                    LoggingHelper.warn("Interrupted while waiting for vendor " + name + " to stop");
+                }
+            });
+
+            // Stop all customers
+            event.getCustomerThreads().forEach((name, thread) -> {
+                thread.stop();
+                try {
+                    thread.join(1000);
+                } catch (InterruptedException e) {
+                    webSocketMessageService.sendLogMessage("Interrupted while waiting for customer " + name + " to stop");
+                    LoggingHelper.warn("Interrupted while waiting for customer " + name + " to stop");
+                }
+            });
+
+            // The vendors have stopped, so the unreleased tickets can go to the other instances
+            try {
+                inventoryLeaseService.detach(eventId);
+            } catch (RuntimeException e) {
+                // The other instances take the lease back once it expires
+                LoggingHelper.error("Could not give back the tickets of event " + eventId + ": " + e.getMessage());
+            }
+
+            // Write every queued ticket change before reporting the stop. A database that is down
+            // does not keep the event running, the writer keeps the changes and retries them.
+            try {
+                ticketPersistenceService.flush();
+            } catch (RuntimeException e) {
+                String message = "Ticket changes could not be saved yet, they are written once the database is back: "
+                        + e.getMessage();
+                webSocketMessageService.sendLogMessage(message);
+                LoggingHelper.error(message);
+            }
+            ticketJournal.eventStopped(eventId);
+
+            // Clean up
+            event.getVendorThreads().clear();
+            event.getCustomerThreads().clear();
+            event.setTicketPool(null);
+            participantScheduler.releaseShard(event.getShard());
+            event.setShard(-1);
+            event.setPaused(false);
+            event.setRunning(false);
+            webSocketMessageService.sendLogMessage("Ticket Operation Stopped.");
+            LoggingHelper.info("Ticket Operation Stopped for event " + eventId);
         }
-        if (!isPaused) {
-            webSocketMessageService.sendLogMessage("Ticket operations are already paused.");
-            LoggingHelper.error("Ticket operations are already paused.");
-            throw new IllegalStateException("Ticket operations are already paused.");
+    }
+
+    @Override
+    public void pauseTicketOperations(String eventId) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (!event.isRunning()) {
+                webSocketMessageService.sendLogMessage("Ticket operations are not running.");
+                LoggingHelper.error("Ticket operations are not running.");
+                throw new IllegalStateException("Ticket operations are not running.");
+            }
+            if (event.isPaused()) {
+                webSocketMessageService.sendLogMessage("Ticket operations are already paused.");
+                LoggingHelper.error("Ticket operations are already paused.");
+                throw new IllegalStateException("Ticket operations are already paused.");
+            }
+
+            webSocketMessageService.sendLogMessage("Pausing ticket operations...");
+            LoggingHelper.info("Pausing ticket operations...");
+            event.setPaused(true);
+            event.getTicketPool().setPaused(true);
         }
+    }
+
+    @Override
+    public void resumeTicketOperations(String eventId) {
+        TicketingEvent event = getEventOrThrow(eventId);
+        synchronized (event) {
+            if (!event.isRunning()) {
+                webSocketMessageService.sendLogMessage("Ticket operations are not running.");
+                LoggingHelper.error("Ticket operations are not running.");
+                throw new IllegalStateException("Ticket operations are not running.");
+            }
+            if (!event.isPaused()) {
+                webSocketMessageService.sendLogMessage("Ticket operations are already paused.");
+                LoggingHelper.error("Ticket operations are already paused.");
+                throw new IllegalStateException("Ticket operations are already paused.");
+            }
 
-        webSocketMessageService.sendLogMessage("Resuming ticket operations...");
-        LoggingHelper.info("Resuming ticket operations...");
-        isPaused = false;
-        ticketPool.setPaused(false);
-        ticketPool.notifyAllWaiting();
+            webSocketMessageService.sendLogMessage("Resuming ticket operations...");
+            LoggingHelper.info("Resuming ticket operations...");
+            event.setPaused(false);
+            event.getTicketPool().setPaused(false);
+        }
     }
 
     @Override
-    public SystemStatusResponse getSystemStatus() {
+    public SystemStatusResponse getSystemStatus(String eventId) {
+        return getSystemStatus(getEventOrThrow(eventId));
+    }
+
+    private SystemStatusResponse getSystemStatus(TicketingEvent event) {
+        // Configured vs achieved ticks per second across all running participants
+        double configuredTickRate = 0;
+        double achievedTickRate = 0;
+        for (ParticipantHandle handle : event.getVendorThreads().values()) {
+            configuredTickRate += handle.getParticipant().getConfiguredTickRate();
+            achievedTickRate += handle.getAchievedTickRate();
+        }
+        for (ParticipantHandle handle : event.getCustomerThreads().values()) {
+            configuredTickRate += handle.getParticipant().getConfiguredTickRate();
+            achievedTickRate += handle.getAchievedTickRate();
+        }
+
+        // One lock-free read of the pool's counts, so they are consistent with each other
+        TicketPool ticketPool = event.getTicketPool();
+        PoolSnapshot snapshot = ticketPool != null ? ticketPool.getSnapshot() : PoolSnapshot.EMPTY;
         return new SystemStatusResponse(
-                isRunning,
-                isPaused,
-                ticketPool != null ? ticketPool.getTicketCount() : 0,
-                ticketPool != null ? ticketPool.getRemainingTotalTickets() : 0,
-                vendorThreads.size(),
-                customerThreads.size()
+                event.isRunning(),
+                event.isPaused(),
+                snapshot.getTicketCount(),
+                snapshot.getHeldTickets(),
+                snapshot.getRemainingTotalTickets(),
+                event.getVendorThreads().size(),
+                event.getCustomerThreads().size(),
+                configuredTickRate,
+                achievedTickRate,
+                webSocketMessageService.getSentMessageCount(),
+                webSocketMessageService.getDroppedMessageCount(),
+                metrics.getAdmittedCount(),
+                metrics.getRejectedCount(),
+                admissionController.getWaitingRoomSize(event.getId())
         );
     }
 }
@@ -1,17 +1,79 @@
 package me.nethuli.ticketingsystem.service.impl;
 
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import me.nethuli.ticketingsystem.config.TicketingBroadcastProperties;
+import me.nethuli.ticketingsystem.helper.BatchingBroadcaster;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
 import me.nethuli.ticketingsystem.service.WebSocketMessageService;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/*
+ * Log messages are put on a bounded ring buffer and a single broadcast thread sends them in
+ * batched frames, so publishers (often inside the ticket pool) never wait on the broker.
+ */
 @Service
 @RequiredArgsConstructor
 public class WebSocketMessageServiceImpl implements WebSocketMessageService {
+    private static final String LOG_TOPIC = "/topic/log";
+    private static final String LOG_BATCH_TOPIC = "/topic/log-batch";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final TicketingBroadcastProperties properties;
+    private final TicketingMetrics metrics;
+
+    private BatchingBroadcaster<String> broadcaster;
+    private Timer sendTimer;
+
+    @PostConstruct
+    public void start() {
+        sendTimer = metrics.broadcastSendTimer(LOG_BATCH_TOPIC);
+        broadcaster = new BatchingBroadcaster<>("log-broadcaster", properties.getBufferCapacity(),
+                properties.getFlushIntervalMs(), properties.getMaxBatchSize(), properties.getOverflowPolicy(),
+                properties.getSampleRate(), this::send);
+        broadcaster.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdown();
+    }
 
     @Override
     public void sendLogMessage(String message) {
-        messagingTemplate.convertAndSend("/topic/log", message);
+        if (properties.isLogEnabled()) {
+            broadcaster.publish(message);
+        }
+    }
+
+    @Override
+    public boolean isLogEnabled() {
+        return properties.isLogEnabled();
+    }
+
+    private void send(List<String> batch) {
+        sendTimer.record(() -> {
+            messagingTemplate.convertAndSend(LOG_BATCH_TOPIC, batch);
+            if (properties.isLegacyLogTopic()) {
+                for (String message : batch) {
+                    messagingTemplate.convertAndSend(LOG_TOPIC, message);
+                }
+            }
+        });
+    }
+
+    @Override
+    public long getSentMessageCount() {
+        return broadcaster.getSentCount();
+    }
+
+    @Override
+    public long getDroppedMessageCount() {
+        return broadcaster.getDroppedCount();
     }
 }
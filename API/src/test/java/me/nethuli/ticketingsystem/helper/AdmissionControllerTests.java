@@ -0,0 +1,61 @@
+package me.nethuli.ticketingsystem.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.nethuli.ticketingsystem.config.TicketingAdmissionProperties;
+import me.nethuli.ticketingsystem.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTests {
+    private final TicketingAdmissionProperties properties = new TicketingAdmissionProperties();
+    private final TicketingMetrics metrics = new TicketingMetrics(new SimpleMeterRegistry());
+    private AdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        properties.setClientRatePerSecond(0.001);
+        properties.setClientBurst(2);
+        properties.setMaxActiveCustomers(2);
+        admissionController = new AdmissionController(properties, metrics);
+        admissionController.init();
+    }
+
+    @Test
+    void clientsAreLimitedIndependently() {
+        admissionController.admitRequest("a", false);
+        admissionController.admitRequest("a", false);
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> admissionController.admitRequest("a", false));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertNull(rejected.getQueuePosition());
+
+        admissionController.admitRequest("b", false);
+        assertEquals(3, metrics.getAdmittedCount());
+        assertEquals(1, metrics.getRejectedCount());
+    }
+
+    @Test
+    void waitingRoomAdmitsCustomersInArrivalOrder() {
+        // Customer registrations are counted by the waiting room, not when they pass the rate limits
+        admissionController.admitRequest("first", true);
+        assertEquals(0, metrics.getAdmittedCount());
+        admissionController.admitCustomer("event", "first", 1);
+
+        // The event is full, so customers are queued in arrival order
+        AdmissionRejectedException second = assertThrows(AdmissionRejectedException.class,
+                () -> admissionController.admitCustomer("event", "second", 2));
+        AdmissionRejectedException third = assertThrows(AdmissionRejectedException.class,
+                () -> admissionController.admitCustomer("event", "third", 2));
+        assertEquals(1, second.getQueuePosition());
+        assertEquals(2, third.getQueuePosition());
+
+        // A free place goes to the head of the queue, not to whoever retries first
+        assertThrows(AdmissionRejectedException.class, () -> admissionController.admitCustomer("event", "third", 1));
+        admissionController.admitCustomer("event", "second", 1);
+        assertEquals(1, admissionController.getWaitingRoomSize("event"));
+        assertEquals(2, metrics.getAdmittedCount());
+        assertEquals(3, metrics.getRejectedCount());
+    }
+}
@@ -0,0 +1,35 @@
+package me.nethuli.ticketingsystem.helper;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrivalScheduleTests {
+    @ParameterizedTest
+    @EnumSource(ArrivalPattern.class)
+    void everyPatternBringsTheAverageRateWithinTheDuration(ArrivalPattern pattern) {
+        ArrivalSchedule schedule = new ArrivalSchedule(pattern, 1000, 10, 50, new SplittableRandom(42));
+        int arrivals = 0;
+        int inFirstSecond = 0;
+        long previous = 0;
+        for (long arrival = schedule.next(); arrival >= 0; arrival = schedule.next()) {
+            assertTrue(arrival >= previous);
+            assertTrue(arrival < 10_000_000_000L);
+            previous = arrival;
+            arrivals++;
+            if (arrival < 1_000_000_000L) {
+                inFirstSecond++;
+            }
+        }
+        assertEquals(10_000, arrivals, 300);
+        switch (pattern) {
+            // A ramp brings 1/100 of its customers in the first tenth of the time
+            case RAMP -> assertEquals(100, inFirstSecond, 40);
+            case POISSON -> assertEquals(1000, inFirstSecond, 120);
+            case BURST -> assertEquals(1000, inFirstSecond);
+        }
+    }
+}
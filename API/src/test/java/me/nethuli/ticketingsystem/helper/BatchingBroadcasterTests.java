@@ -0,0 +1,101 @@
+package me.nethuli.ticketingsystem.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingBroadcasterTests {
+    // The ring holds 8 items, SAMPLE starts sampling at 6
+    private static final int CAPACITY = 8;
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private final Queue<List<Integer>> batches = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void dropNewestKeepsTheFirstItemsAndCountsTheRest() throws InterruptedException {
+        BatchingBroadcaster<Integer> broadcaster = newBroadcaster(BroadcastOverflowPolicy.DROP_NEWEST, 1);
+        publishAndFlush(broadcaster, 20);
+
+        assertEquals(8, broadcaster.getSentCount());
+        assertEquals(12, broadcaster.getDroppedCount());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), sentItems());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= MAX_BATCH_SIZE));
+    }
+
+    @Test
+    void dropOldestKeepsTheLatestItemsAndCountsTheRest() throws InterruptedException {
+        BatchingBroadcaster<Integer> broadcaster = newBroadcaster(BroadcastOverflowPolicy.DROP_OLDEST, 1);
+        publishAndFlush(broadcaster, 20);
+
+        assertEquals(8, broadcaster.getSentCount());
+        assertEquals(12, broadcaster.getDroppedCount());
+        assertEquals(List.of(12, 13, 14, 15, 16, 17, 18, 19), sentItems());
+    }
+
+    @Test
+    void sampleKeepsEveryNthItemAboveTheHighWaterMark() throws InterruptedException {
+        BatchingBroadcaster<Integer> broadcaster = newBroadcaster(BroadcastOverflowPolicy.SAMPLE, 3);
+        publishAndFlush(broadcaster, 12);
+
+        // Below the high-water mark everything is kept, then only every third item
+        assertEquals(8, broadcaster.getSentCount());
+        assertEquals(4, broadcaster.getDroppedCount());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 8, 11), sentItems());
+    }
+
+    @Test
+    void itemsPublishedBetweenFlushesAreAllSent() throws InterruptedException {
+        BatchingBroadcaster<Integer> broadcaster = newBroadcaster(BroadcastOverflowPolicy.DROP_NEWEST, 1);
+        broadcaster.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                broadcaster.publish(i);
+                Thread.sleep(1);
+            }
+            assertTrue(waitFor(() -> broadcaster.getSentCount() + broadcaster.getDroppedCount() == 50));
+        } finally {
+            broadcaster.shutdown();
+        }
+        assertEquals(broadcaster.getSentCount(), sentItems().size());
+        assertEquals(sentItems().stream().sorted().toList(), sentItems());
+    }
+
+    private BatchingBroadcaster<Integer> newBroadcaster(BroadcastOverflowPolicy policy, int sampleRate) {
+        return new BatchingBroadcaster<>("test-broadcast", CAPACITY, 5, MAX_BATCH_SIZE, policy, sampleRate,
+                batches::add);
+    }
+
+    // Publish everything before the broadcast thread starts, so the first flush sees a full ring
+    private static void publishAndFlush(BatchingBroadcaster<Integer> broadcaster, int items)
+            throws InterruptedException {
+        IntStream.range(0, items).forEach(broadcaster::publish);
+        broadcaster.start();
+        try {
+            assertTrue(waitFor(() -> broadcaster.getSentCount() + broadcaster.getDroppedCount() == items));
+        } finally {
+            broadcaster.shutdown();
+        }
+    }
+
+    private List<Integer> sentItems() {
+        return batches.stream().flatMap(List::stream).toList();
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+}
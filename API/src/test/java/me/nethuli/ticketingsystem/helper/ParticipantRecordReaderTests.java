@@ -0,0 +1,55 @@
+package me.nethuli.ticketingsystem.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.nethuli.ticketingsystem.dto.CustomerRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantRecordReaderTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ParticipantRecordReader<CustomerRequest> reader(RegistrationFormat format, String body) {
+        InputStream input = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        return new ParticipantRecordReader<>(input, format, objectMapper, CustomerRequest.class);
+    }
+
+    @Test
+    void ndjsonRowsAreReadOneAtATime() throws IOException {
+        try (ParticipantRecordReader<CustomerRequest> reader = reader(RegistrationFormat.NDJSON,
+                "{\"name\":\"a\",\"vip\":true,\"retrievalRate\":2}\n\n{\"name\":\"b\",\"retrievalRate\":1}\n")) {
+            CustomerRequest first = reader.next();
+            assertEquals("a", first.getName());
+            assertTrue(first.isVip());
+            assertEquals(2, first.getRetrievalRate());
+            assertEquals("b", reader.next().getName());
+            assertEquals(3, reader.getLineNumber());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void csvRowsAreMappedByTheHeaderAndBadRowsAreSkipped() throws IOException {
+        try (ParticipantRecordReader<CustomerRequest> reader = reader(RegistrationFormat.CSV,
+                "name,vip,numberOfTickets,retrievalRate\n\"Doe, Jane\",true,,3\nbad,row\nJohn,false,2,1\n")) {
+            CustomerRequest first = reader.next();
+            assertEquals("Doe, Jane", first.getName());
+            assertTrue(first.isVip());
+            assertNull(first.getNumberOfTickets());
+            assertEquals(3, first.getRetrievalRate());
+
+            assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals(3, reader.getLineNumber());
+
+            CustomerRequest last = reader.next();
+            assertEquals("John", last.getName());
+            assertEquals(2, last.getNumberOfTickets());
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.config.TicketingRuntimeProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantSchedulerTests {
+    private ParticipantScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void eventsArePinnedToTheLeastLoadedShard() {
+        scheduler = newScheduler(ParticipantExecutionMode.SCHEDULED_TICK, 3);
+        assertEquals(0, scheduler.acquireShard());
+        assertEquals(1, scheduler.acquireShard());
+        assertEquals(2, scheduler.acquireShard());
+        assertEquals(0, scheduler.acquireShard());
+
+        scheduler.releaseShard(1);
+        assertEquals(1, scheduler.acquireShard());
+    }
+
+    @Test
+    void stoppingOneParticipantLeavesItsShardMateTicking() throws InterruptedException {
+        scheduler = newScheduler(ParticipantExecutionMode.SCHEDULED_TICK, 1);
+        int shard = scheduler.acquireShard();
+        assertEquals(shard, scheduler.acquireShard());
+
+        CountDownLatch inTick = new CountDownLatch(1);
+        CountDownLatch releaseTick = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountingParticipant stopped = new CountingParticipant("stopped", () -> {
+            inTick.countDown();
+            if (!releaseTick.await(5, TimeUnit.SECONDS)) {
+                fail("tick was never released");
+            }
+        }) {
+            @Override
+            public long tick() throws InterruptedException {
+                try {
+                    return super.tick();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+            }
+        };
+        CountingParticipant survivor = new CountingParticipant("survivor", () -> { });
+        ParticipantHandle stoppedHandle = scheduler.start(shard, "stopped", stopped, false);
+        ParticipantHandle survivorHandle = scheduler.start(shard, "survivor", survivor, false);
+
+        // Stop the participant while its tick is running on the shared shard thread
+        assertTrue(inTick.await(5, TimeUnit.SECONDS));
+        stoppedHandle.stop();
+        releaseTick.countDown();
+        stoppedHandle.join(5_000);
+        assertFalse(interrupted.get(), "stop() interrupted the shared shard thread");
+        assertEquals(1, stopped.stops.get());
+
+        long stoppedTicks = stopped.ticks.get();
+        long survivorTicks = survivor.ticks.get();
+        assertTrue(waitFor(() -> survivor.ticks.get() >= survivorTicks + 5), "survivor stopped ticking");
+        assertEquals(stoppedTicks, stopped.ticks.get());
+        assertEquals(0, survivor.stops.get());
+
+        // A second stop() does not report the stop again
+        stoppedHandle.stop();
+        assertEquals(1, stopped.stops.get());
+        survivorHandle.stop();
+    }
+
+    @Test
+    void participantThatReturnsStopIsNoLongerTicked() throws InterruptedException {
+        scheduler = newScheduler(ParticipantExecutionMode.SCHEDULED_TICK, 1);
+        CountingParticipant finishing = new CountingParticipant("finishing", () -> { }) {
+            @Override
+            public long tick() throws InterruptedException {
+                return super.tick() >= 0 && ticks.get() == 3 ? STOP : 10;
+            }
+        };
+        ParticipantHandle handle = scheduler.start(scheduler.acquireShard(), "finishing", finishing, false);
+        assertTrue(waitFor(() -> finishing.ticks.get() == 3));
+        Thread.sleep(100);
+        assertEquals(3, finishing.ticks.get());
+
+        // Finishing on its own is not a stop from outside
+        handle.stop();
+        assertEquals(0, finishing.stops.get());
+    }
+
+    @Test
+    void participantsStartedTogetherAllTickInEveryMode() throws InterruptedException {
+        for (ParticipantExecutionMode mode : ParticipantExecutionMode.values()) {
+            scheduler = newScheduler(mode, 2);
+            List<CountingParticipant> participants = List.of(new CountingParticipant("a", () -> { }),
+                    new CountingParticipant("b", () -> { }), new CountingParticipant("c", () -> { }));
+            List<ParticipantHandle> handles = scheduler.startAll(scheduler.acquireShard(), "test-", participants,
+                    participant -> participant.getParticipantName().equals("a"));
+
+            assertEquals(participants, handles.stream().map(ParticipantHandle::getParticipant).toList());
+            assertTrue(waitFor(() -> participants.stream().allMatch(p -> p.ticks.get() >= 3)), mode + " did not tick");
+            for (ParticipantHandle handle : handles) {
+                handle.stop();
+                handle.join(5_000);
+            }
+            scheduler.shutdown();
+        }
+    }
+
+    private static ParticipantScheduler newScheduler(ParticipantExecutionMode mode, int tickThreads) {
+        TicketingRuntimeProperties properties = new TicketingRuntimeProperties();
+        properties.setExecutionMode(mode);
+        properties.setTickThreads(tickThreads);
+        ParticipantScheduler scheduler = new ParticipantScheduler(properties);
+        scheduler.init();
+        return scheduler;
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private interface TickBody {
+        void run() throws InterruptedException;
+    }
+
+    private static class CountingParticipant implements TickParticipant {
+        private final String name;
+        private final TickBody body;
+        final AtomicLong ticks = new AtomicLong();
+        final AtomicInteger stops = new AtomicInteger();
+
+        CountingParticipant(String name, TickBody body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        @Override
+        public String getParticipantName() {
+            return name;
+        }
+
+        @Override
+        public long tick() throws InterruptedException {
+            body.run();
+            ticks.incrementAndGet();
+            return 10;
+        }
+
+        @Override
+        public double getConfiguredTickRate() {
+            return 100;
+        }
+
+        @Override
+        public long getCompletedTicks() {
+            return ticks.get();
+        }
+
+        @Override
+        public void onStopped() {
+            stops.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.PoolEventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolEventCodecTests {
+
+    @ParameterizedTest
+    @EnumSource(PoolEventType.class)
+    void everyEventTypeSurvivesARoundTrip(PoolEventType type) {
+        long now = System.currentTimeMillis();
+        String longName = "vendor-" + "x".repeat(10_000);
+        List<PoolEvent> events = List.of(
+                new PoolEvent(type, now, "alpha-TKT-1", "customer-1", true, 3, 97),
+                // Earlier than the base timestamp, so the delta is negative
+                new PoolEvent(type, now - 60_000, null, null, false, 0, 0),
+                new PoolEvent(type, now + Integer.MAX_VALUE * 10L, longName, "ÄÖÜ-客户-" + longName, false,
+                        Integer.MAX_VALUE, Integer.MAX_VALUE),
+                new PoolEvent(type, Long.MIN_VALUE / 4, "", "", true, -1, Integer.MIN_VALUE));
+
+        assertEventsEqual(events, PoolEventCodec.decode(new PoolEventCodec().encode(events)));
+    }
+
+    @Test
+    void encoderCanBeReusedAcrossFrames() {
+        PoolEventCodec codec = new PoolEventCodec();
+        List<PoolEvent> large = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            large.add(PoolEvent.ticketSold("alpha-TKT-" + i, "customer-" + i, i % 2 == 0));
+        }
+        assertEventsEqual(large, PoolEventCodec.decode(codec.encode(large)));
+
+        // A smaller frame after a larger one must not carry bytes over
+        List<PoolEvent> small = List.of(PoolEvent.soldOut());
+        byte[] frame = codec.encode(small);
+        assertEventsEqual(small, PoolEventCodec.decode(frame));
+        assertEquals(List.of(), PoolEventCodec.decode(codec.encode(List.of())));
+        assertTrue(frame.length < 32);
+    }
+
+    @Test
+    void foreignFramesAreRejected() {
+        byte[] frame = new PoolEventCodec().encode(List.of(PoolEvent.soldOut()));
+        frame[2] = PoolEventCodec.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> PoolEventCodec.decode(frame));
+        assertThrows(IllegalArgumentException.class, () -> PoolEventCodec.decode("{\"type\":1}".getBytes()));
+    }
+
+    private static void assertEventsEqual(List<PoolEvent> expected, List<PoolEvent> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            PoolEvent e = expected.get(i);
+            PoolEvent a = actual.get(i);
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getTimestamp(), a.getTimestamp());
+            assertEquals(e.getTicketName(), a.getTicketName());
+            assertEquals(e.getCustomerName(), a.getCustomerName());
+            assertEquals(e.isVip(), a.isVip());
+            assertEquals(e.getTicketCount(), a.getTicketCount());
+            assertEquals(e.getRemainingTotalTickets(), a.getRemainingTotalTickets());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.nethuli.ticketingsystem.helper;
+
+import me.nethuli.ticketingsystem.config.TicketingSalesProperties;
+import me.nethuli.ticketingsystem.dto.SalesOverTimeResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesTimeSeriesTests {
+    private static final int WINDOW_SECONDS = 10;
+
+    private final long now = Instant.now().getEpochSecond();
+
+    @Test
+    void bucketRollsOverToANewSecondAndIgnoresOlderOnes() {
+        SalesTimeSeries series = newSeries();
+        series.recordSales(now, 3);
+        assertEquals(List.of(3L), counts(series, now, now));
+
+        // Same bucket one window later: the old second is dropped, not added to
+        series.recordSale(now + WINDOW_SECONDS);
+        assertEquals(List.of(), counts(series, now, now));
+        assertEquals(List.of(1L), counts(series, now + WINDOW_SECONDS, now + WINDOW_SECONDS));
+
+        // A late sale for the replaced second is too old for the window
+        series.recordSales(now, 5);
+        assertEquals(List.of(1L), counts(series, now, now + WINDOW_SECONDS));
+    }
+
+    @Test
+    void queryIncludesBothEndsOfTheWindowAndSkipsEmptySeconds() {
+        SalesTimeSeries series = newSeries();
+        long first = now - WINDOW_SECONDS + 1;
+        series.recordSales(first - 1, 7);
+        series.recordSales(first, 1);
+        series.recordSales(now - 4, 2);
+        series.recordSales(now, 4);
+
+        // first - 1 shares its bucket with now and was replaced by it
+        List<SalesOverTimeResponse> sales = series.getSalesPerSecond(toTime(first), toTime(now));
+        assertEquals(List.of(1L, 2L, 4L), sales.stream().map(SalesOverTimeResponse::getSalesCount).toList());
+        assertEquals(List.of(1L, 2L), counts(series, first, now - 1));
+        assertEquals(List.of(2L, 4L), counts(series, first + 1, now));
+
+        assertTrue(series.covers(toTime(now)));
+        assertFalse(series.covers(toTime(now - WINDOW_SECONDS)));
+    }
+
+    @Test
+    void bucketSaturatesAtItsMaximumCount() {
+        SalesTimeSeries series = newSeries();
+        series.recordSales(now, Integer.MAX_VALUE);
+        series.recordSale(now);
+        assertEquals(List.of((1L << 24) - 1), counts(series, now, now));
+    }
+
+    @Test
+    void concurrentSalesInOneSecondAreAllCounted() throws Exception {
+        SalesTimeSeries series = newSeries();
+        int threads = 8;
+        int salesPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < salesPerThread; i++) {
+                        series.recordSale(now);
+                        series.recordSales(now + 1, 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of((long) threads * salesPerThread, 2L * threads * salesPerThread),
+                counts(series, now, now + 1));
+    }
+
+    private static SalesTimeSeries newSeries() {
+        TicketingSalesProperties properties = new TicketingSalesProperties();
+        properties.setWindowSeconds(WINDOW_SECONDS);
+        return new SalesTimeSeries(properties);
+    }
+
+    private static List<Long> counts(SalesTimeSeries series, long startSecond, long endSecond) {
+        return series.getSalesPerSecond(toTime(startSecond), toTime(endSecond)).stream()
+                .map(SalesOverTimeResponse::getSalesCount)
+                .toList();
+    }
+
+    private static LocalDateTime toTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
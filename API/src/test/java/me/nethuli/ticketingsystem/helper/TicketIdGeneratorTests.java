@@ -0,0 +1,48 @@
+package me.nethuli.ticketingsystem.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketIdGeneratorTests {
+
+    @Test
+    void snowflakeIdsAreUniqueAndCarryTheNodeId() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        // More ids than fit in one millisecond, from several threads
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(generator.nextId()));
+        assertEquals(50_000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> ((id >>> 12) & SnowflakeIdGenerator.MAX_NODE_ID) == 5));
+        assertThrows(IllegalStateException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void base36EncodingMatchesLongToString() {
+        for (long value : new long[]{0, 35, 36, 123_456_789L, Long.MAX_VALUE}) {
+            assertEquals("T-" + Long.toString(value, 36),
+                    TicketIdGenerator.appendBase36(new StringBuilder("T-"), value).toString());
+        }
+    }
+
+    @Test
+    void inventoryIdsDecodeToTheTicketNames() {
+        TicketIdCodec codec = new TicketIdCodec();
+        long snowflake = new SnowflakeIdGenerator(5).nextId();
+        // Two vendors, and ids too far apart for one series
+        for (String name : new String[]{"alpha-TKT-" + Long.toString(snowflake, 36),
+                "beta-TKT-" + Long.toString(snowflake + 1, 36), "alpha-TKT-" + Long.toString(snowflake >> 1, 36),
+                "alpha-TKT-" + Long.toString(snowflake + 1, 36), "x-TKT-1bc-2s"}) {
+            long inventoryId = codec.encode(name);
+            assertTrue(inventoryId >= 0);
+            assertEquals(name, codec.decode(inventoryId));
+            assertEquals(inventoryId, codec.encode(name));
+        }
+        assertThrows(IllegalArgumentException.class, () -> codec.encode("no-id-"));
+    }
+}
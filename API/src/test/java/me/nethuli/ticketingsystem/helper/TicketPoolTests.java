@@ -0,0 +1,439 @@
+package me.nethuli.ticketingsystem.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.nethuli.ticketingsystem.config.TicketingPoolProperties;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.PoolEvent;
+import me.nethuli.ticketingsystem.model.PoolEventType;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TicketPoolTests {
+    private final WebSocketMessageService webSocketMessageService = mock(WebSocketMessageService.class);
+    private final TicketPersistenceService ticketPersistenceService = mock(TicketPersistenceService.class);
+    private final PoolEventPublisher poolEventPublisher = mock(PoolEventPublisher.class);
+
+    private final TicketPoolContext context = new TicketPoolContext(webSocketMessageService, ticketPersistenceService,
+            poolEventPublisher, mock(SalesTimeSeries.class), new TicketingMetrics(new SimpleMeterRegistry()));
+
+    private TicketPool createPool(TicketPoolMode mode, int maxCapacity, int totalTickets) {
+        return switch (mode) {
+            case FAIR_LOCK -> new FairLockTicketPool(maxCapacity, totalTickets, context);
+            case LOCK_FREE -> new LockFreeTicketPool(maxCapacity, totalTickets, context);
+        };
+    }
+
+    private Customer customer(String name, boolean vip, TicketPool pool) {
+        return new Customer(name, vip, null, pool, 1, webSocketMessageService);
+    }
+
+    private final TicketIdGenerator ticketIds = TicketIdGenerator.sequence("T-");
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void addTicketsRespectsCapacityAndTotal(TicketPoolMode mode) {
+        TicketPool pool = createPool(mode, 5, 7);
+
+        pool.addTickets(ticketIds, 10);
+        assertEquals(5, pool.getTicketCount());
+        assertEquals(2, pool.getRemainingTotalTickets());
+        assertTrue(pool.isAtCapacity());
+
+        pool.addTickets(ticketIds, 10);
+        assertEquals(5, pool.getTicketCount());
+        assertEquals(2, pool.getRemainingTotalTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void waitingVipIsServedBeforeRegularCustomers(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 10);
+        Customer regular = customer("regular", false, pool);
+        Customer vip = customer("vip", true, pool);
+
+        assertNull(pool.removeTicket(regular));
+        assertNull(pool.removeTicket(vip));
+
+        // One ticket goes to the waiting VIP, the next one to the waiting regular customer
+        pool.addTickets(ticketIds, 1);
+        assertEquals(0, pool.getTicketCount());
+        assertNull(pool.removeTicket(customer("late", false, pool)));
+
+        pool.addTickets(ticketIds, 1);
+        assertEquals(0, pool.getTicketCount());
+        assertEquals(8, pool.getRemainingTotalTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void waitingCustomersAreServedInArrivalOrderWithinATier(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 10);
+        Customer first = customer("first", false, pool);
+        Customer second = customer("second", false, pool);
+
+        assertNull(pool.removeTicket(first));
+        assertNull(pool.removeTicket(second));
+        // Asking again while waiting does not take a second place in the queue
+        assertNull(pool.removeTicket(first));
+
+        pool.addTickets(ticketIds, 1);
+        pool.addTickets(ticketIds, 1);
+        pool.addTickets(ticketIds, 1);
+
+        InOrder inOrder = inOrder(poolEventPublisher);
+        inOrder.verify(poolEventPublisher).publish(argThat(event -> isSaleTo(event, "first")));
+        inOrder.verify(poolEventPublisher).publish(argThat(event -> isSaleTo(event, "second")));
+        assertEquals(1, pool.getTicketCount());
+    }
+
+    private static boolean isSaleTo(PoolEvent event, String customerName) {
+        return event.getType() == PoolEventType.TICKET_SOLD && customerName.equals(event.getCustomerName());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void bulkPurchaseSellsAllTicketsOrNone(TicketPoolMode mode) {
+        TicketPool pool = createPool(mode, 5, 10);
+        pool.addTickets(ticketIds, 3);
+
+        assertTrue(pool.removeTickets(customer("group", false, pool), 4).isEmpty());
+        assertEquals(3, pool.getTicketCount());
+
+        List<Ticket> sold = pool.removeTickets(customer("group", false, pool), 2);
+        assertEquals(2, sold.size());
+        assertEquals(Ticket.TicketStatus.SOLD, sold.get(1).getStatus());
+        assertEquals(1, pool.getTicketCount());
+        assertEquals(7, pool.getRemainingTotalTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void heldTicketsKeepTheirSlotsUntilConfirmedOrReleased(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 3, 10);
+        pool.addTickets(ticketIds, 3);
+
+        List<Ticket> held = pool.reserveTickets(customer("holder", false, pool), 2, LocalDateTime.now());
+        assertEquals(2, held.size());
+        assertEquals(Ticket.TicketStatus.RESERVED, held.get(0).getStatus());
+        assertEquals(1, pool.getTicketCount());
+        PoolSnapshot snapshot = pool.getSnapshot();
+        assertEquals(1, snapshot.getTicketCount());
+        assertEquals(2, snapshot.getHeldTickets());
+        assertEquals(7, snapshot.getRemainingTotalTickets());
+        // Held tickets still occupy the pool, so vendors cannot refill it
+        assertTrue(pool.isAtCapacity());
+        assertTrue(pool.reserveTickets(customer("late", false, pool), 2, LocalDateTime.now()).isEmpty());
+
+        // Released tickets go to the waiting customer first
+        assertNotNull(pool.removeTicket(customer("first", false, pool)));
+        assertNull(pool.removeTicket(customer("waiting", false, pool)));
+        pool.releaseReservation(held);
+        assertEquals(1, pool.getTicketCount());
+        verify(poolEventPublisher).publish(argThat(event -> isSaleTo(event, "waiting")));
+
+        Customer buyer = customer("buyer", false, pool);
+        List<Ticket> confirmed = pool.reserveTickets(buyer, 1, LocalDateTime.now());
+        pool.confirmReservation(buyer, confirmed);
+        assertEquals(Ticket.TicketStatus.SOLD, confirmed.get(0).getStatus());
+        assertEquals(0, pool.getTicketCount());
+        assertFalse(pool.isAtCapacity());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void waitingBuyerGetsTheNextTicketUnlessTheyStopWaiting(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 10);
+        Customer buyer = customer("buyer", false, pool);
+        Customer leaving = customer("leaving", false, pool);
+        CompletableFuture<Ticket> bought = buyer.awaitTicket();
+        CompletableFuture<Ticket> notBought = leaving.awaitTicket();
+
+        assertNull(pool.removeTicket(buyer));
+        assertNull(pool.removeTicket(leaving));
+        assertTrue(pool.cancelWaiting(leaving));
+        assertFalse(pool.cancelWaiting(leaving));
+
+        pool.addTickets(ticketIds, 2);
+        assertTrue(bought.isDone());
+        assertEquals(Ticket.TicketStatus.SOLD, bought.join().getStatus());
+        assertFalse(notBought.isDone());
+        assertEquals(1, pool.getTicketCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void capacityCanBeChangedWhileRunning(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = switch (mode) {
+            case FAIR_LOCK -> new FairLockTicketPool(2, 10, context);
+            case LOCK_FREE -> new LockFreeTicketPool(2, 8, 10, context);
+        };
+        pool.addTickets(ticketIds, 5);
+        assertEquals(2, pool.getTicketCount());
+
+        pool.setMaxCapacity(4);
+        pool.addTickets(ticketIds, 5);
+        assertEquals(4, pool.getTicketCount());
+
+        // Lowering the capacity keeps the tickets, vendors wait until the pool drains
+        pool.setMaxCapacity(1);
+        assertTrue(pool.isAtCapacity());
+        pool.addTickets(ticketIds, 5);
+        assertEquals(4, pool.getTicketCount());
+        assertEquals(6, pool.getRemainingTotalTickets());
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(pool.removeTicket(customer("buyer", false, pool)));
+        }
+        assertFalse(pool.isAtCapacity());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void restoredTicketsAboveALoweredCapacityAreKept(TicketPoolMode mode) throws InterruptedException {
+        // Sized for the journaled tickets, then lowered to the configured capacity as on resume
+        TicketPool pool = createPool(mode, 4, 10);
+        pool.setMaxCapacity(2);
+        pool.restore(List.of("T-1", "T-2", "T-3", "T-4"), 6, List.of());
+        assertEquals(4, pool.getTicketCount());
+        assertTrue(pool.isAtCapacity());
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(pool.removeTicket(customer("buyer", false, pool)));
+        }
+        assertFalse(pool.isAtCapacity());
+        assertEquals(6, pool.getRemainingTotalTickets());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void backedUpPoolTakesNoReleasesOrSalesUntilChangesCatchUp(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 10);
+        pool.addTickets(ticketIds, 2);
+        when(ticketPersistenceService.isBackedUp()).thenReturn(true);
+
+        pool.addTickets(ticketIds, 2);
+        assertNull(pool.removeTicket(customer("alice", false, pool)));
+        assertEquals(List.of(), pool.removeTickets(customer("bob", false, pool), 1));
+        assertEquals(2, pool.getTicketCount());
+        assertEquals(8, pool.getRemainingTotalTickets());
+
+        when(ticketPersistenceService.isBackedUp()).thenReturn(false);
+        assertNotNull(pool.removeTicket(customer("alice", false, pool)));
+        pool.addTickets(ticketIds, 2);
+        assertEquals(3, pool.getTicketCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void concurrentVendorsAndCustomersNeverOversellOrSellATicketTwice(TicketPoolMode mode) throws Exception {
+        int totalTickets = 20_000;
+        int maxCapacity = 64;
+        // Every change the pool queues to be saved, to see each release and sale
+        Set<String> released = ConcurrentHashMap.newKeySet();
+        Queue<String> sold = new ConcurrentLinkedQueue<>();
+        TicketPersistenceService recorder = new TicketPersistenceService() {
+            @Override
+            public void enqueue(Ticket ticket) {
+                record(ticket);
+            }
+
+            @Override
+            public void enqueueAll(List<Ticket> tickets) {
+                tickets.forEach(this::record);
+            }
+
+            private void record(Ticket ticket) {
+                if (ticket.getStatus() == Ticket.TicketStatus.SOLD) {
+                    sold.add(ticket.getTicketName());
+                } else if (ticket.getStatus() == Ticket.TicketStatus.AVAILABLE) {
+                    released.add(ticket.getTicketName());
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public boolean isBackedUp() {
+                return false;
+            }
+        };
+        TicketPoolContext recording = new TicketPoolContext(webSocketMessageService, recorder, poolEventPublisher,
+                mock(SalesTimeSeries.class), new TicketingMetrics(new SimpleMeterRegistry()));
+        TicketPool pool = switch (mode) {
+            case FAIR_LOCK -> new FairLockTicketPool(maxCapacity, totalTickets, recording);
+            case LOCK_FREE -> new LockFreeTicketPool(maxCapacity, totalTickets, recording);
+        };
+
+        int vendors = 4;
+        int customers = 6;
+        AtomicBoolean vendorsDone = new AtomicBoolean();
+        AtomicInteger overfilled = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(vendors + customers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> vendorRuns = new ArrayList<>();
+        List<Future<?>> customerRuns = new ArrayList<>();
+        try {
+            for (int v = 0; v < vendors; v++) {
+                TicketIdGenerator generator = TicketIdGenerator.sequence("V" + v + "-");
+                vendorRuns.add(executor.submit(() -> {
+                    start.await();
+                    while (pool.getRemainingTotalTickets() > 0) {
+                        if (pool.isAtCapacity()) {
+                            Thread.yield();
+                        } else {
+                            pool.addTickets(generator, 7);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < customers; c++) {
+                int customerIndex = c;
+                customerRuns.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // Keep buying until the vendors are done and the pool is empty
+                    for (int i = 0; !vendorsDone.get() || pool.hasAvailableTickets(); i++) {
+                        Customer customer = customer("c" + customerIndex + "-" + i, random.nextInt(4) == 0, pool);
+                        switch (random.nextInt(3)) {
+                            case 0 -> pool.removeTickets(customer, 1 + random.nextInt(3));
+                            case 1 -> {
+                                List<Ticket> held = pool.reserveTickets(customer, 1 + random.nextInt(2),
+                                        LocalDateTime.now().plusMinutes(1));
+                                if (!held.isEmpty()) {
+                                    if (random.nextBoolean()) {
+                                        pool.confirmReservation(customer, held);
+                                    } else {
+                                        pool.releaseReservation(held);
+                                    }
+                                }
+                            }
+                            default -> {
+                                // Queues the customer when the pool is empty, a later release serves them
+                                if (pool.removeTicket(customer) == null) {
+                                    pool.cancelWaiting(customer);
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> monitor = executor.submit(() -> {
+                start.await();
+                while (!vendorsDone.get()) {
+                    PoolSnapshot snapshot = pool.getSnapshot();
+                    if (snapshot.getTicketCount() + snapshot.getHeldTickets() > maxCapacity) {
+                        overfilled.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> run : vendorRuns) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+            vendorsDone.set(true);
+            for (Future<?> run : customerRuns) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+            monitor.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PoolSnapshot end = pool.getSnapshot();
+        Set<String> distinctSold = new HashSet<>(sold);
+        assertEquals(sold.size(), distinctSold.size(), "a ticket was sold twice");
+        assertTrue(released.containsAll(distinctSold), "a ticket was sold without being released");
+        assertEquals(totalTickets, released.size());
+        assertEquals(totalTickets, sold.size() + end.getTicketCount() + end.getHeldTickets()
+                + end.getRemainingTotalTickets());
+        assertEquals(0, overfilled.get());
+    }
+
+    @Test
+    void capacitiesTooLargeForTheLockFreeRingGetAFairLockPool() {
+        TicketPoolFactory factory = new TicketPoolFactory(new TicketingPoolProperties(), webSocketMessageService,
+                ticketPersistenceService, poolEventPublisher, null, null, null);
+        int tooLarge = LockFreeTicketPool.MAX_CAPACITY + 1;
+        assertInstanceOf(FairLockTicketPool.class, factory.create(TicketPoolMode.LOCK_FREE, tooLarge, 10, context));
+        assertInstanceOf(LockFreeTicketPool.class,
+                factory.create(TicketPoolMode.LOCK_FREE, LockFreeTicketPool.MAX_CAPACITY, 10, context));
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void poolKeepsSellingWhileMoreTicketsArePending(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 1);
+        pool.setMoreTicketsPending(true);
+        pool.addTickets(ticketIds, 1);
+        assertNotNull(pool.removeTicket(customer("first", false, pool)));
+
+        // Out of tickets, but a new block is on its way: the customer waits for it
+        assertNull(pool.removeTicket(customer("waiting", false, pool)));
+        assertFalse(pool.isSystemStopped());
+        pool.addRemainingTotalTickets(3);
+        pool.addTickets(ticketIds, 2);
+        assertEquals(1, pool.getTicketCount());
+        assertEquals(1, pool.withdrawRemainingTotalTickets());
+        assertEquals(0, pool.getRemainingTotalTickets());
+
+        // No more tickets come, the customer that queued for them is told once the pool is empty
+        Customer queued = customer("queued", false, pool);
+        assertNotNull(pool.removeTicket(customer("last", true, pool)));
+        assertNull(pool.removeTicket(queued));
+        CompletableFuture<Ticket> queuedTicket = queued.awaitTicket();
+        pool.setMoreTicketsPending(false);
+        assertNull(pool.removeTicket(customer("late", false, pool)));
+        assertTrue(pool.isSystemStopped());
+        assertTrue(queuedTicket.isCompletedExceptionally());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TicketPoolMode.class)
+    void poolStopsWhenAllTicketsAreSold(TicketPoolMode mode) throws InterruptedException {
+        TicketPool pool = createPool(mode, 5, 2);
+        Customer vip = customer("vip", true, pool);
+
+        pool.addTickets(ticketIds, 2);
+        assertNotNull(pool.removeTicket(vip));
+        assertNotNull(pool.removeTicket(vip));
+        assertNull(pool.removeTicket(vip));
+        assertTrue(pool.isSystemStopped());
+        assertFalse(pool.hasAvailableTickets());
+    }
+}
@@ -0,0 +1,117 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.nethuli.ticketingsystem.config.TicketingClusterProperties;
+import me.nethuli.ticketingsystem.config.TicketingTicketIdProperties;
+import me.nethuli.ticketingsystem.helper.FairLockTicketPool;
+import me.nethuli.ticketingsystem.helper.SalesTimeSeries;
+import me.nethuli.ticketingsystem.helper.TicketIdGenerator;
+import me.nethuli.ticketingsystem.helper.TicketPool;
+import me.nethuli.ticketingsystem.helper.TicketPoolContext;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.repository.EventInventoryRepository;
+import me.nethuli.ticketingsystem.repository.InventoryLeaseRepository;
+import me.nethuli.ticketingsystem.service.PoolEventPublisher;
+import me.nethuli.ticketingsystem.service.TicketPersistenceService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// Every call commits, as it would for instances sharing the database
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryLeaseServiceTests {
+    @Autowired
+    private EventInventoryRepository inventoryRepository;
+    @Autowired
+    private InventoryLeaseRepository leaseRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TicketPoolContext context = new TicketPoolContext(mock(WebSocketMessageService.class),
+            mock(TicketPersistenceService.class), mock(PoolEventPublisher.class), mock(SalesTimeSeries.class),
+            new TicketingMetrics(new SimpleMeterRegistry()));
+
+    @AfterEach
+    void clearTables() {
+        leaseRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    private InventoryLeaseServiceImpl node(int nodeId, long leaseTtlMs) {
+        TicketingClusterProperties properties = new TicketingClusterProperties();
+        properties.setEnabled(true);
+        properties.setLeaseSize(4);
+        properties.setLowWaterMark(2);
+        properties.setLeaseTtlMs(leaseTtlMs);
+        TicketingTicketIdProperties ticketIdProperties = new TicketingTicketIdProperties();
+        ticketIdProperties.setNodeId(nodeId);
+        return new InventoryLeaseServiceImpl(properties, ticketIdProperties, inventoryRepository, leaseRepository,
+                transactionManager);
+    }
+
+    private static void release(TicketPool pool, int count) {
+        pool.addTickets(TicketIdGenerator.sequence("T-"), count);
+    }
+
+    private int allocatedTickets() {
+        return inventoryRepository.findById("gala").orElseThrow().getAllocatedTickets();
+    }
+
+    @Test
+    void nodesShareTheTotalAndGiveBackWhatTheyDidNotRelease() {
+        InventoryLeaseServiceImpl first = node(1, 60_000);
+        InventoryLeaseServiceImpl second = node(2, 60_000);
+        TicketPool firstPool = new FairLockTicketPool(100, 10, context);
+        TicketPool secondPool = new FairLockTicketPool(100, 10, context);
+
+        first.attach("gala", 10, firstPool, 0);
+        second.attach("gala", 10, secondPool, 0);
+        assertEquals(4, firstPool.getRemainingTotalTickets());
+        assertEquals(4, secondPool.getRemainingTotalTickets());
+
+        // Only 2 of the 10 tickets are left for the second block
+        release(secondPool, 3);
+        second.maintain(false);
+        assertEquals(3, secondPool.getRemainingTotalTickets());
+        assertEquals(10, allocatedTickets());
+        release(secondPool, 3);
+        second.maintain(false);
+        assertEquals(0, secondPool.getRemainingTotalTickets());
+
+        // The first node stops after releasing 1 ticket and gives back the other 3
+        release(firstPool, 1);
+        first.detach("gala");
+        assertEquals(0, firstPool.getRemainingTotalTickets());
+        assertEquals(7, allocatedTickets());
+        second.maintain(true);
+        assertEquals(3, secondPool.getRemainingTotalTickets());
+    }
+
+    @Test
+    void leaseOfACrashedNodeIsGivenBack() throws InterruptedException {
+        InventoryLeaseServiceImpl crashed = node(1, 60_000);
+        TicketPool crashedPool = new FairLockTicketPool(100, 10, context);
+        crashed.attach("gala", 10, crashedPool, 0);
+        release(crashedPool, 1);
+        crashed.maintain(true);
+        assertEquals(1, leaseRepository.findAll().get(0).getReleasedTickets());
+
+        // The crashed node stops renewing; a node with a short TTL finds its lease stale
+        Thread.sleep(5);
+        InventoryLeaseServiceImpl survivor = node(2, 1);
+        TicketPool survivorPool = new FairLockTicketPool(100, 10, context);
+        survivor.attach("gala", 10, survivorPool, 0);
+        survivor.maintain(true);
+        assertEquals(1, leaseRepository.findAll().size());
+        assertEquals(5, allocatedTickets());
+    }
+}
@@ -0,0 +1,88 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import me.nethuli.ticketingsystem.config.TicketingJournalProperties;
+import me.nethuli.ticketingsystem.dto.CustomerRequest;
+import me.nethuli.ticketingsystem.dto.VendorRequest;
+import me.nethuli.ticketingsystem.helper.JournaledEvent;
+import me.nethuli.ticketingsystem.helper.PoolJournal;
+import me.nethuli.ticketingsystem.helper.TicketConfiguration;
+import me.nethuli.ticketingsystem.model.Customer;
+import me.nethuli.ticketingsystem.model.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketJournalTests {
+    @TempDir
+    Path directory;
+
+    private TicketJournalImpl openJournal() throws IOException {
+        TicketingJournalProperties properties = new TicketingJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setFsync(false);
+        // Small enough that the run below writes a snapshot and continues in a new journal
+        properties.setSnapshotEveryRecords(4);
+        TicketJournalImpl journal = new TicketJournalImpl(properties);
+        journal.start();
+        return journal;
+    }
+
+    @Test
+    void poolStateIsRebuiltFromSnapshotAndJournal() throws IOException {
+        TicketJournalImpl journal = openJournal();
+        journal.eventStarted("gala", new TicketConfiguration(10, 2, 1, 5));
+        journal.vendorAdded("gala", new VendorRequest("v1", 2));
+        PoolJournal pool = journal.forEvent("gala");
+        pool.ticketReleased(new Ticket("T1"));
+        pool.ticketReleased(new Ticket("T2"));
+        pool.ticketReleased(new Ticket("T3"));
+        pool.ticketsSold(List.of(new Ticket("T1")), new Customer("alice", false, null, null, 1, null));
+        pool.customerQueued(new Customer("bob", true, null, null, 1, null));
+        journal.eventStarted("other", new TicketConfiguration(5, 1, 1, 5));
+        journal.eventDeleted("other");
+        journal.shutdown();
+
+        // A crash in the middle of a write leaves a torn entry behind
+        Files.write(directory.resolve("journal.log"), new byte[]{0, 0, 0, 42, 1, 2},
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        TicketJournalImpl recovered = openJournal();
+        Map<String, JournaledEvent> events = recovered.getRecoveredEvents();
+        assertEquals(1, events.size());
+        JournaledEvent gala = events.get("gala");
+        assertTrue(gala.isRunning());
+        assertEquals(7, gala.getRemainingTotalTickets());
+        assertEquals(List.of("T2", "T3"), List.copyOf(gala.getAvailableTickets()));
+        assertEquals(Map.of("bob", true), gala.getWaitingCustomers());
+        assertEquals(2, gala.getVendors().get("v1").getRate());
+        recovered.shutdown();
+    }
+
+    @Test
+    void reconfiguringKeepsRatesParticipantsChoseThemselves() throws IOException {
+        TicketJournalImpl journal = openJournal();
+        journal.eventStarted("gala", new TicketConfiguration(10, 2, 1, 5));
+        journal.vendorAdded("gala", new VendorRequest("onDefault", 2));
+        journal.vendorAdded("gala", new VendorRequest("own", 3));
+        journal.customerAdded("gala", new CustomerRequest("onDefault", false, null, 1));
+        journal.customerAdded("gala", new CustomerRequest("withTickets", false, 4, 1));
+        journal.eventConfigured("gala", new TicketConfiguration(10, 6, 2, 5));
+        journal.shutdown();
+
+        TicketJournalImpl recovered = openJournal();
+        JournaledEvent gala = recovered.getRecoveredEvents().get("gala");
+        assertEquals(6, gala.getVendors().get("onDefault").getRate());
+        assertEquals(3, gala.getVendors().get("own").getRate());
+        assertEquals(2, gala.getCustomers().get("onDefault").getRate());
+        assertEquals(1, gala.getCustomers().get("withTickets").getRate());
+        recovered.shutdown();
+    }
+}
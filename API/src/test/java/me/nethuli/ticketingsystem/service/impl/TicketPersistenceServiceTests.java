@@ -0,0 +1,86 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.nethuli.ticketingsystem.config.TicketingPersistenceProperties;
+import me.nethuli.ticketingsystem.helper.TicketingMetrics;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TicketPersistenceServiceTests {
+    @Test
+    void failedBatchIsWrittenAgainAndUpdatesItsRowsAfterwards() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        List<List<Ticket>> saved = new ArrayList<>();
+        when(ticketRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenAnswer(invocation -> {
+                    saved.add(List.copyOf(invocation.getArgument(0)));
+                    return invocation.getArgument(0);
+                });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TicketingPersistenceProperties properties = new TicketingPersistenceProperties();
+        properties.setRetryInitialBackoffMs(10);
+        TicketPersistenceServiceImpl persistence = new TicketPersistenceServiceImpl(ticketRepository, properties,
+                new TicketingMetrics(registry));
+        persistence.start();
+
+        Ticket ticket = new Ticket("V-TKT-1");
+        persistence.enqueue(ticket);
+        // The writer or this flush hits the failure, a later flush writes the kept batch
+        for (int attempt = 0; attempt < 3 && saved.isEmpty(); attempt++) {
+            try {
+                persistence.flush();
+            } catch (DataAccessResourceFailureException e) {
+                // Kept for the next attempt
+            }
+        }
+        assertEquals(List.of(List.of(ticket)), saved);
+        assertEquals(1, registry.counter("ticketing.persistence.failures").count());
+
+        // Its row exists now, so the sale is written by name
+        ticket.setStatus(Ticket.TicketStatus.SOLD);
+        persistence.enqueue(ticket);
+        persistence.flush();
+        verify(ticketRepository, times(2)).saveAll(anyList());
+        verify(ticketRepository).updateAllByTicketName(List.of(ticket));
+        persistence.shutdown();
+    }
+
+    @Test
+    void ticketRejectedByTheDatabaseIsDroppedAndTheRestWritten() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        List<Ticket> saved = new ArrayList<>();
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Ticket> tickets = invocation.getArgument(0);
+            if (tickets.stream().anyMatch(ticket -> ticket.getTicketName().equals("V-TKT-bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            saved.addAll(tickets);
+            return tickets;
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TicketPersistenceServiceImpl persistence = new TicketPersistenceServiceImpl(ticketRepository,
+                new TicketingPersistenceProperties(), new TicketingMetrics(registry));
+        persistence.start();
+
+        List<Ticket> tickets = List.of(new Ticket("V-TKT-1"), new Ticket("V-TKT-2"), new Ticket("V-TKT-bad"),
+                new Ticket("V-TKT-3"));
+        persistence.enqueueAll(tickets);
+        // Nothing is left to retry, so the flush returns
+        persistence.flush();
+        assertEquals(List.of("V-TKT-1", "V-TKT-2", "V-TKT-3"),
+                saved.stream().map(Ticket::getTicketName).sorted().toList());
+        assertEquals(1, registry.counter("ticketing.persistence.rejected").count());
+        persistence.shutdown();
+    }
+}
@@ -0,0 +1,99 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import me.nethuli.ticketingsystem.config.TicketingQueryProperties;
+import me.nethuli.ticketingsystem.dto.TicketPageResponse;
+import me.nethuli.ticketingsystem.dto.TicketQueryRequest;
+import me.nethuli.ticketingsystem.helper.TicketExportFormat;
+import me.nethuli.ticketingsystem.model.Ticket;
+import me.nethuli.ticketingsystem.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({TicketQueryServiceImpl.class, TicketingQueryProperties.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TicketQueryServiceTests {
+    private static final LocalDateTime SALE_START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+    @Autowired
+    private TicketQueryServiceImpl ticketQueryService;
+
+    @BeforeEach
+    void saveTickets() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Ticket ticket = new Ticket("alpha-TKT-" + i);
+            ticket.setStatus(Ticket.TicketStatus.SOLD);
+            ticket.setSoldAt(SALE_START.plusMinutes(i));
+            tickets.add(ticket);
+        }
+        tickets.add(new Ticket("alpha-TKT-unsold"));
+        // "alpha_x" must not match the vendor "alpha_" through a LIKE wildcard
+        tickets.add(new Ticket("alpha_x-TKT-0"));
+        ticketRepository.saveAll(tickets);
+    }
+
+    private static TicketQueryRequest soldByAlpha() {
+        TicketQueryRequest request = new TicketQueryRequest();
+        request.setStatus(Ticket.TicketStatus.SOLD);
+        request.setVendor("alpha");
+        return request;
+    }
+
+    @Test
+    void pagesFollowEachOtherByKeyset() {
+        TicketQueryRequest request = soldByAlpha();
+        request.setLimit(2);
+        List<String> names = new ArrayList<>();
+        TicketPageResponse page;
+        do {
+            page = ticketQueryService.findTickets(request);
+            page.getTickets().forEach(ticket -> names.add(ticket.getTicketName()));
+            request.setAfterId(page.getNextAfterId());
+        } while (page.getNextAfterId() != null);
+
+        assertEquals(List.of("alpha-TKT-0", "alpha-TKT-1", "alpha-TKT-2", "alpha-TKT-3", "alpha-TKT-4"), names);
+
+        TicketQueryRequest wildcard = new TicketQueryRequest();
+        wildcard.setVendor("alpha_");
+        assertTrue(ticketQueryService.findTickets(wildcard).getTickets().isEmpty());
+    }
+
+    @Test
+    void exportStreamsTheSoldTimeRange() throws IOException {
+        TicketQueryRequest request = soldByAlpha();
+        request.setSoldFrom(SALE_START.plusMinutes(1));
+        request.setSoldTo(SALE_START.plusMinutes(3));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ticketQueryService.exportTickets(request, TicketExportFormat.CSV, csv);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,ticketName,status,createdAt,soldAt", lines[0]);
+        assertTrue(lines[1].contains(",alpha-TKT-1,SOLD,"));
+        assertTrue(lines[2].endsWith(",2026-01-01T12:02"));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ticketQueryService.exportTickets(request, TicketExportFormat.NDJSON, ndjson);
+        lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"ticketName\":\"alpha-TKT-1\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"soldAt\":\"2026-01-01T12:02:00\""));
+    }
+}
@@ -0,0 +1,35 @@
+package me.nethuli.ticketingsystem.service.impl;
+
+import me.nethuli.ticketingsystem.dto.TicketConfigurationRequest;
+import me.nethuli.ticketingsystem.service.TicketingService;
+import me.nethuli.ticketingsystem.service.WebSocketMessageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {"ticketing.journal.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:ticketing-service-tests"})
+class TicketingServiceTests {
+    @Autowired
+    private TicketingService ticketingService;
+
+    @SpyBean
+    private WebSocketMessageService webSocketMessageService;
+
+    @Test
+    void defaultVendorFollowsANonDefaultEventReleaseRate() {
+        // The default release rate is 5, the event's own rate 3
+        ticketingService.createEvent("concert", new TicketConfigurationRequest(50, 3, 7, 10));
+        ticketingService.startTicketOperations("concert");
+        try {
+            ticketingService.configureSystem("concert", new TicketConfigurationRequest(50, 4, 7, 10));
+            verify(webSocketMessageService).sendLogMessage(contains("release rate 4 (1 of 1 vendors)"));
+        } finally {
+            ticketingService.stopTicketOperations("concert");
+        }
+    }
+}